@@ -0,0 +1,61 @@
+package carcassonne.benchmark;
+
+import java.util.function.Supplier;
+
+/**
+ * A benchmark of a single operation, which is measured by the {@link BenchmarkRunner}. An optional preparation runs
+ * before every invocation of the operation and is not measured, which allows to benchmark operations that change their
+ * input, such as scoring a grid.
+ * @author Timur Saglam
+ */
+public class Benchmark {
+    private final String name;
+    private final Runnable preparation;
+    private final Supplier<?> operation;
+
+    /**
+     * Creates a benchmark of an operation without preparation.
+     * @param name is the name of the benchmark.
+     * @param operation is the measured operation. Its result is consumed, so it is not optimized away.
+     */
+    public Benchmark(String name, Supplier<?> operation) {
+        this(name, () -> {
+            // no preparation needed.
+        }, operation);
+    }
+
+    /**
+     * Creates a benchmark of an operation with a preparation.
+     * @param name is the name of the benchmark.
+     * @param preparation runs before every invocation of the operation and is not measured.
+     * @param operation is the measured operation. Its result is consumed, so it is not optimized away.
+     */
+    public Benchmark(String name, Runnable preparation, Supplier<?> operation) {
+        this.name = name;
+        this.preparation = preparation;
+        this.operation = operation;
+    }
+
+    /**
+     * Getter for the name of the benchmark.
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Prepares the next invocation of the operation.
+     */
+    public void prepare() {
+        preparation.run();
+    }
+
+    /**
+     * Invokes the measured operation once.
+     * @return the result of the operation.
+     */
+    public Object run() {
+        return operation.get();
+    }
+}
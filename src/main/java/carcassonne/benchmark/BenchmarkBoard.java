@@ -0,0 +1,91 @@
+package carcassonne.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.GamePhase;
+import carcassonne.model.GameState;
+import carcassonne.model.tile.TileStack;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+import carcassonne.simulation.SimulationStrategy;
+
+/**
+ * A board for benchmarks, which is generated by playing a random game with a seeded tile stack and seeded decisions. The
+ * same seed always leads to the same board, so benchmark results can be reproduced and compared. The game is stopped
+ * shortly before the tile stack is empty, while the active player holds a tile.
+ * @author Timur Saglam
+ */
+public class BenchmarkBoard {
+    private static final int PLAYERS = 4;
+    private static final int RESERVED_TILES = PLAYERS; // tiles that are left on the stack
+    private final String name;
+    private final GameSettings settings;
+    private final GameState state;
+    private final List<TileType> remainingTiles;
+
+    /**
+     * Generates a board by playing a random game.
+     * @param width is the width of the grid.
+     * @param height is the height of the grid.
+     * @param stackSizeMultiplier determines how many tiles are placed, see {@link GameSettings#getStackSizeMultiplier()}.
+     * @param seed is the seed of the tile stack and of the decisions of the players.
+     */
+    public BenchmarkBoard(int width, int height, int stackSizeMultiplier, long seed) {
+        name = width + "x" + height;
+        settings = new GameSettings();
+        settings.setGridWidth(width);
+        settings.setGridHeight(height);
+        settings.setGridSizeChanged(false);
+        settings.setStackSizeMultiplier(stackSizeMultiplier);
+        settings.setAmountOfPlayers(PLAYERS);
+        Random random = new Random(seed);
+        GameEngine engine = new GameEngine(PLAYERS, new TileStack(createStackOrder(random)), settings);
+        engine.drawTile();
+        while (engine.getPhase() != GamePhase.OVER && engine.getTileStack().getSize() > RESERVED_TILES) {
+            SimulationStrategy.RANDOM.playTurn(engine, random);
+            engine.drawTile();
+        }
+        state = engine.getState();
+        List<TileType> drawOrder = engine.getTileStack().getDrawOrder();
+        remainingTiles = new ArrayList<>(drawOrder.subList(0, drawOrder.size() - state.getReturnedTiles().size()));
+    }
+
+    /**
+     * Restores the game of the board in a new game engine, which can be changed without affecting the board.
+     * @return the new game engine.
+     */
+    public GameEngine createEngine() {
+        return new GameEngine(state, new TileStack(remainingTiles, state.getReturnedTiles()), settings);
+    }
+
+    /**
+     * Getter for the name of the board, which is its size.
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for the state of the game of the board.
+     * @return the game state.
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    private List<TileType> createStackOrder(Random random) {
+        List<TileType> order = new ArrayList<>();
+        for (TileType type : TileType.validTiles()) {
+            for (int i = 0; i < settings.getTileDistribution().getQuantity(type) * settings.getStackSizeMultiplier(); i++) {
+                order.add(type);
+            }
+        }
+        Collections.shuffle(order, random);
+        return order;
+    }
+}
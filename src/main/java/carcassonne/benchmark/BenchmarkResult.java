@@ -0,0 +1,66 @@
+package carcassonne.benchmark;
+
+import java.util.List;
+
+/**
+ * The result of a benchmark, which consists of the average time per invocation of every measurement iteration.
+ * @author Timur Saglam
+ */
+public class BenchmarkResult {
+    private static final double NANOS_PER_MICRO = 1000;
+    private final String name;
+    private final double average;
+    private final double error;
+    private final long invocations;
+
+    /**
+     * Creates the result from the measurement iterations.
+     * @param name is the name of the benchmark.
+     * @param iterationAverages are the average times per invocation in nanoseconds, one for each iteration.
+     * @param invocations is the total number of measured invocations.
+     */
+    public BenchmarkResult(String name, List<Double> iterationAverages, long invocations) {
+        this.name = name;
+        this.invocations = invocations;
+        average = iterationAverages.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double variance = iterationAverages.stream().mapToDouble(it -> (it - average) * (it - average)).sum();
+        error = iterationAverages.size() > 1 ? Math.sqrt(variance / (iterationAverages.size() - 1)) : 0;
+    }
+
+    /**
+     * Getter for the average time per invocation.
+     * @return the time in nanoseconds.
+     */
+    public double getAverage() {
+        return average;
+    }
+
+    /**
+     * Getter for the standard deviation of the iteration averages.
+     * @return the standard deviation in nanoseconds.
+     */
+    public double getError() {
+        return error;
+    }
+
+    /**
+     * Getter for the number of measured invocations.
+     * @return the number of invocations.
+     */
+    public long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * Getter for the name of the benchmark.
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-70s %12.2f +- %10.2f us/op %10d ops", name, average / NANOS_PER_MICRO, error / NANOS_PER_MICRO, invocations);
+    }
+}
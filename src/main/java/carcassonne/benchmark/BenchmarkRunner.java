@@ -0,0 +1,72 @@
+package carcassonne.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs benchmarks in a fixed number of warmup iterations and measurement iterations of a fixed duration. The warmup
+ * iterations allow the just-in-time compiler to optimize the operation before it is measured. Every invocation is
+ * measured on its own, so that the preparation of the invocation is not measured.
+ * @author Timur Saglam
+ */
+public class BenchmarkRunner {
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationTime;
+    private long invocations;
+    private volatile Object sink; // consumes the results, so the operations are not optimized away
+
+    /**
+     * Creates a runner.
+     * @param warmupIterations is the number of iterations that are not measured.
+     * @param measurementIterations is the number of measured iterations.
+     * @param iterationTime is the duration of every iteration in milliseconds. Every iteration contains at least one
+     * invocation.
+     */
+    public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationTime) {
+        if (measurementIterations < 1 || warmupIterations < 0 || iterationTime < 0) {
+            throw new IllegalArgumentException("Invalid iterations: " + warmupIterations + ", " + measurementIterations + ", " + iterationTime);
+        }
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationTime = TimeUnit.MILLISECONDS.toNanos(iterationTime);
+    }
+
+    /**
+     * Runs a benchmark.
+     * @param benchmark is the benchmark.
+     * @return the result of the measurement iterations.
+     */
+    public BenchmarkResult run(Benchmark benchmark) {
+        for (int i = 0; i < warmupIterations; i++) {
+            iterate(benchmark);
+        }
+        invocations = 0;
+        List<Double> iterationAverages = new ArrayList<>();
+        for (int i = 0; i < measurementIterations; i++) {
+            iterationAverages.add(iterate(benchmark));
+        }
+        sink = null;
+        return new BenchmarkResult(benchmark.getName(), iterationAverages, invocations);
+    }
+
+    /**
+     * Invokes the benchmark until the iteration time is over, which includes the time of the preparations.
+     * @return the average measured time per invocation in nanoseconds.
+     */
+    private double iterate(Benchmark benchmark) {
+        long end = System.nanoTime() + iterationTime;
+        long measuredTime = 0;
+        int iterationInvocations = 0;
+        do {
+            benchmark.prepare();
+            long start = System.nanoTime();
+            sink = benchmark.run();
+            measuredTime += System.nanoTime() - start;
+            iterationInvocations++;
+        } while (System.nanoTime() < end);
+        invocations += iterationInvocations;
+        return measuredTime / (double) iterationInvocations;
+    }
+}
@@ -0,0 +1,175 @@
+package carcassonne.benchmark;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.grid.Grid;
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.grid.PossiblePlacement;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.terrain.TileTerrain;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileRotation;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+import carcassonne.util.ConcurrentTileImageScaler;
+import carcassonne.util.ImageLoadingUtil;
+import carcassonne.util.TileImageScalingCache;
+import carcassonne.view.PaintShop;
+
+/**
+ * Benchmark suite of the hot paths of the model and of the image processing. The model benchmarks run on boards of
+ * several sizes, which are generated from seeded random games, so results of different versions can be compared. Does not
+ * require any libraries, run it with the main method.
+ * @author Timur Saglam
+ */
+public final class BenchmarkSuite {
+    private static final long DEFAULT_SEED = 42;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int ITERATION_TIME = 500; // milliseconds
+    private static final int[][] BOARD_SIZES = { { 29, 19, 1 }, { 100, 100, 10 }, { 250, 250, 40 }, { 500, 500, 100 } }; // width, height, multiplier
+    private static final int IMAGE_SIZE = GameSettings.TILE_SIZE;
+    private static final Color MEEPLE_COLOR = new Color(30, 26, 197);
+
+    private BenchmarkSuite() {
+        // private constructor ensures non-instantiability!
+    }
+
+    /**
+     * Creates the benchmarks of the model for a board.
+     * @param board is the board.
+     * @return the list of benchmarks.
+     */
+    public static List<Benchmark> createBoardBenchmarks(BenchmarkBoard board) {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        GameEngine engine = board.createEngine();
+        Grid grid = engine.getGrid();
+        Tile tile = engine.getActivePlayer().getHandOfTiles().iterator().next();
+        List<PossiblePlacement> placements = engine.legalPlacements(tile);
+        if (placements.isEmpty()) {
+            throw new IllegalStateException("The tile of the board " + board.getName() + " can not be placed: " + tile);
+        }
+        PossiblePlacement placement = placements.get(0);
+        String suffix = " [" + board.getName() + "]";
+        benchmarks.add(new Benchmark("Grid.getPossiblePlacements" + suffix, () -> grid.getPossiblePlacements(tile)));
+        benchmarks.add(new Benchmark("Grid.place and Grid.removeLastTile" + suffix, () -> {
+            rotate(tile, placement.getRotation());
+            grid.place(placement.getSpot().getX(), placement.getSpot().getY(), tile);
+            return grid.removeLastTile();
+        }));
+        benchmarks.add(new Benchmark("Grid.getAllPatterns" + suffix, grid::getAllPatterns));
+        GameEngine manningEngine = board.createEngine(); // engine in the manning phase, the other engine stays unchanged
+        Tile placedTile = manningEngine.getActivePlayer().getHandOfTiles().iterator().next();
+        rotate(placedTile, placement.getRotation());
+        manningEngine.placeTile(placedTile, placement.getSpot().getX(), placement.getSpot().getY());
+        benchmarks.add(new Benchmark("Grid.getModifiedPatterns" + suffix, () -> manningEngine.getGrid().getModifiedPatterns(placedTile.getGridSpot())));
+        benchmarks.add(new Benchmark("GameEngine.isMeeplePlaceable (all positions)" + suffix, () -> {
+            int placeablePositions = 0;
+            for (GridDirection position : GridDirection.values()) {
+                if (manningEngine.isMeeplePlaceable(position)) {
+                    placeablePositions++;
+                }
+            }
+            return placeablePositions;
+        }));
+        AtomicReference<GameEngine> scoredEngine = new AtomicReference<>();
+        benchmarks.add(new Benchmark("GameEngine.finalScore (all patterns, forced disbursal)" + suffix, () -> scoredEngine.set(board.createEngine()),
+                () -> scoredEngine.get().finalScore()));
+        return benchmarks;
+    }
+
+    /**
+     * Creates the benchmarks of the image processing.
+     * @return the list of benchmarks.
+     */
+    public static List<Benchmark> createImageBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        List<Tile> tiles = new ArrayList<>();
+        TileType.validTiles().forEach(it -> tiles.add(new Tile(it)));
+        AtomicInteger index = new AtomicInteger();
+        benchmarks.add(new Benchmark("ConcurrentTileImageScaler.getScaledMultiResolutionImage (cached)",
+                () -> ConcurrentTileImageScaler.getScaledMultiResolutionImage(next(tiles, index), IMAGE_SIZE, false)));
+        benchmarks.add(new Benchmark("ConcurrentTileImageScaler.getScaledMultiResolutionImage (uncached)", TileImageScalingCache::clear,
+                () -> ConcurrentTileImageScaler.getScaledMultiResolutionImage(next(tiles, index), IMAGE_SIZE, true)));
+        String imagePath = GameSettings.TILE_FOLDER_PATH + TileType.CastleCenter.name() + 0 + GameSettings.TILE_FILE_TYPE;
+        BufferedImage tileImage = ImageLoadingUtil.createBufferedImage(imagePath);
+        benchmarks.add(new Benchmark("PaintShop.addEmblem", () -> PaintShop.addEmblem(tileImage)));
+        List<TerrainType> meepleTypes = TerrainType.basicTerrain();
+        benchmarks.add(new Benchmark("PaintShop.getColoredMeeple (cached)",
+                () -> PaintShop.getColoredMeeple(next(meepleTypes, index), MEEPLE_COLOR, IMAGE_SIZE)));
+        benchmarks.add(new Benchmark("PaintShop.getColoredMeeple (uncached)", PaintShop::clearCachedImages,
+                () -> PaintShop.getColoredMeeple(next(meepleTypes, index), MEEPLE_COLOR, IMAGE_SIZE)));
+        return benchmarks;
+    }
+
+    /**
+     * Creates the benchmarks of the tile terrain.
+     * @return the list of benchmarks.
+     */
+    public static List<Benchmark> createTerrainBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        List<TileType> types = TileType.validTiles();
+        benchmarks.add(new Benchmark("TileTerrain construction (all types and rotations)", () -> {
+            TileTerrain terrain = null;
+            for (TileType type : types) {
+                for (TileRotation rotation : TileRotation.values()) {
+                    terrain = new TileTerrain(type, rotation);
+                }
+            }
+            return terrain;
+        }));
+        List<Tile> tiles = new ArrayList<>();
+        types.forEach(it -> tiles.add(new Tile(it)));
+        benchmarks.add(new Benchmark("Tile.rotateRight (all types, full turn)", () -> {
+            for (Tile tile : tiles) {
+                for (int i = 0; i < TileRotation.values().length; i++) {
+                    tile.rotateRight();
+                }
+            }
+            return tiles;
+        }));
+        return benchmarks;
+    }
+
+    /**
+     * Runs the benchmark suite and prints the results.
+     * @param args are optional: the seed of the boards and a text that the names of the benchmarks that are run need to
+     * contain.
+     */
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_SEED;
+        String filter = args.length > 1 ? args[1] : "";
+        List<Benchmark> benchmarks = new ArrayList<>();
+        benchmarks.addAll(createTerrainBenchmarks());
+        benchmarks.addAll(createImageBenchmarks());
+        for (int[] size : BOARD_SIZES) {
+            long start = System.nanoTime();
+            BenchmarkBoard board = new BenchmarkBoard(size[0], size[1], size[2], seed);
+            System.out.printf("Generated board %s with %d tiles in %d ms%n", board.getName(), board.getState().getTileCount(),
+                    (System.nanoTime() - start) / 1000000);
+            benchmarks.addAll(createBoardBenchmarks(board));
+        }
+        BenchmarkRunner runner = new BenchmarkRunner(WARMUP_ITERATIONS, MEASUREMENT_ITERATIONS, ITERATION_TIME);
+        for (Benchmark benchmark : benchmarks) {
+            if (benchmark.getName().contains(filter)) {
+                System.out.println(runner.run(benchmark));
+            }
+        }
+    }
+
+    private static <T> T next(List<T> elements, AtomicInteger index) {
+        return elements.get(Math.floorMod(index.getAndIncrement(), elements.size()));
+    }
+
+    private static void rotate(Tile tile, TileRotation rotation) {
+        while (tile.getRotation() != rotation) {
+            tile.rotateRight();
+        }
+    }
+}
@@ -8,11 +8,12 @@ import carcassonne.control.state.StateGameOver;
 import carcassonne.control.state.StateIdle;
 import carcassonne.control.state.StateManning;
 import carcassonne.control.state.StatePlacing;
-import carcassonne.model.Round;
-import carcassonne.model.grid.Grid;
+import carcassonne.model.GameEngine;
 import carcassonne.model.grid.GridDirection;
-import carcassonne.model.tile.TileStack;
+import carcassonne.model.record.GameReplay;
 import carcassonne.settings.GameSettings;
+import carcassonne.simulation.HintEngine;
+import carcassonne.simulation.MonteCarloTreeSearch;
 import carcassonne.view.GlobalKeyBindingManager;
 import carcassonne.view.main.MainGUI;
 import carcassonne.view.secondary.PlacementGUI;
@@ -33,12 +34,16 @@ public class MainController {
     private AbstractGameState currentState;
     private final GameSettings settings;
     private final GlobalKeyBindingManager keyBindings;
+    private final MonteCarloTreeSearch computerPlayer;
+    private final HintEngine hintEngine;
 
     /**
      * Basic constructor. Creates the view and the model of the game.
      */
     public MainController() {
         settings = new GameSettings();
+        computerPlayer = new MonteCarloTreeSearch(settings);
+        hintEngine = new HintEngine(settings);
         mainGUI = new MainGUI(this);
         PreviewGUI previewGUI = new PreviewGUI(this, mainGUI);
         PlacementGUI placementGUI = new PlacementGUI(this, mainGUI);
@@ -85,6 +90,14 @@ public class MainController {
         currentState.abortGame();
     }
 
+    /**
+     * Requests to exit the game, which shuts down the threads of the computer player and the hint engine.
+     */
+    public void requestExit() {
+        computerPlayer.close();
+        hintEngine.close();
+    }
+
     /**
      * Method for the view to see whether a meeple is placeable on a specific tile.
      * @param position is the specific position on the tile.
@@ -102,6 +115,13 @@ public class MainController {
         currentState.placeMeeple(position);
     }
 
+    /**
+     * Method for the view to call if the user wants a suggestion for his next move.
+     */
+    public void requestMoveSuggestion() {
+        currentState.suggestMove();
+    }
+
     /**
      * Requests to start a new round with a specific amount of players.
      */
@@ -109,6 +129,14 @@ public class MainController {
         currentState.newRound(settings.getAmountOfPlayers());
     }
 
+    /**
+     * Method for the view to call if the user wants to replay a recorded game.
+     * @param replay is the replay of the recorded game.
+     */
+    public void requestReplay(GameReplay replay) {
+        currentState.replay(replay);
+    }
+
     /**
      * Method for the view to call if the user wants to skip a round.
      */
@@ -116,6 +144,13 @@ public class MainController {
         currentState.skip();
     }
 
+    /**
+     * Method for the view to call if the user wants to take back his last move.
+     */
+    public void requestUndo() {
+        currentState.undo();
+    }
+
     /**
      * Method for the view to call if a user places a tile.
      * @param x is the x coordinate.
@@ -126,17 +161,32 @@ public class MainController {
     }
 
     /**
-     * Updates the round and the grid of every state after a new round has been started.
-     * @param newRound sets the new round.
-     * @param newGrid sets the new grid.
+     * Updates the game engine of every state after a new round has been started.
+     * @param engine sets the new game engine.
      */
-    public void updateStates(Round newRound, TileStack tileStack, Grid newGrid) {
-        mainGUI.getScoreboard().rebuild(newRound.getPlayerCount());
+    public void updateStates(GameEngine engine) {
+        mainGUI.getScoreboard().rebuild(engine.getRound().getPlayerCount());
         for (AbstractGameState state : stateMap.values()) {
-            state.updateState(newRound, tileStack, newGrid);
+            state.updateState(engine);
         }
     }
 
+    /**
+     * Getter for the computer player, which decides the moves of all players that are controlled by the computer.
+     * @return the computer player.
+     */
+    public MonteCarloTreeSearch getComputerPlayer() {
+        return computerPlayer;
+    }
+
+    /**
+     * Getter for the hint engine, which suggests moves to the human players.
+     * @return the hint engine.
+     */
+    public HintEngine getHintEngine() {
+        return hintEngine;
+    }
+
     /**
      * Getter for the global key binding manager.
      * @return the global key bindings.
@@ -1,11 +1,21 @@
 package carcassonne.control.state;
 
+import java.util.Random;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
 import carcassonne.control.MainController;
+import carcassonne.model.GameEngine;
+import carcassonne.model.GamePhase;
+import carcassonne.model.Move;
 import carcassonne.model.Player;
 import carcassonne.model.Round;
 import carcassonne.model.grid.Grid;
 import carcassonne.model.grid.GridDirection;
 import carcassonne.model.grid.GridSpot;
+import carcassonne.model.record.GameReplay;
+import carcassonne.model.tile.Tile;
 import carcassonne.model.tile.TileStack;
 import carcassonne.settings.GameSettings;
 import carcassonne.view.main.MainGUI;
@@ -23,6 +33,7 @@ public abstract class AbstractGameState {
     protected MainGUI mainGUI;
     protected PreviewGUI previewGUI;
     protected PlacementGUI placementGUI;
+    protected GameEngine engine;
     protected Round round;
     protected TileStack tileStack;
     protected Grid grid;
@@ -75,21 +86,36 @@ public abstract class AbstractGameState {
      */
     public abstract void placeTile(int x, int y);
 
+    /**
+     * Method for the view to call if the user wants to replay a recorded game.
+     * @param replay is the replay of the recorded game.
+     */
+    public abstract void replay(GameReplay replay);
+
     /**
      * Method for the view to call if the user wants to skip a round.
      */
     public abstract void skip();
 
     /**
-     * Updates the round and the grid object after a new round was started.
-     * @param round sets the new round.
-     * @param tileStack sets the tile stack.
-     * @param grid sets the new grid.
+     * Method for the view to call if the user wants a suggestion for his next move.
      */
-    public void updateState(Round round, TileStack tileStack, Grid grid) {
-        this.round = round;
-        this.grid = grid;
-        this.tileStack = tileStack;
+    public abstract void suggestMove();
+
+    /**
+     * Method for the view to call if the user wants to take back his last move.
+     */
+    public abstract void undo();
+
+    /**
+     * Updates the game engine and its round, tile stack and grid after a new round was started.
+     * @param engine sets the new game engine.
+     */
+    public void updateState(GameEngine engine) {
+        this.engine = engine;
+        round = engine.getRound();
+        grid = engine.getGrid();
+        tileStack = engine.getTileStack();
     }
 
     /**
@@ -112,18 +138,47 @@ public abstract class AbstractGameState {
      */
     protected abstract void exit();
 
+    /**
+     * Checks whether the active player is controlled by the computer. User input is ignored during the turns of computer
+     * players.
+     * @return true if it is the turn of a computer player.
+     */
+    protected boolean isComputerTurn() {
+        return round != null && round.getActivePlayer().isComputerPlayer();
+    }
+
+    /**
+     * Lets the computer player search the move of the active player in the background, so that the user interface stays
+     * responsive. The move is handed to the move handler on the event dispatch thread, unless the game has moved on in the
+     * meantime, for example because the game was aborted.
+     * @param moveHandler is the move handler that plays the move.
+     */
+    protected void requestComputerMove(Consumer<Move> moveHandler) {
+        GameEngine searchedEngine = engine;
+        GamePhase searchedPhase = engine.getPhase();
+        int searchedTurn = engine.getMoves().size();
+        controller.getComputerPlayer().searchAsync(engine).thenAccept(move -> SwingUtilities.invokeLater(() -> {
+            if (engine == searchedEngine && engine.getPhase() == searchedPhase && engine.getMoves().size() == searchedTurn) {
+                moveHandler.accept(move);
+            }
+        })).exceptionally(exception -> {
+            exception.printStackTrace();
+            return null;
+        });
+    }
+
     /**
      * Starts a new round for a specific number of players.
      * @param playerCount is the specific number of players.
      */
     protected void startNewRound(int playerCount) {
         GameSettings settings = controller.getSettings();
-        Grid newGrid = new Grid(settings.getGridWidth(), settings.getGridHeight());
-        TileStack tileStack = new TileStack(playerCount, settings.getTileDistribution(), settings.getStackSizeMultiplier());
-        Round newRound = new Round(playerCount, tileStack, newGrid, controller.getSettings());
-        controller.updateStates(newRound, tileStack, newGrid);
+        GameEngine newEngine = new GameEngine(playerCount, settings, new Random(settings.nextSeed()));
+        newEngine.setMeepleRemovalListener(it -> mainGUI.removeMeeple(it));
+        controller.updateStates(newEngine);
         updateScores();
         updateStackSize();
+        scoreboard.updateSeed(settings.getSeed());
         if (settings.isGridSizeChanged()) {
             settings.setGridSizeChanged(false);
             mainGUI.rebuildGrid();
@@ -131,12 +186,6 @@ public abstract class AbstractGameState {
         GridSpot spot = grid.getFoundation(); // starting spot.
         mainGUI.setTile(spot.getTile(), spot.getX(), spot.getY());
         highlightSurroundings(spot);
-        for (int i = 0; i < round.getPlayerCount(); i++) {
-            Player player = round.getPlayer(i);
-            while (!player.hasFullHand()) {
-                player.addTile(tileStack.drawTile());
-            }
-        }
         mainGUI.setCurrentPlayer(round.getActivePlayer());
         changeState(StatePlacing.class);
     }
@@ -148,7 +197,7 @@ public abstract class AbstractGameState {
         Player player;
         for (int playerNumber = 0; playerNumber < round.getPlayerCount(); playerNumber++) {
             player = round.getPlayer(playerNumber);
-            scoreboard.update(player);
+            scoreboard.update(player, round.getProjectedScore(playerNumber));
         }
     }
 
@@ -159,15 +208,33 @@ public abstract class AbstractGameState {
         scoreboard.updateStackSize(tileStack.getSize());
     }
 
+    /**
+     * Redraws the tiles and meeples of the grid on the main UI, which is required after moves were taken back.
+     */
+    protected void redrawGrid() {
+        mainGUI.resetGrid();
+        for (GridSpot spot : grid.getPlacedSpots()) {
+            Tile tile = spot.getTile();
+            mainGUI.setTile(tile, spot.getX(), spot.getY());
+            if (tile.hasMeeple() && tile.getMeeple().isPlaced()) { // returned meeples stay on their tiles
+                mainGUI.setMeeple(tile, tile.getMeeple().getPosition(), tile.getMeeple().getOwner());
+            }
+        }
+        for (GridSpot spot : grid.getFrontier()) {
+            mainGUI.setHighlight(spot.getX(), spot.getY());
+        }
+        updateScores();
+        updateStackSize();
+        mainGUI.setCurrentPlayer(round.getActivePlayer());
+    }
+
     /**
      * Highlights the surroundings of a {@link GridSpot} on the main UI.
      * @param spot is the {@link GridSpot} that determines where to highlight.
      */
     protected void highlightSurroundings(GridSpot spot) {
-        for (GridSpot neighbor : grid.getNeighbors(spot, true, GridDirection.directNeighbors())) {
-            if (neighbor != null && neighbor.isFree()) {
-                mainGUI.setHighlight(neighbor.getX(), neighbor.getY());
-            }
+        for (GridSpot neighbor : grid.getFreeNeighbors(spot)) {
+            mainGUI.setHighlight(neighbor.getX(), neighbor.getY());
         }
     }
 }
@@ -3,6 +3,7 @@ package carcassonne.control.state;
 import carcassonne.control.MainController;
 import carcassonne.model.grid.GridDirection;
 import carcassonne.model.grid.GridPattern;
+import carcassonne.model.record.GameReplay;
 import carcassonne.view.main.MainGUI;
 import carcassonne.view.secondary.PlacementGUI;
 import carcassonne.view.secondary.PreviewGUI;
@@ -71,6 +72,17 @@ public class StateGameOver extends AbstractGameState {
         // do nothing.
     }
 
+    /**
+     * @see carcassonne.control.state.AbstractGameState#replay()
+     */
+    @Override
+    public void replay(GameReplay replay) {
+        scoreboard.disable();
+        exit();
+        changeState(StateIdle.class);
+        controller.requestReplay(replay);
+    }
+
     /**
      * @see carcassonne.control.state.AbstractGameState#skip()
      */
@@ -81,15 +93,30 @@ public class StateGameOver extends AbstractGameState {
         changeState(StateIdle.class);
     }
 
+    /**
+     * @see carcassonne.control.state.AbstractGameState#suggestMove()
+     */
+    @Override
+    public void suggestMove() {
+        // do nothing, the game is over.
+    }
+
+    /**
+     * @see carcassonne.control.state.AbstractGameState#undo()
+     */
+    @Override
+    public void undo() {
+        // do nothing, the game was already scored.
+    }
+
     /**
      * @see carcassonne.control.state.AbstractGameState#entry()
      */
     @Override
     protected void entry() {
         System.out.println("FINAL PATTERNS:"); // TODO (LOW) remove debug output
-        for (GridPattern pattern : grid.getAllPatterns()) {
+        for (GridPattern pattern : engine.finalScore()) {
             System.out.println(pattern); // TODO (LOW) remove debug output
-            pattern.forceDisburse();
         }
         updateScores();
         updateStackSize();
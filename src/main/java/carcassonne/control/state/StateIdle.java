@@ -1,10 +1,14 @@
 package carcassonne.control.state;
 
 import carcassonne.control.MainController;
+import carcassonne.model.grid.Grid;
 import carcassonne.model.grid.GridDirection;
+import carcassonne.model.record.GameReplay;
+import carcassonne.settings.GameSettings;
 import carcassonne.view.main.MainGUI;
 import carcassonne.view.secondary.PlacementGUI;
 import carcassonne.view.secondary.PreviewGUI;
+import carcassonne.view.tertiary.ReplayGUI;
 import carcassonne.view.util.GameMessage;
 
 /**
@@ -12,6 +16,7 @@ import carcassonne.view.util.GameMessage;
  * @author Timur Saglam
  */
 public class StateIdle extends AbstractGameState {
+    private ReplayGUI replayGUI;
 
     /**
      * Constructor of the state.
@@ -45,6 +50,7 @@ public class StateIdle extends AbstractGameState {
      */
     @Override
     public void newRound(int playerCount) {
+        closeReplay();
         startNewRound(playerCount);
     }
 
@@ -64,6 +70,23 @@ public class StateIdle extends AbstractGameState {
         // do nothing.
     }
 
+    /**
+     * @see carcassonne.control.state.AbstractGameState#replay()
+     */
+    @Override
+    public void replay(GameReplay replay) {
+        closeReplay();
+        GameSettings settings = controller.getSettings();
+        Grid replayGrid = replay.getEngine().getGrid();
+        if (settings.getGridWidth() != replayGrid.getWidth() || settings.getGridHeight() != replayGrid.getHeight()) {
+            settings.setGridWidth(replayGrid.getWidth());
+            settings.setGridHeight(replayGrid.getHeight());
+            settings.setGridSizeChanged(false);
+            mainGUI.rebuildGrid();
+        }
+        replayGUI = new ReplayGUI(mainGUI, replay);
+    }
+
     /**
      * @see carcassonne.control.state.AbstractGameState#skip()
      */
@@ -72,6 +95,22 @@ public class StateIdle extends AbstractGameState {
         throw new IllegalStateException("There is nothing to skip in StateIdle.");
     }
 
+    /**
+     * @see carcassonne.control.state.AbstractGameState#suggestMove()
+     */
+    @Override
+    public void suggestMove() {
+        // do nothing, there is no game.
+    }
+
+    /**
+     * @see carcassonne.control.state.AbstractGameState#undo()
+     */
+    @Override
+    public void undo() {
+        // do nothing.
+    }
+
     /**
      * @see carcassonne.control.state.AbstractGameState#entry()
      */
@@ -88,4 +127,11 @@ public class StateIdle extends AbstractGameState {
         // No exit functions.
     }
 
+    private void closeReplay() {
+        if (replayGUI != null) {
+            replayGUI.closeGUI();
+            replayGUI = null;
+        }
+    }
+
 }
@@ -1,13 +1,11 @@
 package carcassonne.control.state;
 
 import carcassonne.control.MainController;
-import carcassonne.model.Meeple;
+import carcassonne.model.GamePhase;
+import carcassonne.model.Move;
 import carcassonne.model.Player;
-import carcassonne.model.grid.CastleAndRoadPattern;
-import carcassonne.model.grid.FieldsPattern;
 import carcassonne.model.grid.GridDirection;
-import carcassonne.model.grid.GridPattern;
-import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.record.GameReplay;
 import carcassonne.model.tile.Tile;
 import carcassonne.settings.GameSettings;
 import carcassonne.view.main.MainGUI;
@@ -46,28 +44,8 @@ public class StateManning extends AbstractGameState {
      * @see carcassonne.control.state.AbstractGameState#isPlaceable()
      */
     @Override
-    public boolean isPlaceable(GridDirection position) { // TODO (HIGH) move model logic into the model, maybe into the grid?
-        GameSettings settings = controller.getSettings();
-        Tile tile = previewGUI.getSelectedTile();
-        TerrainType terrain = tile.getTerrain(position);
-        boolean placeable = false;
-        if (terrain == TerrainType.OTHER) {
-            placeable = false; // you can never place on terrain other
-        } else if (terrain == TerrainType.MONASTERY) {
-            placeable = true; // you can always place on a monastery
-        } else {
-            GridPattern pattern;
-            if (terrain == TerrainType.FIELDS) {
-                pattern = new FieldsPattern(tile.getGridSpot(), position, grid);
-            } else { // castle or road:
-                pattern = new CastleAndRoadPattern(tile.getGridSpot(), position, terrain, grid);
-            }
-            if (pattern.isNotOccupied() || (pattern.isOccupiedBy(round.getActivePlayer()) && settings.isAllowingFortifying())) {
-                placeable = true; // can place meeple
-            }
-            pattern.removeTileTags();
-        }
-        return placeable;
+    public boolean isPlaceable(GridDirection position) {
+        return engine.isMeeplePlaceable(position);
     }
 
     /**
@@ -83,15 +61,13 @@ public class StateManning extends AbstractGameState {
      */
     @Override
     public void placeMeeple(GridDirection position) {
-        Tile tile = previewGUI.getSelectedTile();
+        if (isComputerTurn()) {
+            return; // ignore user input
+        }
         Player player = round.getActivePlayer();
         if (player.hasFreeMeeples() && isPlaceable(position)) {
-            mainGUI.resetMeeplePreview(tile);
-            tile.placeMeeple(player, position);
-            mainGUI.setMeeple(tile, position, player);
-            updateScores();
-            processGridPatterns();
-            startNextTurn();
+            mainGUI.resetMeeplePreview(engine.getPlacedTile());
+            placeMeeple(position, player);
         } else {
             GameMessage.showWarning("You can't place meeple directly on an occupied Castle or Road!");
         }
@@ -105,36 +81,77 @@ public class StateManning extends AbstractGameState {
         // do nothing.
     }
 
+    /**
+     * @see carcassonne.control.state.AbstractGameState#replay()
+     */
+    @Override
+    public void replay(GameReplay replay) {
+        GameMessage.showWarning("Abort the current game before replaying a game.");
+    }
+
     /**
      * @see carcassonne.control.state.AbstractGameState#skip()
      */
     @Override
     public void skip() {
-        mainGUI.resetMeeplePreview(previewGUI.getSelectedTile());
-        processGridPatterns();
+        if (!isComputerTurn()) {
+            mainGUI.resetMeeplePreview(engine.getPlacedTile());
+            skipMeeple();
+        }
+    }
+
+    /**
+     * @see carcassonne.control.state.AbstractGameState#suggestMove()
+     */
+    @Override
+    public void suggestMove() {
+        // do nothing, meeple placements are suggested together with the tile placement.
+    }
+
+    /**
+     * Takes back the tile placement of the current turn.
+     * @see carcassonne.control.state.AbstractGameState#undo()
+     */
+    @Override
+    public void undo() {
+        if (!isComputerTurn()) {
+            mainGUI.resetMeeplePreview(engine.getPlacedTile());
+            engine.unmake();
+            redrawGrid();
+            changeState(StatePlacing.class);
+        }
+    }
+
+    private void placeMeeple(GridDirection position, Player player) {
+        Tile tile = engine.getPlacedTile();
+        engine.placeMeeple(position);
+        if (tile.getMeeple().isPlaced()) { // meeple might have been returned already
+            mainGUI.setMeeple(tile, position, player);
+        }
+        updateScores();
         startNextTurn();
     }
 
-    // gives the players the points they earned.
-    private void processGridPatterns() {
-        Tile tile = previewGUI.getSelectedTile();
-        for (GridPattern pattern : grid.getModifiedPatterns(tile.getGridSpot())) {
-            if (pattern.isComplete()) {
-                for (Meeple meeple : pattern.getMeepleList()) {
-                    mainGUI.removeMeeple(meeple);
-                }
-                pattern.disburse();
-                updateScores();
-            }
+    // places the meeple of the move, the tile of the move was already placed in the placing state.
+    private void playComputerMove(Move move) {
+        if (move.hasMeeple()) {
+            placeMeeple(move.getMeeplePosition(), round.getActivePlayer());
+        } else {
+            skipMeeple();
         }
     }
 
-    // starts the next turn and changes the state to state placing.
+    private void skipMeeple() {
+        engine.skipMeeple();
+        updateScores();
+        startNextTurn();
+    }
+
+    // changes the state to state placing for the next turn or to state game over.
     private void startNextTurn() {
-        if (round.isOver()) {
+        if (engine.getPhase() == GamePhase.OVER) {
             changeState(StateGameOver.class);
         } else {
-            round.nextTurn();
             mainGUI.setCurrentPlayer(round.getActivePlayer());
             changeState(StatePlacing.class);
         }
@@ -148,15 +165,18 @@ public class StateManning extends AbstractGameState {
         Player player = round.getActivePlayer();
         if (player.hasFreeMeeples()) {
             noMeeplesNotification[player.getNumber()] = false; // resets out of meeple message!
-            mainGUI.setMeeplePreview(previewGUI.getSelectedTile(), player);
-            placementGUI.setTile(previewGUI.getSelectedTile(), player);
+            if (isComputerTurn()) {
+                requestComputerMove(this::playComputerMove);
+            } else {
+                mainGUI.setMeeplePreview(engine.getPlacedTile(), player);
+                placementGUI.setTile(engine.getPlacedTile(), player);
+            }
         } else {
-            if (!noMeeplesNotification[player.getNumber()]) { // Only warn player once until he regains meeples
+            if (!noMeeplesNotification[player.getNumber()] && !isComputerTurn()) { // Only warn player once until he regains meeples
                 GameMessage.showMessage("You have no Meeples left. Regain Meeples by completing patterns to place Meepeles again.");
                 noMeeplesNotification[player.getNumber()] = true;
             }
-            processGridPatterns();
-            startNextTurn();
+            skipMeeple();
         }
     }
 
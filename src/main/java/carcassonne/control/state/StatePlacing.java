@@ -1,10 +1,21 @@
 package carcassonne.control.state;
 
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import javax.swing.SwingUtilities;
+
 import carcassonne.control.MainController;
+import carcassonne.model.GameEngine;
+import carcassonne.model.GameState;
+import carcassonne.model.GamePhase;
+import carcassonne.model.Move;
 import carcassonne.model.Player;
 import carcassonne.model.grid.GridDirection;
-import carcassonne.model.grid.GridSpot;
+import carcassonne.model.record.GameReplay;
 import carcassonne.model.tile.Tile;
+import carcassonne.simulation.MoveHint;
 import carcassonne.view.main.MainGUI;
 import carcassonne.view.secondary.PlacementGUI;
 import carcassonne.view.secondary.PreviewGUI;
@@ -15,6 +26,7 @@ import carcassonne.view.util.GameMessage;
  * @author Timur Saglam
  */
 public class StatePlacing extends AbstractGameState {
+    private CompletableFuture<List<MoveHint>> pendingHint;
 
     /**
      * Constructor of the state.
@@ -65,29 +77,67 @@ public class StatePlacing extends AbstractGameState {
      */
     @Override
     public void placeTile(int x, int y) {
-        Tile tile = previewGUI.getSelectedTile();
-        if (grid.place(x, y, tile)) {
-            round.getActivePlayer().dropTile(tile);
-            mainGUI.setTile(tile, x, y);
-            GridSpot spot = grid.getSpot(x, y);
-            highlightSurroundings(spot);
-            changeState(StateManning.class);
+        if (!isComputerTurn()) {
+            placeTile(previewGUI.getSelectedTile(), x, y);
         }
     }
 
+    /**
+     * @see carcassonne.control.state.AbstractGameState#replay()
+     */
+    @Override
+    public void replay(GameReplay replay) {
+        GameMessage.showWarning("Abort the current game before replaying a game.");
+    }
+
     /**
      * @see carcassonne.control.state.AbstractGameState#skip()
      */
     @Override
     public void skip() {
-        if (round.isOver()) {
-            changeState(StateGameOver.class);
-        } else {
-            Tile tile = previewGUI.getSelectedTile();
-            tileStack.putBack(tile);
-            round.getActivePlayer().dropTile(tile);
-            round.nextTurn();
-            mainGUI.setCurrentPlayer(round.getActivePlayer());
+        if (!isComputerTurn()) {
+            skip(previewGUI.getSelectedTile());
+        }
+    }
+
+    /**
+     * Suggests the best move for the hand of the active player, which is ranked in the background within the thinking time
+     * of the computer players.
+     * @see carcassonne.control.state.AbstractGameState#suggestMove()
+     */
+    @Override
+    public void suggestMove() {
+        if (!isComputerTurn()) {
+            clearHint();
+            GameEngine searchedEngine = engine;
+            GameState searchedState = engine.getState();
+            pendingHint = controller.getHintEngine().suggestAsync(engine, controller.getSettings().getComputerThinkingTime());
+            pendingHint.thenAccept(hints -> SwingUtilities.invokeLater(() -> {
+                if (engine == searchedEngine && engine.getState() == searchedState) {
+                    showHint(hints.get(0));
+                }
+            })).exceptionally(exception -> {
+                if (!(exception.getCause() instanceof CancellationException)) {
+                    exception.printStackTrace();
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Takes back the last move of the user and the moves of computer players that followed it.
+     * @see carcassonne.control.state.AbstractGameState#undo()
+     */
+    @Override
+    public void undo() {
+        if (!isComputerTurn() && !engine.getMoves().isEmpty()) {
+            clearHint();
+            previewGUI.setVisible(false);
+            do {
+                engine.unmake();
+            } while (isComputerTurn() && !engine.getMoves().isEmpty());
+            redrawGrid();
             entry();
         }
     }
@@ -97,12 +147,17 @@ public class StatePlacing extends AbstractGameState {
      */
     @Override
     protected void entry() {
-        Player player = round.getActivePlayer();
-        if (!player.hasFullHand() && !tileStack.isEmpty()) {
-            player.addTile(tileStack.drawTile());
-        }
-        previewGUI.setTiles(player);
+        engine.drawTile();
         updateStackSize();
+        if (isComputerTurn()) {
+            previewGUI.setVisible(false); // the hand of a computer player is not shown
+            requestComputerMove(this::playComputerMove);
+        } else {
+            previewGUI.setTiles(round.getActivePlayer());
+            if (isHandDead()) {
+                GameMessage.showMessage("None of your tiles can be placed anywhere, skip a tile to put it back under the stack.");
+            }
+        }
     }
 
     /**
@@ -110,7 +165,69 @@ public class StatePlacing extends AbstractGameState {
      */
     @Override
     protected void exit() {
+        clearHint();
         previewGUI.setVisible(false);
     }
 
+    private void clearHint() {
+        if (pendingHint != null) {
+            pendingHint.cancel(false); // stops the evaluation if it is still running
+            pendingHint = null;
+        }
+        mainGUI.resetHint();
+    }
+
+    private boolean isHandDead() {
+        Player player = round.getActivePlayer();
+        return !player.hasEmptyHand() && player.getHandOfTiles().stream().noneMatch(it -> engine.isPlaceableAnywhere(it.getType()));
+    }
+
+    private void placeTile(Tile tile, int x, int y) {
+        if (engine.placeTile(tile, x, y)) {
+            mainGUI.setTile(tile, x, y);
+            highlightSurroundings(tile.getGridSpot());
+            changeState(StateManning.class);
+        }
+    }
+
+    // places the tile of the move, the meeple of the move is placed in the manning state.
+    private void playComputerMove(Move move) {
+        Tile tile = round.getActivePlayer().getTile(move.getTileType());
+        if (move.isSkip()) {
+            skip(tile);
+        } else {
+            while (tile.getRotation() != move.getRotation()) {
+                tile.rotateRight();
+            }
+            placeTile(tile, move.getX(), move.getY());
+        }
+    }
+
+    private void showHint(MoveHint hint) {
+        Move move = hint.getMove();
+        if (move.isSkip()) {
+            GameMessage.showMessage("No tile of your hand can be placed, skip the " + move.getTileType().readableRepresentation() + " tile.");
+        } else {
+            Tile tile = new Tile(move.getTileType());
+            while (tile.getRotation() != move.getRotation()) {
+                tile.rotateRight();
+            }
+            String description = "Suggested move: +" + hint.getScoreGain() + " points";
+            if (move.hasMeeple()) {
+                description += ", meeple on " + move.getMeeplePosition().toReadableString();
+            }
+            mainGUI.setHint(tile, move.getX(), move.getY(), description);
+        }
+    }
+
+    private void skip(Tile tile) {
+        clearHint();
+        engine.skipTile(tile);
+        if (engine.getPhase() == GamePhase.OVER) {
+            changeState(StateGameOver.class);
+        } else {
+            mainGUI.setCurrentPlayer(round.getActivePlayer());
+            entry();
+        }
+    }
 }
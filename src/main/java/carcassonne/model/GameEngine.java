@@ -0,0 +1,711 @@
+package carcassonne.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import carcassonne.model.LoggedAction.ActionType;
+import carcassonne.model.grid.Grid;
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.grid.GridPattern;
+import carcassonne.model.grid.GridSpot;
+import carcassonne.model.grid.PossiblePlacement;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileStack;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Headless game engine that contains the rules of a game round. It combines the {@link Round}, the {@link Grid} and the
+ * {@link TileStack} and guides the players through their turns, which consist of a placing phase and a manning phase.
+ * Every action is logged, so it can be undone and redone at a cost that only depends on its own effects. The engine has
+ * no user interface dependencies, the user interface only adapts it.
+ * @author Timur Saglam
+ */
+public class GameEngine {
+    private final GameSettings settings;
+    private final Grid grid;
+    private final TileStack tileStack;
+    private final Round round;
+    private GamePhase phase;
+    private Tile placedTile;
+    private Map<GridDirection, Set<Player>> meepleSpotOccupants; // of the placed tile, null if not determined yet
+    private boolean scored;
+    private Consumer<Meeple> meepleRemovalListener;
+    private final List<Move> moves;
+    private GameState state;
+    private final Deque<LoggedAction> undoLog;
+    private final Deque<LoggedAction> redoLog;
+    private boolean redoing;
+
+    /**
+     * Creates a new game round with a specific amount of players and hands out the initial tiles.
+     * @param playerCount is the amount of players.
+     * @param settings are the {@link GameSettings}.
+     * @param random is the random number generator of the game, which shuffles the tile stack. Generators with the same
+     * seed lead to the same game.
+     */
+    public GameEngine(int playerCount, GameSettings settings, Random random) {
+        this(playerCount, new TileStack(playerCount, settings.getTileDistribution(), settings.getStackSizeMultiplier(), random), settings);
+    }
+
+    /**
+     * Creates a new game round with a specific amount of players and a specific tile stack and hands out the initial
+     * tiles.
+     * @param playerCount is the amount of players.
+     * @param tileStack is the stack of tiles.
+     * @param settings are the {@link GameSettings}.
+     */
+    public GameEngine(int playerCount, TileStack tileStack, GameSettings settings) {
+        this.settings = settings;
+        this.tileStack = tileStack;
+        grid = new Grid(settings.getGridWidth(), settings.getGridHeight());
+        round = new Round(playerCount, tileStack, grid, settings);
+        meepleRemovalListener = it -> {
+            // no listener by default.
+        };
+        phase = GamePhase.PLACING;
+        moves = new ArrayList<>();
+        undoLog = new ArrayDeque<>();
+        redoLog = new ArrayDeque<>();
+        state = GameState.initial(grid, round, tileStack);
+        for (int i = 0; i < round.getPlayerCount(); i++) {
+            Player player = round.getPlayer(i);
+            while (!player.hasFullHand() && !tileStack.isEmpty()) {
+                Tile tile = tileStack.drawTile();
+                player.addTile(tile);
+                state = state.withDrawnTile(tile.getType());
+            }
+            state = state.withHand(player);
+        }
+    }
+
+    /**
+     * Restores a game from a {@link GameState}. The tiles are placed in their original order, so the restored grid equals
+     * the grid of the original game.
+     * @param state is the state to restore.
+     * @param tileStack is the stack of tiles, which needs to contain the tiles of the stack of the state.
+     * @param settings are the {@link GameSettings}.
+     * @see GameState#toEngine(GameSettings, java.util.Random)
+     */
+    public GameEngine(GameState state, TileStack tileStack, GameSettings settings) {
+        this.settings = settings;
+        this.tileStack = tileStack;
+        this.state = state;
+        grid = new Grid(state.getWidth(), state.getHeight());
+        round = new Round(state.getPlayerCount(), tileStack, grid, settings);
+        meepleRemovalListener = it -> {
+            // no listener by default.
+        };
+        moves = new ArrayList<>();
+        undoLog = new ArrayDeque<>();
+        redoLog = new ArrayDeque<>();
+        restoreGrid();
+        for (int i = 0; i < round.getPlayerCount(); i++) {
+            Player player = round.getPlayer(i);
+            state.getHand(i).forEach(it -> player.addTile(new Tile(it)));
+            for (TerrainType terrain : TerrainType.basicTerrain()) {
+                player.addPoints(state.getTerrainScore(i, terrain), terrain);
+            }
+        }
+        for (int i = 0; i < state.getActivePlayer(); i++) {
+            round.nextTurn();
+        }
+        phase = state.getPhase();
+        if (phase == GamePhase.MANNING) {
+            setPlacedTile(grid.getSpot(state.getPlacedX(), state.getPlacedY()).getTile());
+        }
+    }
+
+    /**
+     * Checks whether there is an undone action that can be redone.
+     * @return true if {@link #redo()} is possible.
+     */
+    public boolean canRedo() {
+        return !redoLog.isEmpty();
+    }
+
+    /**
+     * Checks whether there is an action that can be undone. Actions can no longer be undone after the final scoring.
+     * @return true if {@link #undo()} is possible.
+     */
+    public boolean canUndo() {
+        return !scored && !undoLog.isEmpty();
+    }
+
+    /**
+     * Draws a tile from the stack for the active player if the hand of the player is not full. Should be called at the
+     * beginning of every turn.
+     * @return the drawn tile or null if no tile was drawn.
+     */
+    public Tile drawTile() {
+        checkPhase(GamePhase.PLACING);
+        Player player = round.getActivePlayer();
+        if (!player.hasFullHand() && !tileStack.isEmpty()) {
+            Tile tile = tileStack.drawTile();
+            player.addTile(tile);
+            log(LoggedAction.draw(state, tile));
+            state = state.withDrawnTile(tile.getType()).withHand(player);
+            return tile;
+        }
+        return null;
+    }
+
+    /**
+     * Performs the final scoring, which disburses all incomplete patterns. Ends the game if it is not over already.
+     * @return the list of all patterns on the grid.
+     */
+    public List<GridPattern> finalScore() {
+        if (scored) {
+            throw new IllegalStateException("The game was already scored.");
+        }
+        phase = GamePhase.OVER;
+        scored = true;
+        List<GridPattern> patterns = grid.getAllPatterns();
+        patterns.forEach(it -> disburse(it, true));
+        state = state.withScores(round).withTurn(state.getActivePlayer(), phase);
+        return patterns;
+    }
+
+    /**
+     * Getter for the player whose turn it is.
+     * @return the active player.
+     */
+    public Player getActivePlayer() {
+        return round.getActivePlayer();
+    }
+
+    /**
+     * Getter for the grid.
+     * @return the grid.
+     */
+    public Grid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Gives read access to the moves that were played so far, in the order they were played. Replaying them with
+     * {@link #play(Move)} on a game with the same tile stack order, while drawing a tile at the beginning of every turn,
+     * leads to the same game state.
+     * @return the list of moves.
+     */
+    public List<Move> getMoves() {
+        return Collections.unmodifiableList(moves);
+    }
+
+    /**
+     * Getter for the current phase of the game.
+     * @return the phase.
+     */
+    public GamePhase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Returns the players that occupy the castles, roads and fields of the tile that was placed in the current turn. The
+     * occupants are determined once per placed tile, so repeated queries while a meeple is placed do not check the grid
+     * again.
+     * @return the unmodifiable map of the castle, road and field positions of the tile to their occupants, which is empty if
+     * no tile was placed yet.
+     */
+    public Map<GridDirection, Set<Player>> getMeepleSpotOccupants() {
+        if (placedTile == null) {
+            return Map.of();
+        } else if (meepleSpotOccupants == null) {
+            Map<GridDirection, Set<Player>> occupants = new EnumMap<>(GridDirection.class);
+            for (GridDirection position : GridDirection.values()) {
+                TerrainType terrain = placedTile.getTerrain(position);
+                if (terrain == TerrainType.CASTLE || terrain == TerrainType.ROAD || terrain == TerrainType.FIELDS) {
+                    Set<Player> players = new HashSet<>();
+                    grid.getPatternMeeples(placedTile.getGridSpot(), position).forEach(it -> players.add(it.getOwner()));
+                    occupants.put(position, Collections.unmodifiableSet(players));
+                }
+            }
+            meepleSpotOccupants = Collections.unmodifiableMap(occupants);
+        }
+        return meepleSpotOccupants;
+    }
+
+    /**
+     * Getter for the tile that was placed in the current turn.
+     * @return the placed tile, or null if no tile was placed yet.
+     */
+    public Tile getPlacedTile() {
+        return placedTile;
+    }
+
+    /**
+     * Getter for the round.
+     * @return the round.
+     */
+    public Round getRound() {
+        return round;
+    }
+
+    /**
+     * Getter for the current state of the game. The state is immutable, so it can be kept as a copy of the game.
+     * @return the state.
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Getter for the tile stack.
+     * @return the tile stack.
+     */
+    public TileStack getTileStack() {
+        return tileStack;
+    }
+
+    /**
+     * Checks whether the active player can place a meeple on a specific position of the tile that was placed in this turn.
+     * This does not check whether the player has free meeples.
+     * @param position is the specific position on the tile.
+     * @return true if a meeple can be placed on the position.
+     */
+    public boolean isMeeplePlaceable(GridDirection position) {
+        if (phase != GamePhase.MANNING) {
+            return false; // can only place meeples in the manning phase.
+        }
+        TerrainType terrain = placedTile.getTerrain(position);
+        if (terrain == TerrainType.OTHER) {
+            return false; // you can never place on terrain other
+        } else if (terrain == TerrainType.MONASTERY) {
+            return true; // you can always place on a monastery
+        }
+        Set<Player> occupants = getMeepleSpotOccupants().get(position);
+        return occupants.isEmpty() || occupants.contains(round.getActivePlayer()) && settings.isAllowingFortifying();
+    }
+
+    /**
+     * Determines all positions of the tile placed in this turn where the active player can place a meeple. Respects the
+     * meeple rules of the {@link GameSettings}.
+     * @return the list of positions, which is empty if the player has no free meeples.
+     */
+    public List<GridDirection> legalMeepleSpots() {
+        List<GridDirection> positions = new ArrayList<>();
+        if (phase == GamePhase.MANNING && round.getActivePlayer().hasFreeMeeples()) {
+            for (GridDirection position : GridDirection.values()) {
+                if (placedTile.hasMeepleSpot(position) && isMeeplePlaceable(position)
+                        && settings.getMeepleRule(placedTile.getTerrain(position))) {
+                    positions.add(position);
+                }
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Checks whether a tile type can be placed anywhere on the grid in any rotation, without determining the placements.
+     * @param type is the tile type.
+     * @return true if there is at least one legal placement.
+     * @see Grid#isPlaceableAnywhere(TileType)
+     */
+    public boolean isPlaceableAnywhere(TileType type) {
+        return grid.isPlaceableAnywhere(type);
+    }
+
+    /**
+     * Determines all legal placements of a tile on the grid.
+     * @param tile is the tile to place.
+     * @return the list of legal placements.
+     * @see Grid#getPossiblePlacements(Tile)
+     */
+    public List<PossiblePlacement> legalPlacements(Tile tile) {
+        return grid.getPossiblePlacements(tile);
+    }
+
+    /**
+     * Plays a move with {@link #play(Move)} and draws the tile of the next turn, so that the game is ready for the next
+     * move. The move can be taken back with {@link #unmake()}.
+     * @param move is the move to play.
+     * @return the patterns that were completed and disbursed in this turn.
+     * @throws IllegalArgumentException if the move is not legal in the current state of the game.
+     */
+    public Collection<GridPattern> make(Move move) {
+        Collection<GridPattern> completedPatterns = play(move);
+        if (phase == GamePhase.PLACING) {
+            drawTile();
+        }
+        return completedPatterns;
+    }
+
+    /**
+     * Places a meeple of the active player on a position of the tile that was placed in this turn and ends the turn.
+     * @param position is the position on the tile.
+     * @return the patterns that were completed and disbursed in this turn.
+     * @throws IllegalArgumentException if the meeple can not be placed on the position.
+     */
+    public Collection<GridPattern> placeMeeple(GridDirection position) {
+        checkPhase(GamePhase.MANNING);
+        Player player = round.getActivePlayer();
+        if (!player.hasFreeMeeples() || !isMeeplePlaceable(position)) {
+            throw new IllegalArgumentException("Meeple can not be placed at " + position + " by " + player);
+        }
+        GameState previousState = state;
+        placedTile.placeMeeple(player, position);
+        state = state.withMeeple(placedTile.getMeeple());
+        return endTurn(position, previousState);
+    }
+
+    /**
+     * Plays a complete turn of the active player, which is either placing a tile with an optional meeple or skipping the
+     * turn. The tile is taken from the hand of the active player according to the tile type of the move.
+     * @param move is the move to play.
+     * @return the patterns that were completed and disbursed in this turn.
+     * @throws IllegalArgumentException if the move is not legal in the current state of the game.
+     */
+    public Collection<GridPattern> play(Move move) {
+        checkPhase(GamePhase.PLACING);
+        Tile tile = round.getActivePlayer().getTile(move.getTileType());
+        if (move.isSkip()) {
+            skipTile(tile);
+            return Collections.emptyList();
+        }
+        if (tile == null) {
+            throw new IllegalArgumentException("No tile of type " + move.getTileType() + " in the hand of " + round.getActivePlayer());
+        }
+        while (tile.getRotation() != move.getRotation()) {
+            tile.rotateRight();
+        }
+        if (!placeTile(tile, move.getX(), move.getY())) {
+            throw new IllegalArgumentException("Tile can not be placed: " + move);
+        }
+        return move.hasMeeple() ? placeMeeple(move.getMeeplePosition()) : skipMeeple();
+    }
+
+    /**
+     * Tries to place a tile from the hand of the active player on the grid. If successful, the manning phase starts.
+     * @param tile is the tile to place, which needs to be in the hand of the active player.
+     * @param x is the x coordinate on the grid.
+     * @param y is the y coordinate on the grid.
+     * @return true if the tile was placed, false if it does not fit.
+     */
+    public boolean placeTile(Tile tile, int x, int y) {
+        checkPhase(GamePhase.PLACING);
+        if (!round.getActivePlayer().getHandOfTiles().contains(tile)) {
+            throw new IllegalArgumentException("Tile is not in the hand of the active player: " + tile);
+        }
+        if (grid.place(x, y, tile)) {
+            int handIndex = round.getActivePlayer().dropFirstOfType(tile);
+            log(LoggedAction.placement(state, tile, handIndex));
+            setPlacedTile(tile);
+            phase = GamePhase.MANNING;
+            state = state.withPlacedTile(tile).withHand(round.getActivePlayer());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Deals the tiles that are hidden from the active player anew, which are the tiles in the hands of the other players and
+     * the tiles that were not drawn from the stack yet. The grid, the scores and the hand of the active player are kept, so
+     * a simulation can try many deals of the same position on one engine instead of restoring an engine for every deal.
+     * Undone actions can no longer be redone afterwards.
+     * @param hands are the types of the new hands, indexed by player number. The hand of the active player is ignored.
+     * @param stackOrder are the types of the tiles that were not drawn yet, in the order they are drawn.
+     * @throws IllegalStateException if there is an action that can be undone, as it refers to the old tiles, or if the
+     * stack is shuffled by its seed.
+     */
+    public void redeal(List<List<TileType>> hands, List<TileType> stackOrder) {
+        if (!undoLog.isEmpty()) {
+            throw new IllegalStateException("Tiles can only be dealt anew when there is no action to undo.");
+        }
+        tileStack.replaceRemaining(stackOrder);
+        state = state.withStack(tileStack);
+        for (int number = 0; number < round.getPlayerCount(); number++) {
+            Player player = round.getPlayer(number);
+            if (number != state.getActivePlayer()) {
+                new ArrayList<>(player.getHandOfTiles()).forEach(player::dropTile);
+                hands.get(number).forEach(it -> player.addTile(new Tile(it)));
+                state = state.withHand(player);
+            }
+        }
+        redoLog.clear();
+    }
+
+    /**
+     * Redoes the action that was undone last. Redoing an action performs it again, so the game ends up in the same state as
+     * before the action was undone.
+     * @throws IllegalStateException if there is no action to redo.
+     */
+    public void redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException("There is no action to redo.");
+        }
+        LoggedAction action = redoLog.pop();
+        redoing = true;
+        try {
+            repeat(action);
+        } finally {
+            redoing = false;
+        }
+    }
+
+    /**
+     * Sets a listener that is notified about every meeple right before it is removed from a completed pattern.
+     * @param listener is the listener.
+     */
+    public void setMeepleRemovalListener(Consumer<Meeple> listener) {
+        meepleRemovalListener = listener;
+    }
+
+    /**
+     * Ends the turn of the active player without placing a meeple on the placed tile.
+     * @return the patterns that were completed and disbursed in this turn.
+     */
+    public Collection<GridPattern> skipMeeple() {
+        checkPhase(GamePhase.MANNING);
+        return endTurn(null, state);
+    }
+
+    /**
+     * Ends the turn of the active player without placing a tile. The tile is put back under the stack. If the game is
+     * over, the game ends instead.
+     * @param tile is the tile from the hand of the player that is put back, or null if the hand of the player is empty.
+     */
+    public void skipTile(Tile tile) {
+        checkPhase(GamePhase.PLACING);
+        GameState previousState = state;
+        int handIndex = LoggedAction.NO_INDEX;
+        moves.add(Move.skip(tile == null ? null : tile.getType()));
+        if (round.isOver()) {
+            phase = GamePhase.OVER;
+        } else {
+            if (tile != null) {
+                handIndex = round.getActivePlayer().dropFirstOfType(tile);
+                tileStack.putBack(tile);
+                state = state.withReturnedTile(tile.getType()).withHand(round.getActivePlayer());
+            }
+            round.nextTurn();
+        }
+        state = state.withTurn(round.getActivePlayer().getNumber(), phase);
+        log(LoggedAction.skip(previousState, tile, handIndex));
+    }
+
+    /**
+     * Undoes the action that was performed last, which is drawing a tile, placing a tile, ending a turn with or without a
+     * meeple, or skipping a turn. Only the effects of the action are reverted, so undoing does not depend on the size of
+     * the game. Undone actions can be redone with {@link #redo()} until a new action is performed.
+     * @throws IllegalStateException if there is no action to undo or the game was already scored.
+     */
+    public void undo() {
+        if (!canUndo()) {
+            throw new IllegalStateException("There is no action to undo.");
+        }
+        LoggedAction action = undoLog.pop();
+        revert(action);
+        redoLog.push(action);
+    }
+
+    /**
+     * Takes back the last move, including the tile that was drawn after it, or the tile placement of the current turn in
+     * the manning phase. Afterwards, the game is in the placing phase of the turn of the move.
+     * @throws IllegalStateException if no move was played yet, the move was not started on this engine or the game was
+     * already scored.
+     * @see #make(Move)
+     */
+    public void unmake() {
+        if (scored || moves.isEmpty() && phase != GamePhase.MANNING) {
+            throw new IllegalStateException("There is no move to take back.");
+        }
+        if (undoLog.stream().noneMatch(LoggedAction::startsMove)) { // e.g. restored in the manning phase of the move
+            throw new IllegalStateException("The move was not started on this engine and can not be taken back.");
+        }
+        boolean moveStart;
+        do {
+            moveStart = undoLog.peek().startsMove();
+            undo();
+        } while (!moveStart);
+    }
+
+    /**
+     * Records the move, disburses the completed patterns and starts the next turn.
+     */
+    private Collection<GridPattern> endTurn(GridDirection meeplePosition, GameState previousState) {
+        GridSpot spot = placedTile.getGridSpot();
+        moves.add(Move.placement(placedTile.getType(), placedTile.getRotation(), spot.getX(), spot.getY(), meeplePosition));
+        Collection<GridPattern> completedPatterns = new ArrayList<>();
+        List<GridSpot> returnedMeeples = new ArrayList<>();
+        for (GridPattern pattern : grid.getModifiedPatterns(spot)) {
+            if (pattern.isComplete()) {
+                pattern.getMeepleList().forEach(meepleRemovalListener);
+                returnedMeeples.addAll(disburse(pattern, false));
+                completedPatterns.add(pattern);
+            }
+        }
+        log(LoggedAction.manning(previousState, placedTile, meeplePosition, returnedMeeples));
+        setPlacedTile(null);
+        if (round.isOver()) {
+            phase = GamePhase.OVER;
+        } else {
+            round.nextTurn();
+            phase = GamePhase.PLACING;
+        }
+        state = state.withScores(round).withTurn(round.getActivePlayer().getNumber(), phase);
+        return completedPatterns;
+    }
+
+    /**
+     * Disburses a pattern and removes the meeples that were returned to their owners from the state.
+     * @return the spots of the returned meeples.
+     */
+    private List<GridSpot> disburse(GridPattern pattern, boolean force) {
+        List<GridSpot> meepleSpots = new ArrayList<>();
+        pattern.getMeepleList().stream().filter(Meeple::isPlaced).forEach(it -> meepleSpots.add(it.getLocation()));
+        if (force) {
+            pattern.forceDisburse();
+        } else {
+            pattern.disburse();
+        }
+        meepleSpots.removeIf(it -> it.getTile().getMeeple().isPlaced());
+        for (GridSpot spot : meepleSpots) {
+            state = state.withoutMeeple(spot);
+        }
+        return meepleSpots;
+    }
+
+    /**
+     * Logs a performed action. Performing a new action discards the undone actions.
+     */
+    private void log(LoggedAction action) {
+        undoLog.push(action);
+        if (!redoing) {
+            redoLog.clear();
+        }
+    }
+
+    /**
+     * Performs an undone action again.
+     */
+    private void repeat(LoggedAction action) {
+        Tile tile = action.getTile();
+        if (action.getType() == ActionType.DRAW) {
+            drawTile();
+        } else if (action.getType() == ActionType.PLACEMENT) {
+            while (tile.getRotation() != action.getRotation()) {
+                tile.rotateRight();
+            }
+            placeTile(tile, action.getX(), action.getY());
+        } else if (action.getType() == ActionType.MANNING) {
+            if (action.getMeeplePosition() == null) {
+                skipMeeple();
+            } else {
+                placeMeeple(action.getMeeplePosition());
+            }
+        } else {
+            skipTile(tile);
+        }
+    }
+
+    /**
+     * Reverts the effects of an action, which requires that all later actions were reverted before.
+     */
+    private void revert(LoggedAction action) {
+        GameState previousState = action.getPreviousState();
+        Tile tile = action.getTile();
+        Player player = round.getPlayer(previousState.getActivePlayer());
+        if (action.getType() == ActionType.DRAW) {
+            player.dropTile(tile);
+            tileStack.undoDraw(tile, previousState.getStackSize() == previousState.getReturnedTiles().size()); // drawn from the returned tiles
+        } else if (action.getType() == ActionType.PLACEMENT) {
+            grid.removeLastTile();
+            restoreTile(player, action, previousState);
+            setPlacedTile(null);
+        } else if (action.getType() == ActionType.MANNING) {
+            moves.remove(moves.size() - 1);
+            for (GridSpot spot : action.getReturnedMeeples()) {
+                spot.getTile().getMeeple().restorePlacement(spot); // meeples stay on their tiles when they are returned
+            }
+            if (action.getMeeplePosition() != null) {
+                tile.removeMeeple();
+            }
+            restoreScores(previousState);
+            setPlacedTile(tile);
+        } else { // skipped turn
+            moves.remove(moves.size() - 1);
+            if (action.getHandIndex() != LoggedAction.NO_INDEX) {
+                tileStack.undoPutBack(tile);
+                restoreTile(player, action, previousState);
+            }
+        }
+        round.setActivePlayer(previousState.getActivePlayer());
+        phase = previousState.getPhase();
+        state = previousState;
+    }
+
+    /**
+     * Puts the tile of a placement or skip action back into the hand of the player, in the exact order the hand had before.
+     */
+    private void restoreTile(Player player, LoggedAction action, GameState previousState) {
+        int firstIndex = previousState.getHand(player.getNumber()).indexOf(action.getTile().getType());
+        player.restoreTile(action.getHandIndex(), firstIndex, action.getTile());
+    }
+
+    /**
+     * Sets the scores of all players back to the scores of a previous state.
+     */
+    private void restoreScores(GameState previousState) {
+        for (int number = 0; number < round.getPlayerCount(); number++) {
+            Player player = round.getPlayer(number);
+            for (TerrainType terrain : TerrainType.basicTerrain()) {
+                int difference = previousState.getTerrainScore(number, terrain) - player.getTerrainScore(terrain);
+                if (difference != 0) {
+                    player.addPoints(difference, terrain);
+                }
+            }
+        }
+    }
+
+    /**
+     * Places the tiles and meeples of the state on the grid, in the order the tiles were originally placed.
+     */
+    private void restoreGrid() {
+        int[][] placements = state.getPlacements();
+        GridSpot[] spots = new GridSpot[placements.length];
+        for (int index = 0; index < placements.length; index++) {
+            spots[index] = grid.getSpot(placements[index][0], placements[index][1]);
+        }
+        for (int index = 1; index < spots.length; index++) { // the foundation is placed by the grid
+            GridSpot spot = spots[index];
+            Tile tile = new Tile(state.getTileType(spot.getX(), spot.getY()));
+            while (tile.getRotation() != state.getRotation(spot.getX(), spot.getY())) {
+                tile.rotateRight();
+            }
+            if (!grid.place(spot.getX(), spot.getY(), tile)) {
+                throw new IllegalStateException("Tile of the state can not be placed: " + tile);
+            }
+        }
+        for (GridSpot spot : spots) {
+            int owner = state.getMeepleOwner(spot.getX(), spot.getY());
+            if (owner >= 0) {
+                spot.getTile().placeMeeple(round.getPlayer(owner), state.getMeeplePosition(spot.getX(), spot.getY()));
+            }
+        }
+    }
+
+    /**
+     * Sets the tile that was placed in the current turn, which invalidates the occupants of its patterns.
+     */
+    private void setPlacedTile(Tile tile) {
+        placedTile = tile;
+        meepleSpotOccupants = null;
+    }
+
+    private void checkPhase(GamePhase expectedPhase) {
+        if (phase != expectedPhase) {
+            throw new IllegalStateException("Action is only allowed in phase " + expectedPhase + ", current phase is " + phase);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package carcassonne.model;
+
+/**
+ * Enumeration for the phases of a turn of the {@link GameEngine}.
+ * @author Timur Saglam
+ */
+public enum GamePhase {
+    PLACING, // the active player places a tile
+    MANNING, // the active player may place a meeple on the placed tile
+    OVER; // the game is over and can be scored
+}
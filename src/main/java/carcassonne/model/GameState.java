@@ -0,0 +1,575 @@
+package carcassonne.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import carcassonne.model.grid.Grid;
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.grid.GridSpot;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileRotation;
+import carcassonne.model.tile.TileStack;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Compact and immutable snapshot of a game, which consists of the placed tiles and meeples, the hands of the players,
+ * the tile counts of the stack, the scores and the active player. The {@link GameEngine} keeps its state up to date with
+ * every action, and every change creates a new state that shares all unchanged parts with the previous one. The board is
+ * stored in chunks of primitive cells, which are organized in a directory of chunk rows. A change therefore only copies
+ * the row directory, one row and one chunk. Keeping a state is
+ * therefore a free copy of the game, and going back to a previous state is a free undo. A state can be converted back
+ * into a {@link GameEngine} with its {@link Round} and {@link Grid}.
+ * @author Timur Saglam
+ */
+public final class GameState {
+    private static final int CHUNK_EXPONENT = 3; // chunks of 8 x 8 cells
+    private static final int CHUNK_SIZE = 1 << CHUNK_EXPONENT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int ROTATION_SHIFT = 6; // cell layout: tile type, rotation, meeple position, meeple owner, order
+    private static final int POSITION_SHIFT = 8;
+    private static final int OWNER_SHIFT = 12;
+    private static final int ORDER_SHIFT = 15;
+    private static final int TYPE_MASK = (1 << ROTATION_SHIFT) - 1;
+    private static final int ROTATION_MASK = (1 << POSITION_SHIFT - ROTATION_SHIFT) - 1;
+    private static final int POSITION_MASK = (1 << OWNER_SHIFT - POSITION_SHIFT) - 1;
+    private static final int OWNER_MASK = (1 << ORDER_SHIFT - OWNER_SHIFT) - 1;
+    private static final int MAXIMAL_TILES = (1 << Integer.SIZE - 1 - ORDER_SHIFT) - 1;
+    private static final int NONE = -1;
+    private final int width;
+    private final int height;
+    private int[][][] chunks; // chunks by row and column, a cell is zero if its spot is free
+    private int tileCount;
+    private int[][] hands;
+    private int[] stackCounts;
+    private int stackSize;
+    private int[] returnedTiles;
+    private int[] freeMeeples;
+    private int[][] scores;
+    private int activePlayer;
+    private GamePhase phase;
+    private int placedX;
+    private int placedY;
+
+    private GameState(int width, int height, int playerCount) {
+        this.width = width;
+        this.height = height;
+        chunks = new int[(height + CHUNK_MASK) >> CHUNK_EXPONENT][(width + CHUNK_MASK) >> CHUNK_EXPONENT][];
+        hands = new int[playerCount][0];
+        stackCounts = new int[TileType.values().length];
+        returnedTiles = new int[0];
+        freeMeeples = new int[playerCount];
+        scores = new int[playerCount][TerrainType.basicTerrain().size()];
+        phase = GamePhase.PLACING;
+        placedX = NONE;
+        placedY = NONE;
+    }
+
+    private GameState(GameState other) { // shallow copy, shares all arrays
+        width = other.width;
+        height = other.height;
+        chunks = other.chunks;
+        tileCount = other.tileCount;
+        hands = other.hands;
+        stackCounts = other.stackCounts;
+        stackSize = other.stackSize;
+        returnedTiles = other.returnedTiles;
+        freeMeeples = other.freeMeeples;
+        scores = other.scores;
+        activePlayer = other.activePlayer;
+        phase = other.phase;
+        placedX = other.placedX;
+        placedY = other.placedY;
+    }
+
+    /**
+     * Getter for the number of the player whose turn it is.
+     * @return the player number.
+     */
+    public int getActivePlayer() {
+        return activePlayer;
+    }
+
+    /**
+     * Determines the spots whose tile or meeple differ from another state of the same game. Chunks of the board that are
+     * shared with the other state are skipped, so comparing states that are derived from each other only compares the
+     * chunks that changed in between.
+     * @param other is the other state, which needs to have the same grid size.
+     * @return the coordinates of the changed spots, each as an array of x and y.
+     */
+    public List<int[]> getChangedSpots(GameState other) {
+        if (other.width != width || other.height != height) {
+            throw new IllegalArgumentException("Cannot compare states of different grid sizes: " + this + " and " + other);
+        }
+        List<int[]> changedSpots = new ArrayList<>();
+        for (int row = 0; row < chunks.length; row++) {
+            if (chunks[row] != other.chunks[row]) {
+                for (int column = 0; column < chunks[row].length; column++) {
+                    if (chunks[row][column] != other.chunks[row][column]) {
+                        addChangedSpots(column << CHUNK_EXPONENT, row << CHUNK_EXPONENT, other, changedSpots);
+                    }
+                }
+            }
+        }
+        return changedSpots;
+    }
+
+    /**
+     * Getter for the amount of free meeples of a player.
+     * @param player is the number of the player.
+     * @return the amount of free meeples.
+     */
+    public int getFreeMeeples(int player) {
+        return freeMeeples[player];
+    }
+
+    /**
+     * Gives read access to the hand of a player.
+     * @param player is the number of the player.
+     * @return the tile types on the hand of the player.
+     */
+    public List<TileType> getHand(int player) {
+        List<TileType> hand = new ArrayList<>();
+        for (int type : hands[player]) {
+            hand.add(TileType.values()[type]);
+        }
+        return hand;
+    }
+
+    /**
+     * Getter for the grid height.
+     * @return the height in tiles.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the meeple owner of a specific spot.
+     * @param x is the x coordinate of the spot.
+     * @param y is the y coordinate of the spot.
+     * @return the number of the player owning the meeple, or -1 if there is no meeple on the spot.
+     */
+    public int getMeepleOwner(int x, int y) {
+        int cell = getCell(x, y);
+        return hasMeeple(cell) ? cell >>> OWNER_SHIFT & OWNER_MASK : NONE;
+    }
+
+    /**
+     * Returns the meeple position on the tile of a specific spot.
+     * @param x is the x coordinate of the spot.
+     * @param y is the y coordinate of the spot.
+     * @return the position of the meeple on the tile, or null if there is no meeple on the spot.
+     */
+    public GridDirection getMeeplePosition(int x, int y) {
+        int cell = getCell(x, y);
+        return hasMeeple(cell) ? GridDirection.values()[(cell >>> POSITION_SHIFT & POSITION_MASK) - 1] : null;
+    }
+
+    /**
+     * Getter for the current phase of the game.
+     * @return the phase.
+     */
+    public GamePhase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Returns when the tile of a specific spot was placed.
+     * @param x is the x coordinate of the spot.
+     * @param y is the y coordinate of the spot.
+     * @return the index of the placement, which is 0 for the foundation tile, or -1 if the spot is free.
+     */
+    public int getPlacementIndex(int x, int y) {
+        int cell = getCell(x, y);
+        return cell == 0 ? NONE : (cell >>> ORDER_SHIFT) - 1;
+    }
+
+    /**
+     * Determines the spots of all placed tiles in the order they were placed. Only the chunks of the board that contain
+     * tiles are visited, so this does not depend on the amount of free spots.
+     * @return the coordinates of the placed tiles, each as an array of x and y, indexed by their placement index.
+     */
+    public int[][] getPlacements() {
+        int[][] placements = new int[tileCount][];
+        for (int row = 0; row < chunks.length; row++) {
+            for (int column = 0; column < chunks[row].length; column++) {
+                int[] chunk = chunks[row][column];
+                for (int index = 0; chunk != null && index < chunk.length; index++) {
+                    if (chunk[index] != 0) {
+                        int x = column << CHUNK_EXPONENT | index & CHUNK_MASK;
+                        int y = row << CHUNK_EXPONENT | index >> CHUNK_EXPONENT;
+                        placements[(chunk[index] >>> ORDER_SHIFT) - 1] = new int[] { x, y };
+                    }
+                }
+            }
+        }
+        return placements;
+    }
+
+    /**
+     * Getter for the x coordinate of the tile placed in the current turn.
+     * @return the x coordinate, or -1 if the game is not in the manning phase.
+     */
+    public int getPlacedX() {
+        return placedX;
+    }
+
+    /**
+     * Getter for the y coordinate of the tile placed in the current turn.
+     * @return the y coordinate, or -1 if the game is not in the manning phase.
+     */
+    public int getPlacedY() {
+        return placedY;
+    }
+
+    /**
+     * Getter for the amount of players.
+     * @return the amount of players.
+     */
+    public int getPlayerCount() {
+        return hands.length;
+    }
+
+    /**
+     * Gives read access to the tiles that were put back under the stack.
+     * @return the tile types, in the order they are drawn.
+     */
+    public List<TileType> getReturnedTiles() {
+        List<TileType> types = new ArrayList<>();
+        for (int type : returnedTiles) {
+            types.add(TileType.values()[type]);
+        }
+        return types;
+    }
+
+    /**
+     * Returns the rotation of the tile of a specific spot.
+     * @param x is the x coordinate of the spot.
+     * @param y is the y coordinate of the spot.
+     * @return the rotation, or null if the spot is free.
+     */
+    public TileRotation getRotation(int x, int y) {
+        int cell = getCell(x, y);
+        return cell == 0 ? null : TileRotation.values()[cell >>> ROTATION_SHIFT & ROTATION_MASK];
+    }
+
+    /**
+     * Getter for the score of a player.
+     * @param player is the number of the player.
+     * @return the score.
+     */
+    public int getScore(int player) {
+        return Arrays.stream(scores[player]).sum();
+    }
+
+    /**
+     * Returns how many tiles of a specific type are on the stack, not counting tiles that were put back.
+     * @param type is the specific tile type.
+     * @return the amount of tiles.
+     */
+    public int getStackCount(TileType type) {
+        return stackCounts[type.ordinal()];
+    }
+
+    /**
+     * Getter for the size of the stack, including the tiles that were put back.
+     * @return the amount of tiles on the stack.
+     */
+    public int getStackSize() {
+        return stackSize + returnedTiles.length;
+    }
+
+    /**
+     * Getter for a specific terrain score of a player.
+     * @param player is the number of the player.
+     * @param scoreType is the type of the terrain score, one of {@link TerrainType#basicTerrain()}.
+     * @return the terrain score.
+     */
+    public int getTerrainScore(int player, TerrainType scoreType) {
+        return scores[player][TerrainType.basicTerrain().indexOf(scoreType)];
+    }
+
+    /**
+     * Getter for the amount of placed tiles, including the foundation tile.
+     * @return the amount of tiles.
+     */
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    /**
+     * Returns the tile type of a specific spot.
+     * @param x is the x coordinate of the spot.
+     * @param y is the y coordinate of the spot.
+     * @return the tile type, or null if the spot is free.
+     */
+    public TileType getTileType(int x, int y) {
+        int cell = getCell(x, y);
+        return cell == 0 ? null : TileType.values()[cell & TYPE_MASK];
+    }
+
+    /**
+     * Getter for the grid width.
+     * @return the width in tiles.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Checks whether a tile is placed on a specific spot.
+     * @param x is the x coordinate of the spot.
+     * @param y is the y coordinate of the spot.
+     * @return true if the spot is occupied.
+     */
+    public boolean isOccupied(int x, int y) {
+        return getCell(x, y) != 0;
+    }
+
+    /**
+     * Converts the state back into a game. The unknown order of the tile stack is randomly chosen.
+     * @param settings are the {@link GameSettings} of the game.
+     * @param random is the random number generator that shuffles the tile stack.
+     * @return the game engine, which starts with an empty move history.
+     */
+    public GameEngine toEngine(GameSettings settings, Random random) {
+        List<TileType> stackTypes = new ArrayList<>();
+        for (TileType type : TileType.values()) {
+            stackTypes.addAll(Collections.nCopies(stackCounts[type.ordinal()], type));
+        }
+        Collections.shuffle(stackTypes, random);
+        return new GameEngine(this, new TileStack(stackTypes, getReturnedTiles()), settings);
+    }
+
+    /**
+     * Creates a state that only differs in the hand of a player, for example to assign hidden tiles differently. The tiles
+     * need to be taken from the stack of the state to keep the state consistent.
+     * @param player is the number of the player.
+     * @param hand are the tile types of the new hand.
+     * @return the new state.
+     */
+    public GameState withHand(int player, List<TileType> hand) {
+        GameState state = new GameState(this);
+        state.hands = hands.clone();
+        state.hands[player] = hand.stream().mapToInt(it -> it.ordinal()).toArray();
+        return state;
+    }
+
+    @Override
+    public String toString() {
+        return "GameState[" + tileCount + " tiles, player " + activePlayer + ", " + phase + ", stack " + getStackSize() + "]";
+    }
+
+    /**
+     * Creates the state of a new game, before the hands of the players are filled.
+     * @param grid is the grid, which only contains the foundation tile.
+     * @param round is the round with the players.
+     * @param tileStack is the full tile stack.
+     * @return the initial state.
+     */
+    static GameState initial(Grid grid, Round round, TileStack tileStack) {
+        GameState state = new GameState(grid.getWidth(), grid.getHeight(), round.getPlayerCount());
+        for (TileType type : TileType.values()) {
+            state.stackCounts[type.ordinal()] = tileStack.getRemainingCount(type);
+            state.stackSize += tileStack.getRemainingCount(type);
+        }
+        for (int player = 0; player < round.getPlayerCount(); player++) {
+            state.freeMeeples[player] = round.getPlayer(player).getFreeMeeples();
+        }
+        Tile foundation = grid.getFoundation().getTile();
+        return state.withTile(grid.getFoundation(), foundation.getType(), foundation.getRotation());
+    }
+
+    /**
+     * Creates the state after a tile was drawn from the stack. Mirrors {@link TileStack#drawTile()}.
+     * @param type is the type of the drawn tile.
+     * @return the new state.
+     */
+    GameState withDrawnTile(TileType type) {
+        GameState state = new GameState(this);
+        if (stackSize > 0) {
+            state.stackCounts = stackCounts.clone();
+            state.stackCounts[type.ordinal()]--;
+            state.stackSize--;
+        } else {
+            state.returnedTiles = Arrays.copyOfRange(returnedTiles, 1, returnedTiles.length);
+        }
+        return state;
+    }
+
+    /**
+     * Creates the state after the hand of a player changed.
+     * @param player is the player.
+     * @return the new state.
+     */
+    GameState withHand(Player player) {
+        List<TileType> hand = new ArrayList<>();
+        player.getHandOfTiles().forEach(it -> hand.add(it.getType()));
+        return withHand(player.getNumber(), hand);
+    }
+
+    /**
+     * Creates the state after a meeple was placed.
+     * @param meeple is the placed meeple.
+     * @return the new state.
+     */
+    GameState withMeeple(Meeple meeple) {
+        GridSpot spot = meeple.getLocation();
+        int owner = meeple.getOwner().getNumber();
+        int meepleBits = (meeple.getPosition().ordinal() + 1) << POSITION_SHIFT | owner << OWNER_SHIFT;
+        GameState state = withCell(spot.getX(), spot.getY(), getCell(spot.getX(), spot.getY()) | meepleBits);
+        state.freeMeeples = freeMeeples.clone();
+        state.freeMeeples[owner] = meeple.getOwner().getFreeMeeples();
+        return state;
+    }
+
+    /**
+     * Creates the state after a meeple was removed from a spot.
+     * @param spot is the spot of the removed meeple.
+     * @return the new state.
+     */
+    GameState withoutMeeple(GridSpot spot) {
+        int cell = getCell(spot.getX(), spot.getY());
+        if (!hasMeeple(cell)) {
+            return this;
+        }
+        GameState state = withCell(spot.getX(), spot.getY(), cell & ~(POSITION_MASK << POSITION_SHIFT | OWNER_MASK << OWNER_SHIFT));
+        int owner = cell >>> OWNER_SHIFT & OWNER_MASK;
+        state.freeMeeples = freeMeeples.clone();
+        state.freeMeeples[owner]++;
+        return state;
+    }
+
+    /**
+     * Creates the state after a tile was placed in the current turn, which starts the manning phase.
+     * @param tile is the placed tile.
+     * @return the new state.
+     */
+    GameState withPlacedTile(Tile tile) {
+        GameState state = withTile(tile.getGridSpot(), tile.getType(), tile.getRotation());
+        state.phase = GamePhase.MANNING;
+        state.placedX = tile.getGridSpot().getX();
+        state.placedY = tile.getGridSpot().getY();
+        return state;
+    }
+
+    /**
+     * Creates the state after a tile was put back under the stack. Mirrors {@link TileStack#putBack(Tile)}.
+     * @param type is the type of the returned tile.
+     * @return the new state.
+     */
+    GameState withReturnedTile(TileType type) {
+        if (stackSize == 0) {
+            return this; // tile is discarded
+        }
+        GameState state = new GameState(this);
+        state.returnedTiles = Arrays.copyOf(returnedTiles, returnedTiles.length + 1);
+        state.returnedTiles[returnedTiles.length] = type.ordinal();
+        return state;
+    }
+
+    /**
+     * Creates the state after the tiles that were not drawn yet were replaced. Mirrors
+     * {@link TileStack#replaceRemaining(List)}.
+     * @param tileStack is the tile stack with the new tiles.
+     * @return the new state.
+     */
+    GameState withStack(TileStack tileStack) {
+        GameState state = new GameState(this);
+        state.stackCounts = new int[stackCounts.length];
+        state.stackSize = 0;
+        for (TileType type : TileType.values()) {
+            state.stackCounts[type.ordinal()] = tileStack.getRemainingCount(type);
+            state.stackSize += tileStack.getRemainingCount(type);
+        }
+        return state;
+    }
+
+    /**
+     * Creates the state after the scores of players changed.
+     * @param round is the round with the players.
+     * @return the new state.
+     */
+    GameState withScores(Round round) {
+        GameState state = new GameState(this);
+        state.scores = new int[scores.length][];
+        List<TerrainType> terrain = TerrainType.basicTerrain();
+        for (int player = 0; player < scores.length; player++) {
+            state.scores[player] = new int[terrain.size()];
+            for (int index = 0; index < terrain.size(); index++) {
+                state.scores[player][index] = round.getPlayer(player).getTerrainScore(terrain.get(index));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Creates the state after the turn changed.
+     * @param player is the number of the player whose turn it is.
+     * @param newPhase is the phase of the game.
+     * @return the new state.
+     */
+    GameState withTurn(int player, GamePhase newPhase) {
+        GameState state = new GameState(this);
+        state.activePlayer = player;
+        state.phase = newPhase;
+        state.placedX = NONE;
+        state.placedY = NONE;
+        return state;
+    }
+
+    private GameState withTile(GridSpot spot, TileType type, TileRotation rotation) {
+        if (tileCount == MAXIMAL_TILES) {
+            throw new IllegalStateException("Too many tiles for a game state: " + tileCount);
+        }
+        int cell = type.ordinal() | rotation.ordinal() << ROTATION_SHIFT | (tileCount + 1) << ORDER_SHIFT;
+        GameState state = withCell(spot.getX(), spot.getY(), cell);
+        state.tileCount++;
+        return state;
+    }
+
+    /**
+     * Compares the cells of a chunk with the cells of another state and adds the coordinates of the differing spots.
+     */
+    private void addChangedSpots(int chunkX, int chunkY, GameState other, List<int[]> changedSpots) {
+        for (int x = chunkX; x < Math.min(chunkX + CHUNK_SIZE, width); x++) {
+            for (int y = chunkY; y < Math.min(chunkY + CHUNK_SIZE, height); y++) {
+                if (getCell(x, y) != other.getCell(x, y)) {
+                    changedSpots.add(new int[] { x, y });
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the row directory, the chunk row and the chunk of a cell, and changes the cell.
+     */
+    private GameState withCell(int x, int y, int cell) {
+        GameState state = new GameState(this);
+        int row = y >> CHUNK_EXPONENT;
+        int column = x >> CHUNK_EXPONENT;
+        int[][] chunkRow = chunks[row].clone();
+        chunkRow[column] = chunkRow[column] == null ? new int[CHUNK_SIZE * CHUNK_SIZE] : chunkRow[column].clone();
+        chunkRow[column][(x & CHUNK_MASK) | (y & CHUNK_MASK) << CHUNK_EXPONENT] = cell;
+        state.chunks = chunks.clone();
+        state.chunks[row] = chunkRow;
+        return state;
+    }
+
+    private int getCell(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            throw new IllegalArgumentException("Coordinates are outside of the grid: " + x + ", " + y);
+        }
+        int[] chunk = chunks[y >> CHUNK_EXPONENT][x >> CHUNK_EXPONENT];
+        return chunk == null ? 0 : chunk[(x & CHUNK_MASK) | (y & CHUNK_MASK) << CHUNK_EXPONENT];
+    }
+
+    private static boolean hasMeeple(int cell) {
+        return (cell >>> POSITION_SHIFT & POSITION_MASK) != 0;
+    }
+}
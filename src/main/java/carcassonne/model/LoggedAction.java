@@ -0,0 +1,183 @@
+package carcassonne.model;
+
+import java.util.List;
+
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.grid.GridSpot;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileRotation;
+
+/**
+ * A single action of a {@link GameEngine}, which is logged to undo and redo it. An action records the state of the game
+ * before the action and the objects it changed, so undoing it only reverts its own effects. A move consists of a
+ * placement and a manning action or of a skip action.
+ * @author Timur Saglam
+ */
+final class LoggedAction {
+    /**
+     * Marks that a tile was not dropped from the hand of a player.
+     */
+    static final int NO_INDEX = -1;
+    private final ActionType type;
+    private final GameState previousState;
+    private final Tile tile;
+    private final int handIndex;
+    private final TileRotation rotation;
+    private final int x;
+    private final int y;
+    private final GridDirection meeplePosition;
+    private final List<GridSpot> returnedMeeples;
+
+    private LoggedAction(ActionType type, GameState previousState, Tile tile, int handIndex, GridDirection meeplePosition,
+            List<GridSpot> returnedMeeples) {
+        this.type = type;
+        this.previousState = previousState;
+        this.tile = tile;
+        this.handIndex = handIndex;
+        this.meeplePosition = meeplePosition;
+        this.returnedMeeples = returnedMeeples;
+        boolean placed = tile != null && tile.isPlaced();
+        rotation = tile == null ? null : tile.getRotation();
+        x = placed ? tile.getGridSpot().getX() : NO_INDEX;
+        y = placed ? tile.getGridSpot().getY() : NO_INDEX;
+    }
+
+    /**
+     * Creates the action of drawing a tile from the stack.
+     * @param previousState is the state before the action.
+     * @param tile is the drawn tile.
+     * @return the action.
+     */
+    static LoggedAction draw(GameState previousState, Tile tile) {
+        return new LoggedAction(ActionType.DRAW, previousState, tile, NO_INDEX, null, List.of());
+    }
+
+    /**
+     * Creates the action of ending a turn after a tile was placed, with or without placing a meeple.
+     * @param previousState is the state before the action.
+     * @param tile is the tile that was placed in the turn.
+     * @param meeplePosition is the position of the placed meeple, or null if no meeple was placed.
+     * @param returnedMeeples are the spots of the meeples that were returned by disbursing completed patterns.
+     * @return the action.
+     */
+    static LoggedAction manning(GameState previousState, Tile tile, GridDirection meeplePosition, List<GridSpot> returnedMeeples) {
+        return new LoggedAction(ActionType.MANNING, previousState, tile, NO_INDEX, meeplePosition, List.copyOf(returnedMeeples));
+    }
+
+    /**
+     * Creates the action of placing a tile on the grid.
+     * @param previousState is the state before the action.
+     * @param tile is the placed tile.
+     * @param handIndex is the index the tile had in the hand of the player.
+     * @return the action.
+     */
+    static LoggedAction placement(GameState previousState, Tile tile, int handIndex) {
+        return new LoggedAction(ActionType.PLACEMENT, previousState, tile, handIndex, null, List.of());
+    }
+
+    /**
+     * Creates the action of skipping a turn without placing a tile.
+     * @param previousState is the state before the action.
+     * @param tile is the tile that the player wanted to put back, or null if the hand of the player was empty.
+     * @param handIndex is the index the tile had in the hand of the player, or {@link #NO_INDEX} if it was not dropped.
+     * @return the action.
+     */
+    static LoggedAction skip(GameState previousState, Tile tile, int handIndex) {
+        return new LoggedAction(ActionType.SKIP, previousState, tile, handIndex, null, List.of());
+    }
+
+    /**
+     * Getter for the index the tile had in the hand of the player before it was placed or put back.
+     * @return the index or {@link #NO_INDEX} if the tile was not dropped from the hand.
+     */
+    int getHandIndex() {
+        return handIndex;
+    }
+
+    /**
+     * Getter for the position of the meeple that was placed in a manning action.
+     * @return the position, or null if no meeple was placed.
+     */
+    GridDirection getMeeplePosition() {
+        return meeplePosition;
+    }
+
+    /**
+     * Getter for the state of the game before the action.
+     * @return the previous state.
+     */
+    GameState getPreviousState() {
+        return previousState;
+    }
+
+    /**
+     * Gives read access to the spots of the meeples that were returned to their owners in a manning action.
+     * @return the spots of the returned meeples.
+     */
+    List<GridSpot> getReturnedMeeples() {
+        return returnedMeeples;
+    }
+
+    /**
+     * Getter for the rotation the tile had when the action was performed.
+     * @return the rotation, or null if the action has no tile.
+     */
+    TileRotation getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Getter for the tile of the action.
+     * @return the drawn, placed or returned tile, which may be null for skip actions.
+     */
+    Tile getTile() {
+        return tile;
+    }
+
+    /**
+     * Getter for the type of the action.
+     * @return the action type.
+     */
+    ActionType getType() {
+        return type;
+    }
+
+    /**
+     * Getter for the x coordinate of a placed tile.
+     * @return the x coordinate.
+     */
+    int getX() {
+        return x;
+    }
+
+    /**
+     * Getter for the y coordinate of a placed tile.
+     * @return the y coordinate.
+     */
+    int getY() {
+        return y;
+    }
+
+    /**
+     * Checks whether the action is the first action of a move.
+     * @return true for placement and skip actions.
+     */
+    boolean startsMove() {
+        return type == ActionType.PLACEMENT || type == ActionType.SKIP;
+    }
+
+    @Override
+    public String toString() {
+        return "LoggedAction[" + type + ", tile: " + tile + "]";
+    }
+
+    /**
+     * The types of actions of a game engine.
+     */
+    enum ActionType {
+        DRAW,
+        PLACEMENT,
+        MANNING,
+        SKIP;
+    }
+}
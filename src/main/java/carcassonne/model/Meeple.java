@@ -58,7 +58,9 @@ public class Meeple {
     public void removePlacement() {
         if (location != null) {
             owner.returnMeeple(); // return me.
+            GridSpot placementLocation = location;
             location = null; // mark as unplaced.
+            placementLocation.notifyMeepleReturn(this);
         }
     }
 
@@ -88,4 +90,17 @@ public class Meeple {
         }
         return type + " Meeple by Player " + owner.getNumber() + " " + placement;
     }
+
+    /**
+     * Places the meeple back on the spot it was removed from and takes it from its owner again, which undoes
+     * {@link #removePlacement()}.
+     * @param placementLocation is the spot the meeple was removed from.
+     */
+    void restorePlacement(GridSpot placementLocation) {
+        if (location == null) {
+            owner.takeMeeple();
+            location = placementLocation;
+            location.notifyMeepleReturn(this);
+        }
+    }
 }
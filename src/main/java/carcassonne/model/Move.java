@@ -0,0 +1,138 @@
+package carcassonne.model;
+
+import java.util.Objects;
+
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.tile.TileRotation;
+import carcassonne.model.tile.TileType;
+
+/**
+ * Immutable description of a complete turn of a player. A turn either places a tile of a specific type with a specific
+ * rotation on the grid and optionally places a meeple on it, or skips the turn and puts a tile back under the stack.
+ * Moves only reference tile types, which allows to replay them on any game that reached the same state.
+ * @author Timur Saglam
+ */
+public final class Move {
+    private final TileType tileType;
+    private final TileRotation rotation;
+    private final int x;
+    private final int y;
+    private final GridDirection meeplePosition;
+    private final boolean skip;
+
+    private Move(TileType tileType, TileRotation rotation, int x, int y, GridDirection meeplePosition, boolean skip) {
+        this.tileType = tileType;
+        this.rotation = rotation;
+        this.x = x;
+        this.y = y;
+        this.meeplePosition = meeplePosition;
+        this.skip = skip;
+    }
+
+    /**
+     * Creates a move that places a tile.
+     * @param tileType is the type of the placed tile.
+     * @param rotation is the rotation of the placed tile.
+     * @param x is the x coordinate on the grid.
+     * @param y is the y coordinate on the grid.
+     * @param meeplePosition is the position of the placed meeple on the tile, or null if no meeple is placed.
+     * @return the move.
+     */
+    public static Move placement(TileType tileType, TileRotation rotation, int x, int y, GridDirection meeplePosition) {
+        if (tileType == null || rotation == null) {
+            throw new IllegalArgumentException("A placement requires a tile type and a rotation.");
+        }
+        return new Move(tileType, rotation, x, y, meeplePosition, false);
+    }
+
+    /**
+     * Creates a move that skips the turn.
+     * @param tileType is the type of the tile that is put back, or null if the hand of the player was empty.
+     * @return the move.
+     */
+    public static Move skip(TileType tileType) {
+        return new Move(tileType, null, -1, -1, null, true);
+    }
+
+    /**
+     * Getter for the position of the placed meeple.
+     * @return the position on the tile, or null if no meeple is placed.
+     */
+    public GridDirection getMeeplePosition() {
+        return meeplePosition;
+    }
+
+    /**
+     * Getter for the rotation of the placed tile.
+     * @return the rotation, or null if the turn is skipped.
+     */
+    public TileRotation getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Getter for the type of the placed or returned tile.
+     * @return the tile type, or null if the turn is skipped with an empty hand.
+     */
+    public TileType getTileType() {
+        return tileType;
+    }
+
+    /**
+     * Getter for the x coordinate of the placed tile.
+     * @return the x coordinate, or -1 if the turn is skipped.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Getter for the y coordinate of the placed tile.
+     * @return the y coordinate, or -1 if the turn is skipped.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Checks whether a meeple is placed in this move.
+     * @return true if a meeple is placed.
+     */
+    public boolean hasMeeple() {
+        return meeplePosition != null;
+    }
+
+    /**
+     * Checks whether this move skips the turn.
+     * @return true if no tile is placed.
+     */
+    public boolean isSkip() {
+        return skip;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof Move)) {
+            return false;
+        }
+        Move other = (Move) object;
+        return tileType == other.tileType && rotation == other.rotation && x == other.x && y == other.y
+                && meeplePosition == other.meeplePosition && skip == other.skip;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tileType, rotation, x, y, meeplePosition, skip);
+    }
+
+    @Override
+    public String toString() {
+        if (skip) {
+            return "Move[skip " + tileType + "]";
+        }
+        return "Move[" + tileType + " " + rotation + " at (" + x + "|" + y + ")" + (hasMeeple() ? " meeple " + meeplePosition : "") + "]";
+    }
+}
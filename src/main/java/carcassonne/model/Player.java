@@ -8,6 +8,7 @@ import java.util.Map;
 
 import carcassonne.model.terrain.TerrainType;
 import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileType;
 import carcassonne.settings.GameSettings;
 import carcassonne.settings.PlayerColor;
 
@@ -114,6 +115,20 @@ public class Player {
         return settings.getPlayerName(number);
     }
 
+    /**
+     * Returns a tile of a specific type from the hand of the player without removing it.
+     * @param type is the specific tile type.
+     * @return the tile or null if the hand contains no tile of that type.
+     */
+    public Tile getTile(TileType type) {
+        for (Tile tile : handOfTiles) {
+            if (tile.getType() == type) {
+                return tile;
+            }
+        }
+        return null;
+    }
+
     /**
      * Getter for number of the player.
      * @return the player number.
@@ -166,6 +181,14 @@ public class Player {
         return handOfTiles.isEmpty();
     }
 
+    /**
+     * Convenience method for {@link GameSettings#isComputerPlayer(int)}.
+     * @return true if this player is controlled by the computer.
+     */
+    public boolean isComputerPlayer() {
+        return settings.isComputerPlayer(number);
+    }
+
     /**
      * Returns a meeple after its job is down. Allows the player to place another meeple.
      */
@@ -178,6 +201,45 @@ public class Player {
         return "Player[number: " + number + ", score: " + overallScore + ", free meeples: " + freeMeeples + "]";
     }
 
+    /**
+     * Drops a tile from the slot of the first tile of its type in the hand of the player. If another tile of the same type
+     * comes first, that tile takes the place of the dropped tile. This way, the order of the tile types in the hand does not
+     * depend on which of several tiles of the same type is dropped, e.g. by a move that only knows the tile type.
+     * @param tile is the tile to drop, which needs to be in the hand.
+     * @return the index the tile had in the hand.
+     */
+    int dropFirstOfType(Tile tile) {
+        int index = handOfTiles.indexOf(tile);
+        int firstIndex = handOfTiles.indexOf(getTile(tile.getType()));
+        handOfTiles.set(index, handOfTiles.get(firstIndex));
+        handOfTiles.remove(firstIndex);
+        return index;
+    }
+
+    /**
+     * Puts a tile back into the hand of the player, which undoes {@link #dropFirstOfType(Tile)}. The first tile of the
+     * type returns to its slot and the tile to its index, so the hand is in the exact order it was before.
+     * @param index is the index the tile had in the hand.
+     * @param firstIndex is the index of the first tile of the same type in the hand before the tile was dropped.
+     * @param tile is the tile.
+     */
+    void restoreTile(int index, int firstIndex, Tile tile) {
+        if (firstIndex < index) {
+            handOfTiles.add(firstIndex, handOfTiles.remove(index - 1));
+        }
+        handOfTiles.add(index, tile);
+    }
+
+    /**
+     * Takes a free meeple without creating a new one, which undoes {@link #returnMeeple()}.
+     */
+    void takeMeeple() {
+        if (!hasFreeMeeples()) {
+            throw new IllegalStateException("No unused meeples are left.");
+        }
+        freeMeeples--;
+    }
+
     private void initializeScores() {
         overallScore = 0;
         terrainSpecificScores = new HashMap<>();
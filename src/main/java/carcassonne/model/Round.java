@@ -60,6 +60,28 @@ public class Round {
         return playerCount;
     }
 
+    /**
+     * Getter for the projected score of a specific player, which is the score the player would have if the game ended now.
+     * @param playerNumber is the number of the specific player.
+     * @return the current score plus the projected points for the incomplete patterns.
+     * @see Grid#getProjectedPoints(Player)
+     */
+    public int getProjectedScore(int playerNumber) {
+        return players[playerNumber].getScore() + grid.getProjectedPoints(players[playerNumber]);
+    }
+
+    /**
+     * Getter for the Zobrist hash of the position of the round, which covers the grid with its tiles and meeples, the
+     * active player and the composition of the tile stack. The hash is maintained incrementally, so it can be used as a
+     * cache key for positions in search or analysis code. The hands and scores of the players are not covered.
+     * @return the hash.
+     * @see Grid#getZobristHash()
+     * @see TileStack#getZobristHash()
+     */
+    public long getZobristHash() {
+        return grid.getZobristHash() ^ tileStack.getZobristHash() ^ ZobristKeys.activePlayer(activePlayerIndex);
+    }
+
     /**
      * Method determines the winning players by the highest score.
      * @return a list of names of the winning players.
@@ -96,6 +118,14 @@ public class Round {
         activePlayerIndex = ++activePlayerIndex % players.length;
     }
 
+    /**
+     * Sets the player whose turn it is, which is used to take back turns.
+     * @param playerNumber is the number of the player.
+     */
+    void setActivePlayer(int playerNumber) {
+        activePlayerIndex = playerNumber;
+    }
+
     /**
      * creates the players objects and sets the first players as active players.
      * @param playerCount is the number of players in the range of [1, <code>GameOptions.MAXIMAL_PLAYERS]</code>.
@@ -0,0 +1,86 @@
+package carcassonne.model;
+
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.tile.TileRotation;
+import carcassonne.model.tile.TileType;
+
+/**
+ * Keys of the Zobrist hashing of game positions. A position hash is the XOR of the keys of all its features, so adding
+ * or removing a feature only needs an XOR with its key. Instead of storing tables of random keys for every grid size, the
+ * keys are derived from the features with a fixed bit mixing function. They are therefore the same in every game and
+ * every run, which allows to compare hashes of different games.
+ * @author Timur Saglam
+ */
+public final class ZobristKeys {
+    private static final long SEED = 0x5DEECE66DL;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final int TILE = 1;
+    private static final int MEEPLE = 2;
+    private static final int ACTIVE_PLAYER = 3;
+    private static final int STACK_COUNT = 4;
+
+    private ZobristKeys() {
+        // private constructor ensures non-instantiability!
+    }
+
+    /**
+     * Key of the active player.
+     * @param playerNumber is the number of the player whose turn it is.
+     * @return the key.
+     */
+    public static long activePlayer(int playerNumber) {
+        return key(ACTIVE_PLAYER, playerNumber, 0, 0, 0);
+    }
+
+    /**
+     * Key of a placed meeple.
+     * @param x is the x coordinate of the tile of the meeple.
+     * @param y is the y coordinate of the tile of the meeple.
+     * @param position is the position of the meeple on the tile.
+     * @param owner is the number of the player that owns the meeple.
+     * @return the key.
+     */
+    public static long meeple(int x, int y, GridDirection position, int owner) {
+        return key(MEEPLE, x, y, position.ordinal(), owner);
+    }
+
+    /**
+     * Key of the amount of tiles of a type on the stack. Since the key depends on the amount, the hash of the stack
+     * composition changes by replacing the key of the old amount with the key of the new amount.
+     * @param type is the tile type.
+     * @param amount is the amount of tiles of that type.
+     * @return the key, which is zero for an amount of zero.
+     */
+    public static long stackCount(TileType type, int amount) {
+        return amount == 0 ? 0 : key(STACK_COUNT, type.ordinal(), amount, 0, 0);
+    }
+
+    /**
+     * Key of a placed tile.
+     * @param type is the type of the tile.
+     * @param rotation is the rotation of the tile.
+     * @param x is the x coordinate of the tile.
+     * @param y is the y coordinate of the tile.
+     * @return the key.
+     */
+    public static long tile(TileType type, TileRotation rotation, int x, int y) {
+        return key(TILE, x, y, type.ordinal(), rotation.ordinal());
+    }
+
+    private static long key(int feature, int first, int second, int third, int fourth) {
+        long key = mix(SEED + feature * GOLDEN_GAMMA);
+        key = mix(key + first * GOLDEN_GAMMA);
+        key = mix(key + second * GOLDEN_GAMMA);
+        key = mix(key + third * GOLDEN_GAMMA);
+        return mix(key + fourth * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Bijective bit mixing function of the SplitMix64 generator.
+     */
+    private static long mix(long value) {
+        long result = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        result = (result ^ (result >>> 27)) * 0x94D049BB133111EBL;
+        return result ^ (result >>> 31);
+    }
+}
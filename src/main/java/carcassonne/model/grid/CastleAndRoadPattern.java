@@ -1,11 +1,14 @@
 package carcassonne.model.grid;
 
+import java.util.List;
+
 import carcassonne.model.terrain.TerrainType;
 
 /**
  * @author Timur Saglam
  */
 public class CastleAndRoadPattern extends GridPattern { // TODO (MEDIUM) use subclasses to make constructors generic (factory?)
+    private static final GridDirection[] DIRECTIONS = GridDirection.values();
 
     /**
      * Public constructor for creating road and monastery patterns.
@@ -15,11 +18,25 @@ public class CastleAndRoadPattern extends GridPattern { // TODO (MEDIUM) use sub
      * @param grid is the grid the pattern is created on.
      */
     public CastleAndRoadPattern(GridSpot startingSpot, GridDirection startingDirection, TerrainType patternType, Grid grid) {
+        this(startingSpot, startingDirection, patternType, grid, false);
+    }
+
+    /**
+     * Constructor for creating road and monastery patterns whose tags can be hidden from other patterns, e.g. to check the
+     * castles adjacent to a field without hiding these castles from the rest of the pattern search.
+     * @param startingSpot is the starting spot of the pattern.
+     * @param startingDirection is the starting direction of the pattern.
+     * @param patternType is the type of the pattern.
+     * @param grid is the grid the pattern is created on.
+     * @param hiddenTags specifies whether the tags of the pattern are only visible to the pattern itself.
+     */
+    CastleAndRoadPattern(GridSpot startingSpot, GridDirection startingDirection, TerrainType patternType, Grid grid, boolean hiddenTags) {
         super(patternType, (patternType == TerrainType.CASTLE) ? 2 : 1);
         checkArgs(startingSpot, startingDirection, patternType, grid);
+        tagEpoch = grid.nextTagEpoch(hiddenTags);
         startingSpot.setTag(startingDirection, this); // initial tag
         add(startingSpot); // initial tile
-        complete = buildPattern(startingSpot, startingDirection, grid); // recursive algorithm.
+        complete = buildPattern(startingSpot, startingDirection, grid); // depth-first traversal.
     }
 
     @Override
@@ -28,16 +45,28 @@ public class CastleAndRoadPattern extends GridPattern { // TODO (MEDIUM) use sub
         super.forceDisburse();
     }
 
-    private boolean buildPattern(GridSpot spot, GridDirection startingPoint, Grid grid) {
+    /**
+     * Traverses the pattern depth-first on the traversal stack of the grid instead of recursively. The connected sides of
+     * a spot are pushed in reverse order and checked when they are popped, which visits the spots in the same order as a
+     * recursive traversal would.
+     */
+    private boolean buildPattern(GridSpot startingSpot, GridDirection startingPoint, Grid grid) {
+        TraversalStack stack = grid.getTraversalStack();
+        int base = stack.size(); // entries of an enclosing traversal stay untouched
+        pushConnectedSides(startingSpot, startingPoint, stack);
         boolean isClosed = true;
-        for (GridDirection direction : GridDirection.directNeighbors()) { // for every side
-            if (spot.getTile().hasConnection(startingPoint, direction)) { // if is connected side
-                GridSpot neighbor = grid.getNeighbor(spot, direction); // get the neighbor
-                if (neighbor == null) { // if it has no neighbor
-                    isClosed = false; // open side, can't be finished pattern.
-                } else { // continue on neighbors
-                    isClosed &= checkNeighbor(spot, neighbor, direction, grid);
-                }
+        while (stack.size() > base) {
+            int entry = stack.pop();
+            GridSpot spot = stack.getSpot(entry);
+            GridDirection direction = DIRECTIONS[stack.getValue(entry)];
+            GridSpot neighbor = grid.getNeighbor(spot, direction); // get the neighbor
+            if (neighbor == null) { // if it has no neighbor
+                isClosed = false; // open side, can't be finished pattern.
+            } else if (!neighbor.hasTagConnectedTo(direction.opposite(), this)) { // if neighbor not visited yet
+                spot.setTag(direction, this);
+                neighbor.setTag(direction.opposite(), this); // mark as visited
+                add(neighbor); // add to pattern
+                pushConnectedSides(neighbor, direction.opposite(), stack); // continue on neighbors
             }
         }
         return isClosed;
@@ -50,14 +79,12 @@ public class CastleAndRoadPattern extends GridPattern { // TODO (MEDIUM) use sub
         checkArgs(spot, direction, grid);
     }
 
-    private boolean checkNeighbor(GridSpot startingTile, GridSpot neighbor, GridDirection direction, Grid grid) {
-        GridDirection oppositeDirection = direction.opposite();
-        if (!neighbor.hasTagConnectedTo(oppositeDirection, this)) { // if neighbor not visited yet
-            startingTile.setTag(direction, this);
-            neighbor.setTag(oppositeDirection, this); // mark as visited
-            add(neighbor); // add to pattern
-            return buildPattern(neighbor, oppositeDirection, grid);
+    private void pushConnectedSides(GridSpot spot, GridDirection startingPoint, TraversalStack stack) {
+        List<GridDirection> sides = GridDirection.directNeighbors();
+        for (int index = sides.size() - 1; index >= 0; index--) { // reverse order, the first side is popped first
+            if (spot.getTile().hasConnection(startingPoint, sides.get(index))) { // if is connected side
+                stack.push(spot, sides.get(index).ordinal());
+            }
         }
-        return true;
     }
 }
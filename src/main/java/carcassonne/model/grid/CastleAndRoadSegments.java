@@ -0,0 +1,434 @@
+package carcassonne.model.grid;
+
+import static carcassonne.model.terrain.TerrainType.CASTLE;
+import static carcassonne.model.terrain.TerrainType.ROAD;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import carcassonne.model.Meeple;
+import carcassonne.model.Player;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.Tile;
+
+/**
+ * Incrementally maintained castle and road patterns of a grid. Every connected castle or road terrain on a placed tile is
+ * a segment, and segments that touch on neighboring tiles are merged into the same disjoint set (union-find). Each set
+ * represents a pattern and keeps track of its size, its open edges, its emblems and the meeples placed on it. Placing a
+ * tile therefore only merges a handful of sets instead of rebuilding the affected patterns, and a pattern is complete the
+ * moment its last open edge is closed. The merges of every placement are recorded, so the last placement can be undone
+ * by splitting them again. The sets also project the points of their incomplete patterns, see {@link ProjectedScores}, and
+ * keep track of the adjacent field segments, which are needed to update the fields when a castle is completed.
+ * @author Timur Saglam
+ */
+class CastleAndRoadSegments {
+    /**
+     * Marks tile positions that are not part of any castle or road segment.
+     */
+    static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    private int[] parents;
+    private int[] sizes;
+    private int[] openEdges;
+    private int[] emblems;
+    private TerrainType[] terrain;
+    private final List<List<Meeple>> meeples;
+    private final List<List<Integer>> adjacentFields;
+    private final List<Map<Player, Integer>> projections;
+    private final ProjectedScores projectedScores;
+    private int segmentCount;
+    private final Deque<Merge> merges; // merges of all placements, last merge first
+    private final Deque<int[]> placements; // first created segment and number of merges per placement, last placement first
+
+    /**
+     * Creates an empty segment structure.
+     * @param projectedScores are the projected scores that are updated by the segments.
+     */
+    CastleAndRoadSegments(ProjectedScores projectedScores) {
+        this.projectedScores = projectedScores;
+        parents = new int[INITIAL_CAPACITY];
+        sizes = new int[INITIAL_CAPACITY];
+        openEdges = new int[INITIAL_CAPACITY];
+        emblems = new int[INITIAL_CAPACITY];
+        terrain = new TerrainType[INITIAL_CAPACITY];
+        meeples = new ArrayList<>();
+        adjacentFields = new ArrayList<>();
+        projections = new ArrayList<>();
+        merges = new ArrayDeque<>();
+        placements = new ArrayDeque<>();
+    }
+
+    /**
+     * Adds the castle and road segments of the tile of a newly placed spot and merges them with the segments of the
+     * neighboring tiles.
+     * @param spot is the spot of the placed tile.
+     * @param grid is the grid of the spot.
+     */
+    void add(GridSpot spot, Grid grid) {
+        int firstSegment = segmentCount;
+        int mergeCount = 0;
+        Tile tile = spot.getTile();
+        int[] segments = new int[GridDirection.values().length];
+        Arrays.fill(segments, NONE);
+        for (GridDirection position : GridDirection.tilePositions()) {
+            TerrainType type = tile.getTerrain(position);
+            if ((type == CASTLE || type == ROAD) && segments[position.ordinal()] == NONE) {
+                int segment = createSegment(type, type == CASTLE && tile.hasEmblem());
+                for (GridDirection other : GridDirection.values()) {
+                    if (tile.hasConnection(position, other)) {
+                        segments[other.ordinal()] = segment;
+                    }
+                }
+            }
+        }
+        spot.setSegments(segments);
+        for (GridDirection direction : GridDirection.directNeighbors()) {
+            if (segments[direction.ordinal()] != NONE) {
+                openEdges[segments[direction.ordinal()]]++; // every connected side is open until merged
+            }
+        }
+        for (GridDirection direction : GridDirection.directNeighbors()) {
+            int segment = segments[direction.ordinal()];
+            GridSpot neighbor = grid.getNeighbor(spot, direction);
+            if (segment != NONE && neighbor != null && neighbor.getSegment(direction.opposite()) != NONE) {
+                Merge merge = union(segment, neighbor.getSegment(direction.opposite()));
+                openEdges[merge.root] -= 2; // closes the side of the tile and the side of the neighbor
+                merges.push(merge);
+                mergeCount++;
+            }
+        }
+        placements.push(new int[] { firstSegment, mergeCount });
+        for (int segment = firstSegment; segment < segmentCount; segment++) {
+            project(find(segment));
+        }
+    }
+
+    /**
+     * Adds a field segment to the fields that are adjacent to the set of a castle segment.
+     * @param castleSegment is the castle segment.
+     * @param fieldSegment is the adjacent field segment, which is on the same tile.
+     */
+    void addAdjacentField(int castleSegment, int fieldSegment) {
+        int root = find(castleSegment);
+        if (adjacentFields.get(root) == null) {
+            adjacentFields.set(root, new LinkedList<>());
+        }
+        adjacentFields.get(root).add(fieldSegment);
+    }
+
+    /**
+     * Adds a placed meeple to the pattern it was placed on. Meeples that are not placed on castle or road segments are
+     * ignored. The projected points are updated with {@link #project(GridSpot, GridDirection)}.
+     * @param spot is the spot of the tile where the meeple was placed.
+     * @param meeple is the placed meeple.
+     */
+    void addMeeple(GridSpot spot, Meeple meeple) {
+        int segment = spot.getSegment(meeple.getPosition());
+        if (segment != NONE) {
+            int root = find(segment);
+            if (meeples.get(root) == null) {
+                meeples.set(root, new LinkedList<>());
+            }
+            meeples.get(root).add(meeple);
+        }
+    }
+
+    /**
+     * Removes a meeple from the pattern it was placed on, which undoes {@link #addMeeple(GridSpot, Meeple)}. Only the
+     * meeple that was added last can be removed. The projected points are updated with
+     * {@link #project(GridSpot, GridDirection)}.
+     * @param spot is the spot of the tile where the meeple was placed.
+     * @param meeple is the meeple to remove.
+     */
+    void removeMeeple(GridSpot spot, Meeple meeple) {
+        int segment = spot.getSegment(meeple.getPosition());
+        if (segment != NONE) {
+            int root = find(segment);
+            List<Meeple> placedMeeples = meeples.get(root);
+            if (placedMeeples == null || placedMeeples.get(placedMeeples.size() - 1) != meeple) {
+                throw new IllegalStateException("Only the meeple that was placed last can be removed: " + meeple);
+            }
+            placedMeeples.remove(placedMeeples.size() - 1);
+            if (placedMeeples.isEmpty()) {
+                meeples.set(root, null); // list was created for the meeple
+            }
+        }
+    }
+
+    /**
+     * Finds the root of the set of a segment, which identifies the pattern of the segment. Union by size keeps the trees
+     * shallow, so no path compression is needed, which also keeps every merge reversible.
+     * @param segment is the segment.
+     * @return the root of its set.
+     */
+    int find(int segment) {
+        int current = segment;
+        while (parents[current] != current) {
+            current = parents[current];
+        }
+        return current;
+    }
+
+    /**
+     * Checks whether the pattern of a segment is complete, which means it has no open edges left.
+     * @param segment is the segment.
+     * @return true if the pattern is complete.
+     */
+    boolean isComplete(int segment) {
+        return openEdges[find(segment)] == 0;
+    }
+
+    /**
+     * Returns the field segments that are adjacent to the set of a castle segment.
+     * @param castleSegment is the castle segment.
+     * @return the adjacent field segments, which may contain duplicates.
+     */
+    List<Integer> getAdjacentFields(int castleSegment) {
+        List<Integer> fields = adjacentFields.get(find(castleSegment));
+        return fields == null ? List.of() : fields;
+    }
+
+    /**
+     * Returns the meeples on the pattern at a position of a spot, including meeples that were already returned.
+     * @param spot is the spot.
+     * @param position is the position on the tile of the spot.
+     * @return the unmodifiable list of meeples, which is empty if there is no castle or road at the position.
+     */
+    List<Meeple> getMeeples(GridSpot spot, GridDirection position) {
+        int segment = spot.getSegment(position);
+        if (segment == NONE || meeples.get(find(segment)) == null) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(meeples.get(find(segment)));
+    }
+
+    /**
+     * Updates the projected points of the pattern at a position of a spot, which is required after a meeple on the
+     * pattern was placed, removed, returned or restored.
+     * @param spot is the spot.
+     * @param position is the position on the tile of the spot.
+     */
+    void project(GridSpot spot, GridDirection position) {
+        int segment = spot.getSegment(position);
+        if (segment != NONE) {
+            project(find(segment));
+        }
+    }
+
+    /**
+     * Removes the segments of the tile that was placed last, which undoes {@link #add(GridSpot, Grid)}. The merges of the
+     * placement are split in reverse order.
+     * @param spot is the spot of the tile that was placed last.
+     */
+    void remove(GridSpot spot) {
+        int[] placement = placements.pop();
+        List<Integer> changedRoots = new ArrayList<>();
+        for (int index = 0; index < placement[1]; index++) {
+            Merge merge = merges.pop();
+            openEdges[merge.root] += 2;
+            changedRoots.add(merge.root);
+            if (merge.other != NONE) {
+                split(merge);
+                changedRoots.add(merge.other);
+            }
+        }
+        while (segmentCount > placement[0]) {
+            segmentCount--;
+            projectedScores.replace(projections.get(segmentCount), List.of(), 0); // removed segments project no points
+            meeples.remove(segmentCount);
+            adjacentFields.remove(segmentCount);
+            projections.remove(segmentCount);
+        }
+        changedRoots.stream().filter(it -> it < segmentCount).forEach(it -> project(it));
+        spot.setSegments(null);
+    }
+
+    /**
+     * Removes the field segment that was added last to the fields that are adjacent to the set of a castle segment, which
+     * undoes {@link #addAdjacentField(int, int)}.
+     * @param castleSegment is the castle segment.
+     */
+    void removeAdjacentField(int castleSegment) {
+        int root = find(castleSegment);
+        List<Integer> fields = adjacentFields.get(root);
+        fields.remove(fields.size() - 1);
+        if (fields.isEmpty()) {
+            adjacentFields.set(root, null); // list was created for the field
+        }
+    }
+
+    /**
+     * Creates the castle and road patterns of the whole grid, one for each set.
+     * @return the list of patterns.
+     */
+    List<GridPattern> createAllPatterns() {
+        List<GridPattern> patterns = new ArrayList<>();
+        for (int segment = 0; segment < segmentCount; segment++) {
+            if (parents[segment] == segment) {
+                patterns.add(createPattern(segment));
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Creates the castle and road patterns that contain a specific spot.
+     * @param spot is the specific spot, which needs to be occupied.
+     * @return the list of patterns, one for each distinct pattern.
+     */
+    List<GridPattern> createPatterns(GridSpot spot) {
+        List<Integer> roots = new ArrayList<>();
+        for (GridDirection position : GridDirection.tilePositions()) {
+            int segment = spot.getSegment(position);
+            if (segment != NONE && !roots.contains(find(segment))) {
+                roots.add(find(segment));
+            }
+        }
+        List<GridPattern> patterns = new LinkedList<>();
+        roots.forEach(it -> patterns.add(createPattern(it)));
+        return patterns;
+    }
+
+    /**
+     * Creates the pattern of a set, which reflects the current state of the set. Meeples that have been removed in the
+     * meantime are skipped, but they stay in the set in case their removal is undone.
+     */
+    private GridPattern createPattern(int root) {
+        List<Meeple> placedMeeples = meeples.get(root);
+        if (placedMeeples == null) {
+            placedMeeples = List.of();
+        } else {
+            placedMeeples = placedMeeples.stream().filter(Meeple::isPlaced).collect(toList());
+        }
+        return new SegmentPattern(terrain[root], sizes[root], emblems[root], openEdges[root] == 0, placedMeeples);
+    }
+
+    private int createSegment(TerrainType type, boolean hasEmblem) {
+        if (segmentCount == parents.length) {
+            int capacity = parents.length * 2;
+            parents = Arrays.copyOf(parents, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            openEdges = Arrays.copyOf(openEdges, capacity);
+            emblems = Arrays.copyOf(emblems, capacity);
+            terrain = Arrays.copyOf(terrain, capacity);
+        }
+        int segment = segmentCount++;
+        parents[segment] = segment;
+        sizes[segment] = 1;
+        openEdges[segment] = 0;
+        emblems[segment] = hasEmblem ? 1 : 0;
+        terrain[segment] = type;
+        meeples.add(null);
+        adjacentFields.add(null);
+        projections.add(Map.of());
+        return segment;
+    }
+
+    /**
+     * Replaces the projected points of a set. Like in the final scoring, castles are only worth one point per segment and
+     * emblem if they are incomplete.
+     */
+    private void project(int root) {
+        List<Meeple> placedMeeples = meeples.get(root) == null ? List.of() : meeples.get(root);
+        int value = openEdges[root] == 0 ? 0 : sizes[root] + emblems[root];
+        projections.set(root, projectedScores.replace(projections.get(root), placedMeeples, value));
+    }
+
+    /**
+     * Splits a merged set again, which requires that all later merges were split before.
+     */
+    private void split(Merge merge) {
+        int root = merge.root;
+        int other = merge.other;
+        parents[other] = other;
+        sizes[root] -= sizes[other];
+        openEdges[root] -= openEdges[other];
+        emblems[root] -= emblems[other];
+        splitLists(meeples, merge, merge.rootMeepleCount, merge.otherMeeples);
+        splitLists(adjacentFields, merge, merge.rootFieldCount, merge.otherFields);
+    }
+
+    /**
+     * Splits the list of a merged set again, which undoes {@link #mergeLists(List, int, int)}.
+     */
+    private <T> void splitLists(List<List<T>> lists, Merge merge, int rootCount, List<T> otherList) {
+        if (rootCount == NONE) {
+            lists.set(merge.root, null);
+        } else if (otherList != null) {
+            List<T> rootList = lists.get(merge.root);
+            rootList.subList(rootCount, rootList.size()).clear();
+        }
+        lists.set(merge.other, otherList);
+    }
+
+    /**
+     * Merges the sets of two segments and returns the merge, which contains the root of the merged set.
+     */
+    private Merge union(int first, int second) {
+        int root = find(first);
+        int other = find(second);
+        if (root == other) {
+            return new Merge(root, NONE, NONE, null, NONE, null); // pattern closes a loop
+        }
+        if (sizes[root] < sizes[other]) {
+            int temporary = root;
+            root = other;
+            other = temporary;
+        }
+        Merge merge = new Merge(root, other, size(meeples.get(root)), meeples.get(other), size(adjacentFields.get(root)),
+                adjacentFields.get(other));
+        projections.set(other, projectedScores.replace(projections.get(other), List.of(), 0)); // root projects the merged set
+        parents[other] = root;
+        sizes[root] += sizes[other];
+        openEdges[root] += openEdges[other];
+        emblems[root] += emblems[other];
+        mergeLists(meeples, root, other);
+        mergeLists(adjacentFields, root, other);
+        return merge;
+    }
+
+    /**
+     * Moves the list of a set to the list of the set it is merged into.
+     */
+    private <T> void mergeLists(List<List<T>> lists, int root, int other) {
+        if (lists.get(root) == null) {
+            lists.set(root, lists.get(other));
+        } else if (lists.get(other) != null) {
+            lists.get(root).addAll(lists.get(other));
+        }
+        lists.set(other, null);
+    }
+
+    private int size(List<?> list) {
+        return list == null ? NONE : list.size();
+    }
+
+    /**
+     * A merge of two sets, which is recorded to split the sets again.
+     */
+    private static final class Merge {
+        private final int root;
+        private final int other; // NONE if the segments already were in the same set
+        private final int rootMeepleCount; // NONE if the root had no meeples
+        private final List<Meeple> otherMeeples;
+        private final int rootFieldCount; // NONE if the root had no adjacent fields
+        private final List<Integer> otherFields;
+
+        Merge(int root, int other, int rootMeepleCount, List<Meeple> otherMeeples, int rootFieldCount, List<Integer> otherFields) {
+            this.root = root;
+            this.other = other;
+            this.rootMeepleCount = rootMeepleCount;
+            this.otherMeeples = otherMeeples;
+            this.rootFieldCount = rootFieldCount;
+            this.otherFields = otherFields;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package carcassonne.model.grid;
+
+import java.util.function.IntFunction;
+
+/**
+ * Directory of quadratic chunks that cover the positions of a grid, which are only allocated when they are requested.
+ * The directory is mapped through a stable origin, which allows it to grow in every direction without changing the
+ * coordinates of existing positions. Used for the sparse storages of the grid, see {@link ChunkedGridStorage} and
+ * {@link ChunkedVisitMarks}.
+ * @param <T> is the type of the chunks, an array with one entry per position of the chunk.
+ * @author Timur Saglam
+ */
+class ChunkDirectory<T> {
+    private static final int CHUNK_EXPONENT = 4; // chunks of 16 x 16 positions
+    private static final int CHUNK_SIZE = 1 << CHUNK_EXPONENT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private final IntFunction<T> chunkFactory;
+    private Object[][] chunks; // directory of chunks, indexed by the chunk coordinates relative to the origin
+    private int originX; // chunk coordinates of the first chunk of the directory
+    private int originY;
+
+    /**
+     * Creates an empty directory.
+     * @param chunkFactory creates a chunk with a specific number of positions.
+     */
+    ChunkDirectory(IntFunction<T> chunkFactory) {
+        this.chunkFactory = chunkFactory;
+        clear();
+    }
+
+    /**
+     * Removes all chunks from the directory.
+     */
+    void clear() {
+        chunks = new Object[0][0];
+    }
+
+    /**
+     * Returns the chunk that contains specific coordinates without creating it.
+     * @param x is the x coordinate.
+     * @param y is the y coordinate.
+     * @return the chunk, or null if it was not created yet.
+     */
+    T get(int x, int y) {
+        int chunkX = (x >> CHUNK_EXPONENT) - originX;
+        int chunkY = (y >> CHUNK_EXPONENT) - originY;
+        if (chunkX < 0 || chunkY < 0 || chunkX >= chunks.length || chunkY >= chunks[chunkX].length) {
+            return null;
+        }
+        return cast(chunks[chunkX][chunkY]);
+    }
+
+    /**
+     * Returns the chunk that contains specific coordinates and creates it if required.
+     * @param x is the x coordinate.
+     * @param y is the y coordinate.
+     * @return the chunk, never null.
+     */
+    T getOrCreate(int x, int y) {
+        int chunkX = x >> CHUNK_EXPONENT;
+        int chunkY = y >> CHUNK_EXPONENT;
+        if (chunks.length == 0) { // first chunk defines the origin
+            originX = chunkX;
+            originY = chunkY;
+            chunks = new Object[1][1];
+        }
+        growDirectory(chunkX, chunkY);
+        Object[] column = chunks[chunkX - originX];
+        if (column[chunkY - originY] == null) {
+            column[chunkY - originY] = chunkFactory.apply(CHUNK_SIZE * CHUNK_SIZE);
+        }
+        return cast(column[chunkY - originY]);
+    }
+
+    /**
+     * Returns the index of specific coordinates in the chunk that contains them.
+     * @param x is the x coordinate.
+     * @param y is the y coordinate.
+     * @return the index in the chunk.
+     */
+    static int indexInChunk(int x, int y) {
+        return (x & CHUNK_MASK) | (y & CHUNK_MASK) << CHUNK_EXPONENT;
+    }
+
+    @SuppressWarnings("unchecked") // chunks are only created by the chunk factory
+    private T cast(Object chunk) {
+        return (T) chunk;
+    }
+
+    /**
+     * Grows the chunk directory so that it contains specific chunk coordinates. Only the directory is copied, the chunks
+     * themselves are reused.
+     */
+    private void growDirectory(int chunkX, int chunkY) {
+        int width = chunks.length;
+        int height = chunks[0].length;
+        int minimumX = Math.min(originX, chunkX);
+        int minimumY = Math.min(originY, chunkY);
+        int maximumX = Math.max(originX + width - 1, chunkX);
+        int maximumY = Math.max(originY + height - 1, chunkY);
+        if (minimumX != originX || minimumY != originY || maximumX - minimumX >= width || maximumY - minimumY >= height) {
+            Object[][] directory = new Object[maximumX - minimumX + 1][maximumY - minimumY + 1];
+            for (int x = 0; x < width; x++) {
+                System.arraycopy(chunks[x], 0, directory[x + originX - minimumX], originY - minimumY, height);
+            }
+            chunks = directory;
+            originX = minimumX;
+            originY = minimumY;
+        }
+    }
+}
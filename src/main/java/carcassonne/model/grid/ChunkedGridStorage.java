@@ -0,0 +1,45 @@
+package carcassonne.model.grid;
+
+/**
+ * Sparse storage for the spots of a grid. Spots are stored in the chunks of a {@link ChunkDirectory}, which are only
+ * allocated when a spot inside of them is created. This allows the storage to grow in every direction without changing
+ * the coordinates of existing spots.
+ * @author Timur Saglam
+ */
+class ChunkedGridStorage {
+    private final ChunkDirectory<GridSpot[]> chunks;
+
+    /**
+     * Creates an empty storage.
+     */
+    ChunkedGridStorage() {
+        chunks = new ChunkDirectory<>(GridSpot[]::new);
+    }
+
+    /**
+     * Returns the spot on specific coordinates without creating it.
+     * @param x is the x coordinate.
+     * @param y is the y coordinate.
+     * @return the spot, or null if it was not created yet.
+     */
+    GridSpot get(int x, int y) {
+        GridSpot[] chunk = chunks.get(x, y);
+        return chunk == null ? null : chunk[ChunkDirectory.indexInChunk(x, y)];
+    }
+
+    /**
+     * Returns the spot on specific coordinates and creates it if required.
+     * @param x is the x coordinate.
+     * @param y is the y coordinate.
+     * @param grid is the grid the spot belongs to.
+     * @return the spot, never null.
+     */
+    GridSpot getOrCreate(int x, int y, Grid grid) {
+        GridSpot spot = get(x, y);
+        if (spot == null) {
+            spot = new GridSpot(grid, x, y);
+            chunks.getOrCreate(x, y)[ChunkDirectory.indexInChunk(x, y)] = spot;
+        }
+        return spot;
+    }
+}
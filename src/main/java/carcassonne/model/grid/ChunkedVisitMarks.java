@@ -0,0 +1,48 @@
+package carcassonne.model.grid;
+
+/**
+ * Sparse marks for the positions that a search over the grid visited. Like the {@link ChunkedGridStorage}, the marks are
+ * stored in the chunks of a {@link ChunkDirectory}, so the memory depends on the area that was searched instead of the
+ * size of the grid. Every position is marked with the epoch of the search that visited it last, so the marks of older
+ * searches are outdated without clearing them.
+ * @author Timur Saglam
+ */
+class ChunkedVisitMarks {
+    private final ChunkDirectory<int[]> chunks;
+    private int epoch; // epoch of the current search
+
+    /**
+     * Creates empty marks.
+     */
+    ChunkedVisitMarks() {
+        chunks = new ChunkDirectory<>(int[]::new);
+    }
+
+    /**
+     * Starts a new search, which outdates the marks of all previous searches. The marks are only cleared when the epochs
+     * run out.
+     */
+    void startSearch() {
+        if (epoch == Integer.MAX_VALUE) {
+            chunks.clear();
+            epoch = 0;
+        }
+        epoch++;
+    }
+
+    /**
+     * Marks a position as visited by the current search.
+     * @param x is the x coordinate.
+     * @param y is the y coordinate.
+     * @return true if the position was not visited by the current search before.
+     */
+    boolean visit(int x, int y) {
+        int[] chunk = chunks.getOrCreate(x, y);
+        int index = ChunkDirectory.indexInChunk(x, y);
+        if (chunk[index] == epoch) {
+            return false;
+        }
+        chunk[index] = epoch;
+        return true;
+    }
+}
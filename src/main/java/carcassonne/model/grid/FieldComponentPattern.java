@@ -0,0 +1,33 @@
+package carcassonne.model.grid;
+
+import static carcassonne.model.terrain.TerrainType.FIELDS;
+
+import java.util.List;
+
+import carcassonne.model.Meeple;
+
+/**
+ * Grid pattern for fields that is created from a connected component of the {@link PatternLabeling} instead of traversing
+ * the grid. It thus knows the number of adjacent complete castles, but not the spots it consists of. Fields are never
+ * complete before the end of the game.
+ * @author Timur Saglam
+ */
+public class FieldComponentPattern extends GridPattern {
+    private final int adjacentCastles;
+
+    /**
+     * Creates the pattern from the information of a connected component of field positions.
+     * @param adjacentCastles is the number of distinct complete castles that are adjacent to the field.
+     * @param meeples are the meeples placed on the field.
+     */
+    FieldComponentPattern(int adjacentCastles, List<Meeple> meeples) {
+        super(FIELDS, FieldsPattern.POINTS_PER_CASTLE);
+        this.adjacentCastles = adjacentCastles;
+        meeples.forEach(it -> addMeeple(it));
+    }
+
+    @Override
+    public int getSize() {
+        return adjacentCastles; // the amount of adjacent castles is the size of this pattern
+    }
+}
@@ -0,0 +1,598 @@
+package carcassonne.model.grid;
+
+import static carcassonne.model.grid.CastleAndRoadSegments.NONE;
+import static carcassonne.model.terrain.TerrainType.CASTLE;
+import static carcassonne.model.terrain.TerrainType.FIELDS;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import carcassonne.model.Meeple;
+import carcassonne.model.Player;
+import carcassonne.model.tile.Tile;
+
+/**
+ * Incrementally maintained field patterns of a grid, which project the points of the fields. Like for the
+ * {@link CastleAndRoadSegments}, every connected field terrain on a placed tile is a segment, and segments that touch on
+ * neighboring tiles are merged into the same disjoint set (union-find). Each set keeps track of the meeples placed on it
+ * and of the complete castles it is adjacent to, which determine its value. Castles can only be completed by placing a
+ * tile, so the fields adjacent to a castle are updated right when the castle is completed. The changes of every placement
+ * are recorded, so the last placement can be undone.
+ * <p>
+ * Like the final scoring, see {@link PatternLabeling}, a field also counts the castles next to the corners without fields
+ * that it touches on neighboring tiles, if it is the first of the touching fields in row order. Such a corner is stored
+ * as a segment without field positions, which is registered at its adjacent castles like a field segment and therefore
+ * collects its complete castles in the same way. The touching fields are recorded at the corner, so the field that
+ * claims the corner is determined when the field is projected.
+ * @author Timur Saglam
+ */
+class FieldSegments {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int POSITIONS = GridDirection.values().length;
+    private final CastleAndRoadSegments castleSegments;
+    private final ProjectedScores projectedScores;
+    private int[] parents;
+    private int[] sizes;
+    private long[] firstPositions; // row order of the first field position of the set, see position(GridSpot, GridDirection, Grid)
+    private final List<List<Meeple>> meeples;
+    private final List<Set<Integer>> castles; // roots of the complete castles adjacent to the set
+    private final List<List<Integer>> corners; // corner segments touched by the set
+    private final List<List<Integer>> touchingFields; // field segments touching a corner segment, null for field segments
+    private final Map<GridSpot, int[]> cornerSegments; // corner segments of a spot, indexed by their representative position
+    private final List<Map<Player, Integer>> projections;
+    private int segmentCount;
+    private final Deque<Merge> merges; // merges of all placements, last merge first
+    private final Deque<Placement> placements; // last placement first
+
+    /**
+     * Creates an empty segment structure.
+     * @param castleSegments are the castle and road segments of the same grid.
+     * @param projectedScores are the projected scores that are updated by the segments.
+     */
+    FieldSegments(CastleAndRoadSegments castleSegments, ProjectedScores projectedScores) {
+        this.castleSegments = castleSegments;
+        this.projectedScores = projectedScores;
+        parents = new int[INITIAL_CAPACITY];
+        sizes = new int[INITIAL_CAPACITY];
+        firstPositions = new long[INITIAL_CAPACITY];
+        meeples = new ArrayList<>();
+        castles = new ArrayList<>();
+        corners = new ArrayList<>();
+        touchingFields = new ArrayList<>();
+        cornerSegments = new HashMap<>();
+        projections = new ArrayList<>();
+        merges = new ArrayDeque<>();
+        placements = new ArrayDeque<>();
+    }
+
+    /**
+     * Adds the field segments of the tile of a newly placed spot and merges them with the segments of the neighboring tiles.
+     * Needs to be called after the castle and road segments of the tile were added.
+     * @param spot is the spot of the placed tile.
+     * @param grid is the grid of the spot.
+     */
+    void add(GridSpot spot, Grid grid) {
+        Placement placement = new Placement(segmentCount);
+        Tile tile = spot.getTile();
+        int[] segments = new int[GridDirection.values().length];
+        Arrays.fill(segments, NONE);
+        for (GridDirection position : GridDirection.values()) {
+            if (tile.getTerrain(position) == FIELDS && segments[position.ordinal()] == NONE) {
+                int segment = createSegment(position(spot, position, grid));
+                for (GridDirection other : GridDirection.values()) {
+                    if (tile.hasConnection(position, other)) {
+                        segments[other.ordinal()] = segment;
+                    }
+                }
+                addAdjacentCastles(spot, position, segment, placement);
+            }
+        }
+        spot.setFieldSegments(segments);
+        for (GridDirection position : GridDirection.values()) {
+            if (segments[position.ordinal()] != NONE) {
+                mergeNeighbors(spot, position, grid, placement);
+            }
+        }
+        addCompletedCastles(spot, placement);
+        addCornerTouches(spot, grid, placement);
+        placements.push(placement);
+        List<Integer> changedSegments = new ArrayList<>();
+        for (int segment = placement.firstSegment; segment < segmentCount; segment++) {
+            changedSegments.add(segment);
+        }
+        placement.castleAdditions.forEach(it -> changedSegments.add(it[0]));
+        placement.touches.forEach(it -> changedSegments.add(it[0]));
+        projectWithClaimants(changedSegments);
+    }
+
+    /**
+     * Adds a placed meeple to the field it was placed on. Meeples that are not placed on fields are ignored. The projected
+     * points are updated with {@link #project(GridSpot, GridDirection)}.
+     * @param spot is the spot of the tile where the meeple was placed.
+     * @param meeple is the placed meeple.
+     */
+    void addMeeple(GridSpot spot, Meeple meeple) {
+        int segment = spot.getFieldSegment(meeple.getPosition());
+        if (segment != NONE) {
+            int root = find(segment);
+            if (meeples.get(root) == null) {
+                meeples.set(root, new LinkedList<>());
+            }
+            meeples.get(root).add(meeple);
+        }
+    }
+
+    /**
+     * Returns the meeples on the field at a position of a spot.
+     * @param spot is the spot.
+     * @param position is the position on the tile of the spot.
+     * @return the unmodifiable list of meeples, which is empty if there is no field at the position.
+     */
+    List<Meeple> getMeeples(GridSpot spot, GridDirection position) {
+        int segment = spot.getFieldSegment(position);
+        if (segment == NONE || meeples.get(find(segment)) == null) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(meeples.get(find(segment)));
+    }
+
+    /**
+     * Updates the projected points of the field at a position of a spot, which is required after a meeple on the field was
+     * placed, removed, returned or restored.
+     * @param spot is the spot.
+     * @param position is the position on the tile of the spot.
+     */
+    void project(GridSpot spot, GridDirection position) {
+        int segment = spot.getFieldSegment(position);
+        if (segment != NONE) {
+            project(find(segment));
+        }
+    }
+
+    /**
+     * Removes a meeple from the field it was placed on, which undoes {@link #addMeeple(GridSpot, Meeple)}. Only the meeple
+     * that was added last can be removed. The projected points are updated with {@link #project(GridSpot, GridDirection)}.
+     * @param spot is the spot of the tile where the meeple was placed.
+     * @param meeple is the meeple to remove.
+     */
+    void removeMeeple(GridSpot spot, Meeple meeple) {
+        int segment = spot.getFieldSegment(meeple.getPosition());
+        if (segment != NONE) {
+            int root = find(segment);
+            List<Meeple> placedMeeples = meeples.get(root);
+            if (placedMeeples == null || placedMeeples.get(placedMeeples.size() - 1) != meeple) {
+                throw new IllegalStateException("Only the meeple that was placed last can be removed: " + meeple);
+            }
+            placedMeeples.remove(placedMeeples.size() - 1);
+            if (placedMeeples.isEmpty()) {
+                meeples.set(root, null); // list was created for the meeple
+            }
+        }
+    }
+
+    /**
+     * Removes the field segments of the tile that was placed last, which undoes {@link #add(GridSpot, Grid)}. Needs to be
+     * called before the castle and road segments of the tile are removed.
+     * @param spot is the spot of the tile that was placed last.
+     */
+    void remove(GridSpot spot) {
+        Placement placement = placements.pop();
+        List<Integer> changedRoots = new ArrayList<>();
+        for (int index = placement.touches.size() - 1; index >= 0; index--) {
+            int[] touch = placement.touches.get(index);
+            removeTouch(touch[0], touch[1]);
+            changedRoots.add(touch[0]);
+            changedRoots.add(touch[1]);
+        }
+        for (int index = placement.castleAdditions.size() - 1; index >= 0; index--) {
+            int[] addition = placement.castleAdditions.get(index);
+            castles.get(addition[0]).remove(addition[1]);
+            changedRoots.add(addition[0]);
+        }
+        for (int index = 0; index < placement.mergeCount; index++) {
+            Merge merge = merges.pop();
+            split(merge);
+            changedRoots.add(merge.root);
+            changedRoots.add(merge.other);
+        }
+        for (int index = placement.adjacentCastles.size() - 1; index >= 0; index--) {
+            castleSegments.removeAdjacentField(placement.adjacentCastles.get(index));
+        }
+        while (segmentCount > placement.firstSegment) {
+            segmentCount--;
+            projectedScores.replace(projections.get(segmentCount), List.of(), 0); // removed segments project no points
+            meeples.remove(segmentCount);
+            castles.remove(segmentCount);
+            corners.remove(segmentCount);
+            touchingFields.remove(segmentCount);
+            projections.remove(segmentCount);
+        }
+        for (GridSpot cornerSpot : placement.cornerSpots) {
+            int[] spotCorners = cornerSegments.get(cornerSpot);
+            for (int position = 0; position < POSITIONS; position++) {
+                if (spotCorners[position] >= segmentCount) {
+                    spotCorners[position] = NONE; // corner was created by the placement
+                }
+            }
+        }
+        cornerSegments.remove(spot);
+        changedRoots.removeIf(it -> it >= segmentCount);
+        projectWithClaimants(changedRoots);
+        spot.setFieldSegments(null);
+    }
+
+    /**
+     * Registers a new field segment or corner segment at the castle segments that are adjacent to it on its tile.
+     * @return the adjacent castle segments.
+     */
+    private Set<Integer> addAdjacentCastles(GridSpot spot, GridDirection fieldPosition, int segment, Placement placement) {
+        Set<Integer> adjacentCastles = new HashSet<>();
+        for (GridDirection position : FieldsPattern.getFieldPositions(spot.getTile(), fieldPosition)) {
+            for (GridDirection neighbor : FieldsPattern.getAdjacentPositions(position)) {
+                if (spot.getTile().getTerrain(neighbor) == CASTLE && spot.getSegment(neighbor) != NONE) {
+                    adjacentCastles.add(spot.getSegment(neighbor));
+                }
+            }
+        }
+        for (int castle : adjacentCastles) {
+            castleSegments.addAdjacentField(castle, segment);
+            placement.adjacentCastles.add(castle);
+        }
+        return adjacentCastles;
+    }
+
+    /**
+     * Adds the castles that were completed by placing the tile of a spot to all fields adjacent to them.
+     */
+    private void addCompletedCastles(GridSpot spot, Placement placement) {
+        for (GridDirection position : GridDirection.tilePositions()) {
+            int castle = spot.getSegment(position);
+            if (spot.getTile().getTerrain(position) == CASTLE && castle != NONE && castleSegments.isComplete(castle)) {
+                int castleRoot = castleSegments.find(castle);
+                for (int field : castleSegments.getAdjacentFields(castleRoot)) {
+                    int root = find(field);
+                    if (castles.get(root) == null) {
+                        castles.set(root, new HashSet<>());
+                    }
+                    if (castles.get(root).add(castleRoot)) {
+                        placement.castleAdditions.add(new int[] { root, castleRoot });
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the touches between the fields of a newly placed tile and the corners without fields of its neighbors, and
+     * between the fields of the neighbors and the corners without fields of the tile.
+     */
+    private void addCornerTouches(GridSpot spot, Grid grid, Placement placement) {
+        for (GridDirection position : GridDirection.values()) {
+            for (GridDirection direction : FieldsPattern.getFieldConnections(position, spot.getTile())) {
+                GridSpot neighbor = grid.getPlacedSpot(spot.getX() + direction.getX(), spot.getY() + direction.getY());
+                GridDirection opposite = FieldsPattern.getFieldOpposite(position, direction);
+                if (neighbor != null && neighbor.getFieldSegment(opposite) == NONE) {
+                    addTouch(spot.getFieldSegment(position), neighbor, opposite, placement);
+                }
+            }
+        }
+        for (GridDirection direction : GridDirection.directNeighbors()) {
+            GridSpot neighbor = grid.getPlacedSpot(spot.getX() + direction.getX(), spot.getY() + direction.getY());
+            if (neighbor != null) {
+                for (GridDirection position : GridDirection.values()) {
+                    GridDirection opposite = FieldsPattern.getFieldOpposite(position, direction.opposite());
+                    if (FieldsPattern.getFieldConnections(position, neighbor.getTile()).contains(direction.opposite())
+                            && spot.getFieldSegment(opposite) == NONE) {
+                        addTouch(neighbor.getFieldSegment(position), spot, opposite, placement);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Records that a field segment touches the corner without fields at a position of a spot.
+     */
+    private void addTouch(int field, GridSpot cornerSpot, GridDirection position, Placement placement) {
+        int corner = findOrCreateCorner(cornerSpot, position, placement);
+        touchingFields.get(corner).add(field);
+        int root = find(field);
+        if (corners.get(root) == null) {
+            corners.set(root, new LinkedList<>());
+        }
+        corners.get(root).add(corner);
+        placement.touches.add(new int[] { field, corner });
+    }
+
+    /**
+     * Determines the field that claims a corner, which is the first set in row order of all sets touching the corner.
+     */
+    private int claimant(int corner) {
+        int claimant = NONE;
+        for (int field : touchingFields.get(corner)) {
+            int root = find(field);
+            if (claimant == NONE || firstPositions[root] < firstPositions[claimant]) {
+                claimant = root;
+            }
+        }
+        return claimant;
+    }
+
+    /**
+     * Counts the complete castles of a set, including the castles of the corners that it claims.
+     */
+    private int countCastles(int root) {
+        Set<Integer> rootCastles = castles.get(root) == null ? Set.of() : castles.get(root);
+        if (corners.get(root) == null) {
+            return rootCastles.size();
+        }
+        Set<Integer> allCastles = new HashSet<>(rootCastles);
+        for (int corner : corners.get(root)) {
+            if (castles.get(corner) != null && claimant(corner) == root) {
+                allCastles.addAll(castles.get(corner));
+            }
+        }
+        return allCastles.size();
+    }
+
+    private int createSegment(long firstPosition) {
+        if (segmentCount == parents.length) {
+            parents = Arrays.copyOf(parents, parents.length * 2);
+            sizes = Arrays.copyOf(sizes, sizes.length * 2);
+            firstPositions = Arrays.copyOf(firstPositions, firstPositions.length * 2);
+        }
+        int segment = segmentCount++;
+        parents[segment] = segment;
+        sizes[segment] = 1;
+        firstPositions[segment] = firstPosition;
+        meeples.add(null);
+        castles.add(null);
+        corners.add(null);
+        touchingFields.add(null);
+        projections.add(Map.of());
+        return segment;
+    }
+
+    /**
+     * Finds the root of a set. Like for castles and roads, union by size keeps the trees shallow and every merge reversible.
+     */
+    private int find(int segment) {
+        int current = segment;
+        while (parents[current] != current) {
+            current = parents[current];
+        }
+        return current;
+    }
+
+    /**
+     * Returns the corner segment of the corner without fields at a position of a spot, and creates it when the corner is
+     * touched for the first time. A new corner already contains its adjacent castles that were completed before.
+     */
+    private int findOrCreateCorner(GridSpot spot, GridDirection position, Placement placement) {
+        GridDirection representative = representative(spot.getTile(), position);
+        int[] spotCorners = cornerSegments.computeIfAbsent(spot, it -> {
+            int[] segments = new int[POSITIONS];
+            Arrays.fill(segments, NONE);
+            return segments;
+        });
+        if (spotCorners[representative.ordinal()] == NONE) {
+            int corner = createSegment(Long.MAX_VALUE); // corners never claim other corners
+            touchingFields.set(corner, new ArrayList<>());
+            for (int castle : addAdjacentCastles(spot, representative, corner, placement)) {
+                if (castleSegments.isComplete(castle)) {
+                    if (castles.get(corner) == null) {
+                        castles.set(corner, new HashSet<>());
+                    }
+                    castles.get(corner).add(castleSegments.find(castle));
+                }
+            }
+            spotCorners[representative.ordinal()] = corner;
+            placement.cornerSpots.add(spot);
+        }
+        return spotCorners[representative.ordinal()];
+    }
+
+    /**
+     * Merges the segment on a field position of a spot with the touching segments of the neighbors.
+     */
+    private void mergeNeighbors(GridSpot spot, GridDirection position, Grid grid, Placement placement) {
+        int segment = spot.getFieldSegment(position);
+        for (GridDirection direction : FieldsPattern.getFieldConnections(position, spot.getTile())) {
+            GridSpot neighbor = grid.getPlacedSpot(spot.getX() + direction.getX(), spot.getY() + direction.getY());
+            if (neighbor != null) {
+                int neighborSegment = neighbor.getFieldSegment(FieldsPattern.getFieldOpposite(position, direction));
+                if (neighborSegment != NONE && find(segment) != find(neighborSegment)) {
+                    merges.push(union(segment, neighborSegment));
+                    placement.mergeCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines the row order of a position on a spot, which is the order in which the final scoring labels the fields.
+     */
+    private static long position(GridSpot spot, GridDirection position, Grid grid) {
+        return ((long) spot.getY() * grid.getWidth() + spot.getX()) * POSITIONS + position.ordinal();
+    }
+
+    /**
+     * Replaces the projected points of a set, which are three points per adjacent complete castle. Corners do not project
+     * points themselves.
+     */
+    private void project(int root) {
+        if (touchingFields.get(root) == null) {
+            List<Meeple> placedMeeples = meeples.get(root) == null ? List.of() : meeples.get(root);
+            int value = placedMeeples.isEmpty() ? 0 : countCastles(root) * FieldsPattern.POINTS_PER_CASTLE;
+            projections.set(root, projectedScores.replace(projections.get(root), placedMeeples, value));
+        }
+    }
+
+    /**
+     * Projects the sets of changed field or corner segments, and all sets that touch the same corners, as the claims of
+     * the corners can change with the sets.
+     */
+    private void projectWithClaimants(List<Integer> changedSegments) {
+        Set<Integer> roots = new HashSet<>();
+        for (int segment : changedSegments) {
+            int root = find(segment);
+            roots.add(root);
+            List<Integer> touchedCorners = touchingFields.get(root) == null ? corners.get(root) : List.of(root);
+            if (touchedCorners != null) {
+                touchedCorners.forEach(corner -> touchingFields.get(corner).forEach(it -> roots.add(find(it))));
+            }
+        }
+        roots.forEach(this::project);
+    }
+
+    /**
+     * Removes the touch of a field segment and a corner segment that was recorded last, which undoes
+     * {@link #addTouch(int, GridSpot, GridDirection, Placement)}.
+     */
+    private void removeTouch(int field, int corner) {
+        List<Integer> fields = touchingFields.get(corner);
+        fields.remove(fields.size() - 1);
+        int root = find(field);
+        List<Integer> touchedCorners = corners.get(root);
+        touchedCorners.remove(touchedCorners.size() - 1);
+        if (touchedCorners.isEmpty()) {
+            corners.set(root, null); // list was created for the touch
+        }
+    }
+
+    /**
+     * Returns the first position on a tile that is connected to a specific position, which represents all of them.
+     */
+    private GridDirection representative(Tile tile, GridDirection position) {
+        for (GridDirection other : GridDirection.values()) {
+            if (tile.hasConnection(position, other)) {
+                return other;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Splits a merged set again, which requires that all later merges were split before.
+     */
+    private void split(Merge merge) {
+        int root = merge.root;
+        int other = merge.other;
+        parents[other] = other;
+        sizes[root] -= sizes[other];
+        if (merge.rootMeepleCount == NONE) {
+            meeples.set(root, null);
+        } else if (merge.otherMeeples != null) {
+            List<Meeple> rootMeeples = meeples.get(root);
+            rootMeeples.subList(merge.rootMeepleCount, rootMeeples.size()).clear();
+        }
+        meeples.set(other, merge.otherMeeples);
+        if (merge.rootCornerCount == NONE) {
+            corners.set(root, null);
+        } else if (merge.otherCorners != null) {
+            List<Integer> rootCorners = corners.get(root);
+            rootCorners.subList(merge.rootCornerCount, rootCorners.size()).clear();
+        }
+        corners.set(other, merge.otherCorners);
+        firstPositions[root] = merge.rootFirstPosition;
+        merge.addedCastles.forEach(it -> castles.get(root).remove(it));
+    }
+
+    /**
+     * Merges the sets of two segments and returns the merge. The complete castles of the other set are copied, because the
+     * castles of both sets can overlap.
+     */
+    private Merge union(int first, int second) {
+        int root = find(first);
+        int other = find(second);
+        if (sizes[root] < sizes[other]) {
+            int temporary = root;
+            root = other;
+            other = temporary;
+        }
+        List<Meeple> rootMeeples = meeples.get(root);
+        List<Integer> rootCorners = corners.get(root);
+        Merge merge = new Merge(root, other, rootMeeples == null ? NONE : rootMeeples.size(), meeples.get(other));
+        merge.rootCornerCount = rootCorners == null ? NONE : rootCorners.size();
+        merge.otherCorners = corners.get(other);
+        merge.rootFirstPosition = firstPositions[root];
+        projections.set(other, projectedScores.replace(projections.get(other), List.of(), 0)); // root projects the merged set
+        parents[other] = root;
+        sizes[root] += sizes[other];
+        if (rootMeeples == null) {
+            meeples.set(root, meeples.get(other));
+        } else if (meeples.get(other) != null) {
+            rootMeeples.addAll(meeples.get(other));
+        }
+        meeples.set(other, null);
+        if (rootCorners == null) {
+            corners.set(root, corners.get(other));
+        } else if (corners.get(other) != null) {
+            rootCorners.addAll(corners.get(other));
+        }
+        corners.set(other, null);
+        firstPositions[root] = Math.min(firstPositions[root], firstPositions[other]);
+        if (castles.get(other) != null) {
+            if (castles.get(root) == null) {
+                castles.set(root, new HashSet<>());
+            }
+            for (int castle : castles.get(other)) {
+                if (castles.get(root).add(castle)) {
+                    merge.addedCastles.add(castle);
+                }
+            }
+        }
+        return merge;
+    }
+
+    /**
+     * A merge of two sets, which is recorded to split the sets again.
+     */
+    private static final class Merge {
+        private final int root;
+        private final int other;
+        private final int rootMeepleCount; // NONE if the root had no meeples
+        private final List<Meeple> otherMeeples;
+        private final List<Integer> addedCastles; // castles of the other set that the root did not have
+        private int rootCornerCount; // NONE if the root touched no corners
+        private List<Integer> otherCorners;
+        private long rootFirstPosition;
+
+        Merge(int root, int other, int rootMeepleCount, List<Meeple> otherMeeples) {
+            this.root = root;
+            this.other = other;
+            this.rootMeepleCount = rootMeepleCount;
+            this.otherMeeples = otherMeeples;
+            addedCastles = new ArrayList<>();
+        }
+    }
+
+    /**
+     * The changes of a placement, which are recorded to undo the placement.
+     */
+    private static final class Placement {
+        private final int firstSegment;
+        private int mergeCount;
+        private final List<Integer> adjacentCastles; // castle segments where the new field segments were registered
+        private final List<int[]> castleAdditions; // sets of fields and the completed castles added to them
+        private final List<int[]> touches; // field segments and the corner segments they touch
+        private final List<GridSpot> cornerSpots; // spots of the corners that were touched for the first time
+
+        Placement(int firstSegment) {
+            this.firstSegment = firstSegment;
+            adjacentCastles = new ArrayList<>();
+            castleAdditions = new ArrayList<>();
+            touches = new ArrayList<>();
+            cornerSpots = new ArrayList<>();
+        }
+    }
+}
@@ -10,6 +10,7 @@ import static carcassonne.model.terrain.RotationDirection.RIGHT;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 
 import carcassonne.model.tile.Tile;
 
@@ -18,7 +19,8 @@ import carcassonne.model.tile.Tile;
  * @author Timur Saglam
  */
 public class FieldsPattern extends GridPattern {
-    private static final int POINTS_PER_CASTLE = 3;
+    static final int POINTS_PER_CASTLE = 3;
+    private static final GridDirection[] DIRECTIONS = GridDirection.values();
     private final List<CastleAndRoadPattern> adjacentCastles;
     private final Grid grid;
 
@@ -33,10 +35,10 @@ public class FieldsPattern extends GridPattern {
         this.grid = grid;
         adjacentCastles = new LinkedList<>();
         checkArgs(startingSpot, startingDirection, grid);
+        tagEpoch = grid.nextTagEpoch(false);
         startingSpot.setTag(startingDirection, this); // initial tag, is needed for adding meeples!
         add(startingSpot); // initial tile
         buildPattern(startingSpot, startingDirection);
-        adjacentCastles.forEach(it -> it.removeOwnTags()); // also remove the tile tags of the marked adjacentCastles
     }
 
     @Override
@@ -45,29 +47,49 @@ public class FieldsPattern extends GridPattern {
     }
 
     // adds a grid direction to a list if it has not castle terain at that diection on the tile.
-    private void addIfNotCastle(List<GridDirection> results, Tile tile, GridDirection next) {
+    private static void addIfNotCastle(List<GridDirection> results, Tile tile, GridDirection next) {
         if (tile.getTerrain(next) != CASTLE) {
             results.add(next);
         }
     }
 
-    private void buildPattern(GridSpot spot, GridDirection startingPoint) {
+    /**
+     * Traverses the field depth-first on the traversal stack of the grid instead of recursively. The neighbors of a spot
+     * are pushed in reverse order and checked when they are popped, which visits the spots in the same order as a
+     * recursive traversal would.
+     */
+    private void buildPattern(GridSpot startingSpot, GridDirection startingPoint) {
+        TraversalStack stack = grid.getTraversalStack();
+        int base = stack.size(); // entries of an enclosing traversal stay untouched
+        visit(startingSpot, startingPoint, stack);
+        while (stack.size() > base) {
+            int entry = stack.pop();
+            GridSpot neighbor = stack.getSpot(entry);
+            GridDirection oppositeDirection = DIRECTIONS[stack.getValue(entry)];
+            if (!neighbor.hasTagConnectedTo(oppositeDirection, this)) { // if not visited
+                neighbor.setTag(oppositeDirection, this); // mark as visited
+                add(neighbor); // add to pattern
+                visit(neighbor, oppositeDirection, stack); // continue building on the neighbor
+            }
+        }
+    }
+
+    // Tags the field positions of a spot, counts their castles and pushes every possible neighbor in reverse order.
+    private void visit(GridSpot spot, GridDirection startingPoint, TraversalStack stack) {
         List<GridDirection> fieldPositions = getFieldPositions(spot.getTile(), startingPoint);
         for (GridDirection position : fieldPositions) { // for every positions of this field on this tile
             countAdjacentCastles(spot, position); // count castles to determine pattern size
             spot.setTag(position, this); // mark as visited
         }
-        fieldPositions.forEach(it -> checkNeighbors(spot, it)); // check every possible neighbor
-    }
-
-    private void checkNeighbors(GridSpot spot, GridDirection position) {
-        for (GridDirection connectionDirection : getFieldConnections(position, spot.getTile())) { // ∀ connection points
-            GridSpot neighbor = grid.getNeighbor(spot, connectionDirection); // get the neighbor
-            GridDirection oppositeDirection = getFieldOpposite(position, connectionDirection); // get the connecting position on neighbor
-            if (neighbor != null && neighbor.hasNoTagConnectedTo(oppositeDirection)) { // if not visited
-                neighbor.setTag(oppositeDirection, this); // mark as visited
-                add(neighbor); // add to pattern
-                buildPattern(neighbor, oppositeDirection); // continue building recursively
+        for (ListIterator<GridDirection> positions = fieldPositions.listIterator(fieldPositions.size()); positions.hasPrevious();) {
+            GridDirection position = positions.previous();
+            List<GridDirection> connections = getFieldConnections(position, spot.getTile());
+            for (ListIterator<GridDirection> iterator = connections.listIterator(connections.size()); iterator.hasPrevious();) {
+                GridDirection connectionDirection = iterator.previous(); // ∀ connection points
+                GridSpot neighbor = grid.getNeighbor(spot, connectionDirection); // get the neighbor
+                if (neighbor != null) {
+                    stack.push(neighbor, getFieldOpposite(position, connectionDirection).ordinal()); // the connecting position
+                }
             }
         }
     }
@@ -77,11 +99,9 @@ public class FieldsPattern extends GridPattern {
     private void countAdjacentCastles(GridSpot spot, GridDirection position) {
         for (GridDirection neighbor : getAdjacentPositions(position)) {
             if (spot.getTile().getTerrain(neighbor) == CASTLE && isUntagged(spot, neighbor)) { // if is unvisited castle
-                CastleAndRoadPattern castle = new CastleAndRoadPattern(spot, neighbor, CASTLE, grid);
+                CastleAndRoadPattern castle = new CastleAndRoadPattern(spot, neighbor, CASTLE, grid, true); // hidden tags
                 if (castle.isComplete()) { // if castle is closed (pattern check)
                     adjacentCastles.add(castle); // remember pattern to count points
-                } else {
-                    castle.removeOwnTags(); // IMPORTANT, remove tags if not used any further!
                 }
             }
         }
@@ -90,7 +110,7 @@ public class FieldsPattern extends GridPattern {
     /**
      * Returns every adjacent position on a tile for a specific initial position.
      */
-    private List<GridDirection> getAdjacentPositions(GridDirection position) {
+    static List<GridDirection> getAdjacentPositions(GridDirection position) {
         List<GridDirection> neighbors = new LinkedList<>();
         if (position.isSmallerOrEquals(WEST)) {
             neighbors.add(CENTER); // the classic direction are adjacent to the middle
@@ -109,7 +129,7 @@ public class FieldsPattern extends GridPattern {
      * Gives for a specific tile and a specific position on that tile the directions in which the field connects to. If the
      * tile has not the terrain field on this position the result list is empty.
      */
-    private List<GridDirection> getFieldConnections(GridDirection position, Tile tile) {
+    static List<GridDirection> getFieldConnections(GridDirection position, Tile tile) {
         List<GridDirection> results = new LinkedList<>();
         if (tile.getTerrain(position) == FIELDS) {
             if (position.isSmallerOrEquals(WEST)) {
@@ -124,7 +144,7 @@ public class FieldsPattern extends GridPattern {
 
     // Returns the position on the grid of a neighboring tile on a direction which is directly in contact with a specific
     // position of the first tile.
-    private GridDirection getFieldOpposite(GridDirection position, GridDirection neighborDirection) {
+    static GridDirection getFieldOpposite(GridDirection position, GridDirection neighborDirection) {
         if (position.isSmallerOrEquals(WEST)) {
             return position.opposite(); // top, right, bottom, left are simply inverted
         } else if (position.isSmallerOrEquals(NORTH_WEST)) {
@@ -137,7 +157,7 @@ public class FieldsPattern extends GridPattern {
         return position; // middle stays middle
     }
 
-    private List<GridDirection> getFieldPositions(Tile tile, GridDirection startingPoint) {
+    static List<GridDirection> getFieldPositions(Tile tile, GridDirection startingPoint) {
         List<GridDirection> fieldPositions = new LinkedList<>();
         for (GridDirection position : GridDirection.values()) { // for every position on tile
             if (tile.hasConnection(startingPoint, position)) {
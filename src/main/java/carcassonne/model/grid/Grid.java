@@ -2,10 +2,19 @@ package carcassonne.model.grid;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
+import carcassonne.model.Meeple;
+import carcassonne.model.Player;
+import carcassonne.model.ZobristKeys;
+import carcassonne.model.terrain.RotationDirection;
+import carcassonne.model.terrain.TerrainType;
 import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileRotation;
 import carcassonne.model.tile.TileType;
 
 /**
@@ -16,8 +25,20 @@ public class Grid {
     private static final TileType FOUNDATION_TYPE = TileType.CastleWallRoad;
     private final int width;
     private final int height;
-    private final GridSpot[][] spots;
+    private final ChunkedGridStorage storage;
+    private final List<GridSpot> placedSpots;
+    private final ProjectedScores projectedScores;
+    private final CastleAndRoadSegments segments;
+    private final FieldSegments fields;
+    private final Map<GridSpot, Map<Player, Integer>> monasteryProjections;
+    private final GridFrontier frontier;
+    private final TileClusters clusters;
+    private final TraversalStack traversalStack;
+    private final ChunkedVisitMarks visitMarks;
+    private int tagEpoch; // tag epoch of the last pattern that was built, see nextTagEpoch()
+    private int oldestTagEpoch = 1; // tags of older epochs belong to earlier pattern searches
     private GridSpot foundation;
+    private long zobristHash;
 
     /**
      * Basic constructor
@@ -27,30 +48,26 @@ public class Grid {
     public Grid(int width, int height) {
         this.width = width;
         this.height = height;
-        spots = new GridSpot[width][height];
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                spots[x][y] = new GridSpot(this, x, y);
-            }
-        }
+        storage = new ChunkedGridStorage();
+        placedSpots = new ArrayList<>();
+        projectedScores = new ProjectedScores();
+        segments = new CastleAndRoadSegments(projectedScores);
+        fields = new FieldSegments(segments, projectedScores);
+        monasteryProjections = new HashMap<>();
+        frontier = new GridFrontier();
+        clusters = new TileClusters();
+        traversalStack = new TraversalStack();
+        visitMarks = new ChunkedVisitMarks();
         placeFoundation(FOUNDATION_TYPE);
     }
 
     /**
-     * Returns list of all patterns on the grid.
+     * Returns list of all patterns on the grid. Every pattern is found exactly once by labeling the connected components
+     * of the grid instead of traversing the patterns of every spot, see {@link PatternLabeling}.
      * @return the list of patterns.
      */
     public List<GridPattern> getAllPatterns() {
-        List<GridPattern> patterns = new LinkedList<>();
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (spots[x][y].isOccupied()) {
-                    patterns.addAll(spots[x][y].createPatternList());
-                }
-            }
-        }
-        patterns.forEach(it -> it.removeTileTags()); // IMPORTANT
-        return patterns; // get patterns.
+        return new PatternLabeling(this, placedSpots, segments).createPatterns();
     }
 
     /**
@@ -78,6 +95,32 @@ public class Grid {
         return foundation;
     }
 
+    /**
+     * Returns the free spots next to a spot, which for a placed spot are the spots of the frontier that it borders on. Only
+     * stored spots are considered, so no spots are created.
+     * @param spot is the spot.
+     * @return the list of free neighboring spots.
+     */
+    public List<GridSpot> getFreeNeighbors(GridSpot spot) {
+        checkParameters(spot);
+        List<GridSpot> neighbors = new ArrayList<>();
+        for (GridDirection direction : GridDirection.directNeighbors()) {
+            GridSpot neighbor = storage.get(spot.getX() + direction.getX(), spot.getY() + direction.getY());
+            if (neighbor != null && neighbor.isFree()) {
+                neighbors.add(neighbor);
+            }
+        }
+        return neighbors;
+    }
+
+    /**
+     * Returns the frontier of the grid, which are all free spots that are directly adjacent to at least one placed tile.
+     * @return the frontier spots in the order they joined the frontier.
+     */
+    public Collection<GridSpot> getFrontier() {
+        return frontier.getSpots();
+    }
+
     /**
      * Getter for the grid height.
      * @return the height
@@ -87,7 +130,8 @@ public class Grid {
     }
 
     /**
-     * Method checks for modified patterns on the grid. As a basis it uses the coordinates of the last placed tile.
+     * Method checks for modified patterns on the grid. As a basis it uses the coordinates of the last placed tile. Castle
+     * and road patterns are retrieved from the incrementally maintained segments, the other patterns are built.
      * @param spot is the spot of the last placed tile.
      * @return the list of the modified patterns.
      */
@@ -96,8 +140,8 @@ public class Grid {
         if (spot.isFree()) {
             throw new IllegalArgumentException("Can't check for patterns on an free grid space");
         }
-        Collection<GridPattern> modifiedPatterns = spot.createPatternList();
-        modifiedPatterns.forEach(it -> it.removeTileTags()); // VERY IMPORTANT!
+        Collection<GridPattern> modifiedPatterns = segments.createPatterns(spot);
+        modifiedPatterns.addAll(spot.createFieldAndMonasteryPatterns());
         return modifiedPatterns; // get patterns.
     }
 
@@ -130,8 +174,12 @@ public class Grid {
         for (GridDirection direction : directions) {
             int newX = direction.getX() + spot.getX();
             int newY = direction.getY() + spot.getY();
-            if (isOnGrid(newX, newY) && (allowEmptySpots || spots[newX][newY].isOccupied())) {
-                neighbors.add(spots[newX][newY]); // return calculated neighbor if valid:
+            if (isOnGrid(newX, newY)) {
+                if (allowEmptySpots) {
+                    neighbors.add(storage.getOrCreate(newX, newY, this));
+                } else if (isOccupied(newX, newY)) {
+                    neighbors.add(storage.get(newX, newY)); // return calculated neighbor if valid:
+                }
             }
         }
         return neighbors;
@@ -141,6 +189,99 @@ public class Grid {
         return getNeighbors(spot, allowEmptySpots, List.of(direction));
     }
 
+    /**
+     * Returns the meeples on the castle, road or field pattern at a position of a placed spot. The meeples are taken from
+     * the incrementally maintained segments, so no pattern is traversed.
+     * @param spot is the spot.
+     * @param position is the position on the tile of the spot.
+     * @return the unmodifiable list of meeples, which is empty for monasteries and other terrain.
+     * @throws IllegalArgumentException if the spot is free.
+     */
+    public List<Meeple> getPatternMeeples(GridSpot spot, GridDirection position) {
+        checkParameters(spot);
+        if (spot.isFree()) {
+            throw new IllegalArgumentException("Can't check for meeples on an free grid space");
+        }
+        TerrainType terrain = spot.getTile().getTerrain(position);
+        if (terrain == TerrainType.CASTLE || terrain == TerrainType.ROAD) {
+            return segments.getMeeples(spot, position);
+        } else if (terrain == TerrainType.FIELDS) {
+            return fields.getMeeples(spot, position);
+        }
+        return List.of();
+    }
+
+    /**
+     * Returns the spots of all placed tiles.
+     * @return the unmodifiable list of spots in placement order.
+     */
+    public List<GridSpot> getPlacedSpots() {
+        return Collections.unmodifiableList(placedSpots);
+    }
+
+    /**
+     * Determines all free spots where a tile type can be placed in at least one rotation without closing off free spots.
+     * The spots are looked up by the edge signatures of the frontier, so this does not depend on the size of the grid.
+     * @param type is the tile type.
+     * @return the list of spots, which is empty if the tile type can't be placed anywhere.
+     */
+    public List<GridSpot> getAcceptingSpots(TileType type) {
+        List<GridSpot> spots = new ArrayList<>();
+        for (Collection<GridSpot> group : frontier.getAcceptingSpots(type)) {
+            for (GridSpot spot : group) {
+                if (!clusters.isClosingFreeSpotsOff(spot, this)) {
+                    spots.add(spot);
+                }
+            }
+        }
+        return spots;
+    }
+
+    /**
+     * Determines all legal placements of a tile, which means every free spot and rotation where the tile fits all its
+     * neighbors without closing off free spots. Only the frontier of the grid, the free spots next to placed tiles, is
+     * considered. The tile itself is not rotated.
+     * @param tile is the tile to place.
+     * @return the list of legal placements, which is empty if the tile can't be placed anywhere.
+     */
+    public List<PossiblePlacement> getPossiblePlacements(Tile tile) {
+        checkParameters(tile);
+        List<PossiblePlacement> placements = new ArrayList<>();
+        for (GridSpot spot : frontier.getSpots()) {
+            int rotations = frontier.fittingRotations(spot, tile);
+            if (rotations != 0 && !clusters.isClosingFreeSpotsOff(spot, this)) {
+                TileRotation rotation = tile.getRotation();
+                for (int steps = 0; steps < TileRotation.values().length; steps++) {
+                    if ((rotations & 1 << steps) != 0) {
+                        placements.add(new PossiblePlacement(spot, rotation));
+                    }
+                    rotation = rotation.rotate(RotationDirection.RIGHT);
+                }
+            }
+        }
+        return placements;
+    }
+
+    /**
+     * Returns the projected points of a player, which are the points the player would get for the incomplete patterns if
+     * the game ended now. The projection is updated incrementally with every placed tile and meeple.
+     * @param player is the player.
+     * @return the projected points, not including the current score of the player.
+     */
+    public int getProjectedPoints(Player player) {
+        return projectedScores.getPoints(player);
+    }
+
+    /**
+     * Getter for the Zobrist hash of the grid, which covers the placed tiles with their rotations and the placed meeples.
+     * The hash is updated with every change of the grid, so it can be used as a cache key for grid positions.
+     * @return the hash.
+     * @see ZobristKeys
+     */
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
     /**
      * Safe getter for tiles.
      * @param x is the x coordinate
@@ -150,7 +291,7 @@ public class Grid {
      */
     public GridSpot getSpot(int x, int y) {
         checkParameters(x, y);
-        return spots[x][y];
+        return storage.getOrCreate(x, y, this);
     }
 
     /**
@@ -161,6 +302,18 @@ public class Grid {
         return width;
     }
 
+    /**
+     * Checks whether a free spot on the grid would close free spots off in any direction if a tile would be placed there.
+     * This check is based on the incrementally maintained clusters of placed tiles and only looks at the neighbors of the
+     * spot.
+     * @param spot is the spot.
+     * @return true if it does.
+     */
+    public boolean isClosingFreeSpotsOff(GridSpot spot) {
+        checkParameters(spot);
+        return clusters.isClosingFreeSpotsOff(spot, this);
+    }
+
     /**
      * Checks whether a spot on the grid would close free spots off in a direction if a tile would be placed there.
      * @param spot is the spot.
@@ -168,9 +321,16 @@ public class Grid {
      * @return true if it does.
      */
     public boolean isClosingFreeSpotsOff(GridSpot spot, GridDirection direction) {
-        boolean[][] visitedPositions = new boolean[width][height];
-        visitedPositions[spot.getX()][spot.getY()] = true; // mark starting point as visited
-        return !findBoundary(spot, direction, visitedPositions); // start recursion
+        int x = spot.getX() + direction.getX();
+        int y = spot.getY() + direction.getY();
+        if (!isOnGrid(x, y)) {
+            return false; // direction leads directly to the border
+        } else if (isOccupied(x, y)) {
+            return true; // can't go through tiles
+        } else if (!clusters.isClosingFreeSpotsOff(spot, this)) {
+            return false; // no free spots are closed off in any direction
+        }
+        return !findBoundary(spot, x, y); // find out which direction is closed off
     }
 
     /**
@@ -178,14 +338,24 @@ public class Grid {
      * @return true if full.
      */
     public boolean isFull() {
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                if (spots[x][y].isFree()) {
-                    return false; // grid is not full if one position is free
+        return placedSpots.size() == width * height;
+    }
+
+    /**
+     * Checks whether a tile type can be placed anywhere on the grid in any rotation. The spots are looked up by the edge
+     * signatures of the frontier, so this usually takes a constant number of lookups, regardless of the size of the grid.
+     * @param type is the tile type.
+     * @return true if there is at least one legal placement.
+     */
+    public boolean isPlaceableAnywhere(TileType type) {
+        for (Collection<GridSpot> group : frontier.getAcceptingSpots(type)) {
+            for (GridSpot spot : group) {
+                if (!clusters.isClosingFreeSpotsOff(spot, this)) {
+                    return true;
                 }
             }
         }
-        return true;
+        return false;
     }
 
     /**
@@ -194,7 +364,7 @@ public class Grid {
      * @return true if it is on the grid.
      */
     public boolean isOnGrid(GridSpot spot) {
-        return spot != null && spot.equals(spots[spot.getX()][spot.getY()]);
+        return spot != null && spot.equals(storage.get(spot.getX(), spot.getY()));
     }
 
     /**
@@ -217,13 +387,88 @@ public class Grid {
     public boolean place(int x, int y, Tile tile) {
         checkParameters(x, y);
         checkParameters(tile);
-        return spots[x][y].set(tile);
+        GridSpot spot = storage.getOrCreate(x, y, this);
+        if (spot.set(tile)) {
+            zobristHash ^= ZobristKeys.tile(tile.getType(), tile.getRotation(), x, y);
+            placedSpots.add(spot);
+            segments.add(spot, this);
+            fields.add(spot, this);
+            frontier.add(spot, this);
+            clusters.add(spot, this);
+            projectMonasteries(spot);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes the tile that was placed last from the grid, which undoes {@link #place(int, int, Tile)}. Only the effects of
+     * that placement are reverted, so this does not depend on the size of the grid.
+     * @return the removed tile.
+     * @throws IllegalStateException if only the foundation is left or if the tile still has a meeple.
+     */
+    public Tile removeLastTile() {
+        if (placedSpots.size() == 1) {
+            throw new IllegalStateException("The foundation can not be removed.");
+        }
+        GridSpot spot = placedSpots.get(placedSpots.size() - 1);
+        if (spot.getTile().hasMeeple()) {
+            throw new IllegalStateException("The meeple needs to be removed before the tile: " + spot.getTile());
+        }
+        placedSpots.remove(placedSpots.size() - 1);
+        zobristHash ^= ZobristKeys.tile(spot.getTile().getType(), spot.getTile().getRotation(), spot.getX(), spot.getY());
+        clusters.remove(spot);
+        frontier.remove(spot, this);
+        fields.remove(spot);
+        segments.remove(spot);
+        projectedScores.replace(monasteryProjections.getOrDefault(spot, Map.of()), List.of(), 0);
+        monasteryProjections.remove(spot);
+        Tile tile = spot.remove();
+        projectMonasteries(spot);
+        return tile;
+    }
+
+    /**
+     * Registers a meeple that was placed on the tile of a spot of this grid.
+     * @param spot is the spot.
+     * @param meeple is the placed meeple.
+     */
+    void registerMeeple(GridSpot spot, Meeple meeple) {
+        segments.addMeeple(spot, meeple);
+        fields.addMeeple(spot, meeple);
+        updateMeeple(spot, meeple);
+    }
+
+    /**
+     * Adds a meeple to the hash of the grid or removes it from the hash, and updates the projected points of its pattern.
+     * This happens when the meeple is placed, when it is returned to its owner and when its return is undone.
+     * @param spot is the spot of the meeple.
+     * @param meeple is the meeple.
+     */
+    void updateMeeple(GridSpot spot, Meeple meeple) {
+        zobristHash ^= ZobristKeys.meeple(spot.getX(), spot.getY(), meeple.getPosition(), meeple.getOwner().getNumber());
+        segments.project(spot, meeple.getPosition());
+        fields.project(spot, meeple.getPosition());
+        if (spot.getTile().getTerrain(meeple.getPosition()) == TerrainType.MONASTERY) {
+            projectMonastery(spot);
+        }
+    }
+
+    /**
+     * Unregisters a meeple that was placed last on the tile of a spot of this grid. The meeple leaves the hash of the grid
+     * and the projected points when it is returned to its owner.
+     * @param spot is the spot.
+     * @param meeple is the removed meeple.
+     */
+    void unregisterMeeple(GridSpot spot, Meeple meeple) {
+        segments.removeMeeple(spot, meeple);
+        fields.removeMeeple(spot, meeple);
     }
 
     private void checkParameters(GridSpot spot) {
         if (spot == null) {
             throw new IllegalArgumentException("Spot can't be null!");
-        } else if (!spots[spot.getX()][spot.getY()].equals(spot)) {
+        } else if (!spot.equals(storage.get(spot.getX(), spot.getY()))) {
             throw new IllegalArgumentException("Spot is not on the grid!");
         }
     }
@@ -252,23 +497,126 @@ public class Grid {
         }
     }
 
-    // method tries to find a path of free grid spaces to the grid border.
-    private boolean findBoundary(GridSpot spot, GridDirection direction, boolean[][] visitedPositions) {
-        int newX = direction.getX() + spot.getX(); // get coordinates
-        int newY = direction.getY() + spot.getY(); // of free space
-        if (isOnGrid(newX, newY)) { // if on grid
-            if (spots[newX][newY].isOccupied()) {
-                return false; // is a tile, can't go through tiles
-            } else if (!visitedPositions[newX][newY]) { // if not visited
-                visitedPositions[newX][newY] = true; // mark as visited
-                for (GridDirection newDirection : GridDirection.directNeighbors()) { // recursion
-                    if (findBoundary(spots[newX][newY], newDirection, visitedPositions)) {
-                        return true; // found boundary
-                    }
+    /**
+     * Returns the spot on specific coordinates if a tile is placed there, without creating the spot if it does not exist
+     * yet.
+     * @param x is the x coordinate.
+     * @param y is the y coordinate.
+     * @return the occupied spot or null if there is no tile.
+     */
+    GridSpot getPlacedSpot(int x, int y) {
+        GridSpot spot = storage.get(x, y);
+        return spot != null && spot.isOccupied() ? spot : null;
+    }
+
+    /**
+     * Getter for the work stack that is shared by all traversals of the grid, which replaces recursion.
+     * @return the traversal stack.
+     */
+    TraversalStack getTraversalStack() {
+        return traversalStack;
+    }
+
+    /**
+     * Starts a new pattern search, which outdates the tags of all earlier searches at once instead of removing them from
+     * the spots. The tag epochs start over when half of them are used up, which is the only time tags are removed.
+     */
+    void invalidateTags() {
+        if (tagEpoch > Integer.MAX_VALUE / 2) {
+            clearTags();
+        }
+        oldestTagEpoch = tagEpoch + 1;
+    }
+
+    /**
+     * Checks whether a tag epoch belongs to the current pattern search and is visible to other patterns.
+     * @param epoch is the tag epoch, where zero means untagged.
+     * @return true if a tag with this epoch is valid.
+     */
+    boolean isValidTagEpoch(int epoch) {
+        return epoch >= oldestTagEpoch;
+    }
+
+    /**
+     * Hands out the tag epoch of a new pattern, which identifies the tags of the pattern on the spots. Hidden tags have a
+     * negative epoch, so they are never valid for other patterns, but the pattern itself still recognizes them.
+     * @param hidden specifies whether the tags are only visible to the pattern itself.
+     * @return the new tag epoch.
+     */
+    int nextTagEpoch(boolean hidden) {
+        if (tagEpoch == Integer.MAX_VALUE) {
+            clearTags(); // only reachable without starting a pattern search
+        }
+        tagEpoch++;
+        return hidden ? -tagEpoch : tagEpoch;
+    }
+
+    private void clearTags() {
+        placedSpots.forEach(GridSpot::clearTags); // free spots have no tags
+        tagEpoch = 0;
+        oldestTagEpoch = 1;
+    }
+
+    private boolean isOccupied(int x, int y) {
+        return getPlacedSpot(x, y) != null;
+    }
+
+    /**
+     * Replaces the projected points of a monastery on a placed spot, which are one point for the monastery and one point
+     * for every neighbor, as long as the monastery is incomplete.
+     */
+    private void projectMonastery(GridSpot spot) {
+        if (spot.getTile().getTerrain(GridDirection.CENTER) == TerrainType.MONASTERY) {
+            int neighbors = 0;
+            for (GridDirection direction : GridDirection.neighbors()) {
+                if (getPlacedSpot(spot.getX() + direction.getX(), spot.getY() + direction.getY()) != null) {
+                    neighbors++;
+                }
+            }
+            Meeple meeple = spot.getTile().getMeeple();
+            List<Meeple> meeples = meeple == null || meeple.getPosition() != GridDirection.CENTER ? List.of() : List.of(meeple);
+            int value = neighbors == GridDirection.neighbors().size() ? 0 : 1 + neighbors;
+            monasteryProjections.put(spot, projectedScores.replace(monasteryProjections.getOrDefault(spot, Map.of()), meeples, value));
+        }
+    }
+
+    /**
+     * Replaces the projected points of the monasteries on a spot and on its neighbors, whose size depends on the spot.
+     */
+    private void projectMonasteries(GridSpot spot) {
+        if (spot.isOccupied()) {
+            projectMonastery(spot);
+        }
+        for (GridDirection direction : GridDirection.neighbors()) {
+            GridSpot neighbor = getPlacedSpot(spot.getX() + direction.getX(), spot.getY() + direction.getY());
+            if (neighbor != null) {
+                projectMonastery(neighbor);
+            }
+        }
+    }
+
+    /**
+     * Tries to find a path of free grid spaces from specific coordinates to the grid border, while treating a specific spot
+     * as blocked. Uses an explicit stack instead of recursion.
+     */
+    private boolean findBoundary(GridSpot blockedSpot, int startX, int startY) {
+        visitMarks.startSearch();
+        visitMarks.visit(blockedSpot.getX(), blockedSpot.getY()); // mark blocked spot as visited
+        visitMarks.visit(startX, startY);
+        int base = traversalStack.size();
+        traversalStack.push(startX * height + startY);
+        while (traversalStack.size() > base) {
+            int position = traversalStack.getValue(traversalStack.pop());
+            for (GridDirection direction : GridDirection.directNeighbors()) {
+                int x = position / height + direction.getX();
+                int y = position % height + direction.getY();
+                if (!isOnGrid(x, y)) {
+                    traversalStack.truncate(base); // discard the rest of the search
+                    return true; // found boundary
+                } else if (!isOccupied(x, y) && visitMarks.visit(x, y)) { // can't go through tiles
+                    traversalStack.push(x * height + y);
                 }
             }
-        } else { // if not on grid
-            return true; // found boundary
         }
         return false; // has not found boundary
     }
@@ -280,7 +628,13 @@ public class Grid {
     private void placeFoundation(TileType tileType) {
         int centerX = Math.round((width - 1) / 2);
         int centerY = Math.round((height - 1) / 2);
-        foundation = spots[centerX][centerY];
+        foundation = storage.getOrCreate(centerX, centerY, this);
         foundation.forcePlacement(new Tile(tileType));
+        zobristHash = ZobristKeys.tile(tileType, foundation.getTile().getRotation(), centerX, centerY);
+        placedSpots.add(foundation);
+        segments.add(foundation, this);
+        fields.add(foundation, this);
+        frontier.add(foundation, this);
+        clusters.add(foundation, this);
     }
 }
\ No newline at end of file
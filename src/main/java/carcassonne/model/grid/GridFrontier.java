@@ -0,0 +1,224 @@
+package carcassonne.model.grid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileRotation;
+import carcassonne.model.tile.TileType;
+
+/**
+ * The frontier of a grid, which are all free spots that are directly adjacent to at least one placed tile. Every frontier
+ * spot has an edge signature, which specifies the terrain a tile needs on each of its sides to fit the neighboring
+ * tiles. Sides without a neighboring tile are wildcards. The frontier is updated on every placement, so finding all
+ * fitting spots for a tile does not require to look at the neighbors of every spot of the grid. Spots keep their entry
+ * when a tile is placed on them, so they keep their position in the frontier if the placement is undone.
+ * <p>
+ * The free spots are also indexed by their signature, which makes the frontier a multiset of signatures. A tile in a
+ * rotation fits exactly the signatures that equal its side terrains with any combination of sides replaced by wildcards,
+ * so all spots that accept a tile type are found with a constant number of lookups, regardless of the size of the frontier.
+ * @author Timur Saglam
+ */
+class GridFrontier {
+    private static final List<GridDirection> SIDES = GridDirection.directNeighbors();
+    private static final int BITS_PER_SIDE = 3; // enough for a wildcard and every terrain type
+    private static final Map<TileType, List<Integer>> FITTING_SIGNATURES = fittingSignatures();
+    private final Map<GridSpot, TerrainType[]> signatures; // required terrain per side, null for wildcards, includes occupied spots
+    private final Map<Integer, Set<GridSpot>> spotsBySignature; // free spots per signature code
+
+    /**
+     * Creates an empty frontier.
+     */
+    GridFrontier() {
+        signatures = new LinkedHashMap<>();
+        spotsBySignature = new HashMap<>();
+    }
+
+    /**
+     * Updates the frontier after a tile was placed on a spot. The spot leaves the frontier and its free neighbors on the
+     * grid join it or get their signature restricted.
+     * @param spot is the spot of the placed tile.
+     * @param grid is the grid of the spot.
+     */
+    void add(GridSpot spot, Grid grid) {
+        unindex(spot);
+        for (GridDirection side : SIDES) {
+            int x = spot.getX() + side.getX();
+            int y = spot.getY() + side.getY();
+            if (grid.isOnGrid(x, y)) {
+                GridSpot neighbor = grid.getSpot(x, y);
+                if (neighbor.isFree()) {
+                    unindex(neighbor);
+                    TerrainType[] signature = signatures.computeIfAbsent(neighbor, it -> new TerrainType[SIDES.size()]);
+                    signature[side.opposite().ordinal()] = spot.getTile().getTerrain(side);
+                    index(neighbor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the frontier after the tile that was placed last was removed from a spot, which undoes
+     * {@link #add(GridSpot, Grid)}. The spot rejoins the frontier and its free neighbors lose the restriction of their
+     * signature or leave the frontier.
+     * @param spot is the spot of the removed tile.
+     * @param grid is the grid of the spot.
+     */
+    void remove(GridSpot spot, Grid grid) {
+        for (GridDirection side : SIDES) {
+            int x = spot.getX() + side.getX();
+            int y = spot.getY() + side.getY();
+            if (grid.isOnGrid(x, y)) {
+                GridSpot neighbor = grid.getSpot(x, y);
+                if (neighbor.isFree()) {
+                    unindex(neighbor);
+                    TerrainType[] signature = signatures.get(neighbor);
+                    signature[side.opposite().ordinal()] = null;
+                    if (Arrays.stream(signature).allMatch(Objects::isNull)) {
+                        signatures.remove(neighbor); // neighbor joined the frontier with the placement
+                    } else {
+                        index(neighbor);
+                    }
+                }
+            }
+        }
+        index(spot); // the spot is free again once its tile is removed
+    }
+
+    /**
+     * Determines the free spots of the frontier that accept a tile type in at least one rotation, which means that a
+     * rotation of the tile fits all neighboring tiles. This does not check whether free spots would be closed off.
+     * @param type is the tile type.
+     * @return the accepting spots, grouped by their signature.
+     */
+    List<Set<GridSpot>> getAcceptingSpots(TileType type) {
+        List<Set<GridSpot>> groups = new ArrayList<>();
+        for (Integer code : FITTING_SIGNATURES.getOrDefault(type, List.of())) {
+            Set<GridSpot> spots = spotsBySignature.get(code);
+            if (spots != null) {
+                groups.add(spots);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Returns all spots of the frontier in the order they joined it.
+     * @return the frontier spots.
+     */
+    Collection<GridSpot> getSpots() {
+        List<GridSpot> spots = new ArrayList<>();
+        for (GridSpot spot : signatures.keySet()) {
+            if (spot.isFree()) {
+                spots.add(spot);
+            }
+        }
+        return spots;
+    }
+
+    /**
+     * Determines for which clockwise rotations a tile fits the edge signature of a frontier spot.
+     * @param spot is the frontier spot.
+     * @param tile is the tile in its current rotation.
+     * @return a bitmask where bit i is set if the tile fits after i clockwise rotations.
+     */
+    int fittingRotations(GridSpot spot, Tile tile) {
+        TerrainType[] signature = signatures.get(spot);
+        int rotations = 0;
+        for (int steps = 0; steps < SIDES.size(); steps++) {
+            if (fits(signature, tile, steps)) {
+                rotations |= 1 << steps;
+            }
+        }
+        return rotations;
+    }
+
+    private void index(GridSpot spot) {
+        TerrainType[] signature = signatures.get(spot);
+        if (signature != null) {
+            spotsBySignature.computeIfAbsent(encode(signature), it -> new LinkedHashSet<>()).add(spot);
+        }
+    }
+
+    private void unindex(GridSpot spot) {
+        TerrainType[] signature = signatures.get(spot);
+        if (signature != null) {
+            Set<GridSpot> spots = spotsBySignature.get(encode(signature));
+            spots.remove(spot);
+            if (spots.isEmpty()) {
+                spotsBySignature.remove(encode(signature));
+            }
+        }
+    }
+
+    /**
+     * Encodes side terrains into a number, with a fixed amount of bits per side where zero stands for a wildcard.
+     */
+    private static int encode(TerrainType[] sideTerrain) {
+        int code = 0;
+        for (int side = 0; side < sideTerrain.length; side++) {
+            if (sideTerrain[side] != null) {
+                code |= (sideTerrain[side].ordinal() + 1) << side * BITS_PER_SIDE;
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Determines the distinct signature codes every tile type fits, which are the codes of the side terrains of each
+     * rotation with every combination of sides replaced by wildcards.
+     */
+    private static Map<TileType, List<Integer>> fittingSignatures() {
+        Map<TileType, List<Integer>> signatures = new EnumMap<>(TileType.class);
+        for (TileType type : TileType.validTiles()) {
+            Tile tile = new Tile(type);
+            Set<Integer> codes = new LinkedHashSet<>();
+            for (int steps = 0; steps < TileRotation.values().length; steps++) {
+                int code = encode(SIDES.stream().map(tile::getTerrain).toArray(TerrainType[]::new));
+                for (int wildcards = 0; wildcards < 1 << SIDES.size(); wildcards++) {
+                    codes.add(withWildcards(code, wildcards));
+                }
+                tile.rotateRight();
+            }
+            signatures.put(type, List.copyOf(codes));
+        }
+        return signatures;
+    }
+
+    /**
+     * Replaces the terrain of the sides of a code that are set in a bitmask with wildcards.
+     */
+    private static int withWildcards(int code, int wildcards) {
+        int result = code;
+        for (int side = 0; side < SIDES.size(); side++) {
+            if ((wildcards & 1 << side) != 0) {
+                result &= ~(((1 << BITS_PER_SIDE) - 1) << side * BITS_PER_SIDE);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a tile fits a signature after a number of clockwise rotations. Rotating a tile clockwise once moves
+     * the terrain of each side to the next side, e.g. north to east.
+     */
+    private static boolean fits(TerrainType[] signature, Tile tile, int steps) {
+        for (int side = 0; side < signature.length; side++) {
+            TerrainType required = signature[side];
+            if (required != null && required != tile.getTerrain(SIDES.get(Math.floorMod(side - steps, SIDES.size())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
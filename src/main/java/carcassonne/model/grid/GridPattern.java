@@ -27,6 +27,7 @@ public class GridPattern {
     protected final TerrainType patternType;
     protected int scoreMultiplier;
     protected List<GridSpot> containedSpots;
+    protected int tagEpoch; // identifies the tags of this pattern on the spots, zero if the pattern does not tag
 
     /**
      * Basic constructor taking only a tile type.
@@ -57,10 +58,7 @@ public class GridPattern {
      */
     public void disburse() {
         if (!disbursed && complete && !involvedPlayers.isEmpty()) {
-            int emblems = 0;
-            if (patternType == TerrainType.CASTLE) {
-                emblems = (int) containedSpots.stream().filter(it -> it.getTile().hasEmblem()).count(); // count emblems
-            }
+            int emblems = countEmblems();
             int baseValue = (getSize() + emblems) * scoreMultiplier; // needs to call get size for field calculation
             for (Player player : determineDominantPlayers()) { // dominant players split the pot
                 player.addPoints((int) Math.ceil(baseValue / involvedPlayers.size()), patternType);
@@ -124,17 +122,12 @@ public class GridPattern {
     }
 
     /**
-     * Removes all OWN tags of all tiles of the pattern.
-     */
-    public void removeOwnTags() {
-        containedSpots.forEach(it -> it.removeTagsFrom(this));
-    }
-
-    /**
-     * Removes all tags of all tiles of the pattern. Needs to be called after ALL patterns of a tile have been created.
+     * Getter for the tag epoch of the pattern, which identifies its tags on the spots.
+     * @return the tag epoch, or zero if the pattern does not tag spots.
+     * @see GridSpot#setTag(GridDirection, GridPattern)
      */
-    public void removeTileTags() {
-        containedSpots.forEach(it -> it.removeTags());
+    int getTagEpoch() {
+        return tagEpoch;
     }
 
     @Override
@@ -147,13 +140,7 @@ public class GridPattern {
         assert !disbursed;
         Meeple meeple = spot.getTile().getMeeple(); // Meeple on the tile.
         if (!meepleList.contains(meeple) && isPartOfPattern(spot, meeple.getPosition())) {
-            Player player = meeple.getOwner(); // owner of the meeple.
-            if (involvedPlayers.containsKey(player)) {
-                involvedPlayers.put(player, involvedPlayers.get(player) + 1);
-            } else {
-                involvedPlayers.put(player, 1);
-            }
-            meepleList.add(meeple);
+            addMeeple(meeple);
         }
     }
 
@@ -171,6 +158,31 @@ public class GridPattern {
         return onCorrectTerrain && onPattern;
     }
 
+    /**
+     * Adds a meeple to the pattern, which involves the owner of the meeple in the pattern.
+     * @param meeple is the meeple to add.
+     */
+    protected void addMeeple(Meeple meeple) {
+        Player player = meeple.getOwner(); // owner of the meeple.
+        if (involvedPlayers.containsKey(player)) {
+            involvedPlayers.put(player, involvedPlayers.get(player) + 1);
+        } else {
+            involvedPlayers.put(player, 1);
+        }
+        meepleList.add(meeple);
+    }
+
+    /**
+     * Counts the emblems of the pattern, which is the number of emblem tiles of a castle pattern.
+     * @return the number of emblems.
+     */
+    protected int countEmblems() {
+        if (patternType == TerrainType.CASTLE) {
+            return (int) containedSpots.stream().filter(it -> it.getTile().hasEmblem()).count(); // count emblems
+        }
+        return 0;
+    }
+
     /**
      * Adds a spot to the pattern, saving the tile on the spot, the owner of a potential Meeple on the tile.
      * @param spot is the spot to add.
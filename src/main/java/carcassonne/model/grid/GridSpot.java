@@ -3,11 +3,10 @@ package carcassonne.model.grid;
 import static carcassonne.model.grid.GridDirection.CENTER;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
+import carcassonne.model.Meeple;
 import carcassonne.model.terrain.TerrainType;
 import carcassonne.model.tile.Tile;
 
@@ -18,7 +17,11 @@ import carcassonne.model.tile.Tile;
 public class GridSpot {
 
     private final Grid grid;
-    private final Map<GridDirection, List<GridPattern>> tagMap; // maps tagged location to the patterns.
+    private static final int POSITIONS = GridDirection.values().length;
+    private int[] tags; // tag epoch of the pattern that tagged a tile position last, then the hidden tags, see Grid#nextTagEpoch()
+    private int[] segments; // castle and road segments per tile position, see CastleAndRoadSegments
+    private int[] fieldSegments; // field segments per tile position, see FieldSegments
+    private int cluster = TileClusters.NONE; // cluster of placed tiles, see TileClusters
     private Tile tile;
     private final int x;
     private final int y;
@@ -33,20 +36,18 @@ public class GridSpot {
         this.grid = grid;
         this.x = x;
         this.y = y;
-        tagMap = new HashMap<>();
-        for (GridDirection direction : GridDirection.values()) {
-            tagMap.put(direction, new LinkedList<>());
-        }
     }
 
     /**
-     * Creates list of all patterns that are affected by this spot.
+     * Creates list of all patterns that are affected by this spot. Starts a new pattern search, so the tags of earlier
+     * searches are outdated.
      * @return the list of patterns.
      */
     public Collection<GridPattern> createPatternList() {
         if (isFree()) {
             throw new IllegalStateException("GridSpot is free, cannot create patterns");
         }
+        grid.invalidateTags();
         List<GridPattern> results = new LinkedList<>();
         // first, check for castle and road patterns:
         for (GridDirection direction : GridDirection.tilePositions()) {
@@ -55,19 +56,23 @@ public class GridSpot {
                 results.add(new CastleAndRoadPattern(this, direction, terrain, grid));
             }
         }
-        // then, check fields:
-        for (GridDirection direction : GridDirection.values()) {
-            TerrainType terrain = tile.getTerrain(direction); // get terrain type.
-            if (terrain == TerrainType.FIELDS && hasNoTagConnectedTo(direction)) {
-                results.add(new FieldsPattern(this, direction, grid));
-            }
-        }
-        // then check for monastery patterns:
-        addPatternIfMonastery(this, results); // the tile itself
-        grid.getNeighbors(this, false, GridDirection.neighbors()).forEach(it -> addPatternIfMonastery(it, results));
+        results.addAll(buildFieldAndMonasteryPatterns());
         return results; // return all patterns.
     }
 
+    /**
+     * Creates list of all field and monastery patterns that are affected by this spot. Castle and road patterns are not
+     * included. Starts a new pattern search, so the tags of earlier searches are outdated.
+     * @return the list of patterns.
+     */
+    public List<GridPattern> createFieldAndMonasteryPatterns() {
+        if (isFree()) {
+            throw new IllegalStateException("GridSpot is free, cannot create patterns");
+        }
+        grid.invalidateTags();
+        return buildFieldAndMonasteryPatterns();
+    }
+
     /**
      * Forces to place a tile on the grid spot.
      * @param tile is the tile to place.
@@ -102,14 +107,39 @@ public class GridSpot {
     }
 
     /**
-     * Method determines if tile recently was tagged by any grid pattern checks on a specific position or a position
-     * connected to the specific position.
+     * Notifies the grid that a meeple was placed on the tile of this spot, which keeps the patterns of the grid up to date.
+     * @param meeple is the placed meeple.
+     */
+    public void notifyMeeplePlacement(Meeple meeple) {
+        grid.registerMeeple(this, meeple);
+    }
+
+    /**
+     * Notifies the grid that a meeple on the tile of this spot was returned to its owner, or that the return was undone.
+     * @param meeple is the meeple.
+     */
+    public void notifyMeepleReturn(Meeple meeple) {
+        grid.updateMeeple(this, meeple);
+    }
+
+    /**
+     * Notifies the grid that the meeple that was placed last on the tile of this spot was removed again, which undoes
+     * {@link #notifyMeeplePlacement(Meeple)}.
+     * @param meeple is the removed meeple.
+     */
+    public void notifyMeepleRemoval(Meeple meeple) {
+        grid.unregisterMeeple(this, meeple);
+    }
+
+    /**
+     * Method determines if tile was tagged by any grid pattern of the current pattern search on a specific position or a
+     * position connected to the specific position.
      * @param tilePosition is the specific position.
      * @return true if not tagged.
      */
     public Boolean hasNoTagConnectedTo(GridDirection tilePosition) {
         for (GridDirection otherPosition : GridDirection.values()) {
-            if (tile.hasConnection(tilePosition, otherPosition) && containsKey(otherPosition)) {
+            if (tile.hasConnection(tilePosition, otherPosition) && isTagged(otherPosition)) {
                 return false;
             }
         }
@@ -117,15 +147,15 @@ public class GridSpot {
     }
 
     /**
-     * Method determines if tile recently was tagged by a specific grid pattern on a specific position or a position
-     * connected to the specific position.
+     * Method determines if tile was tagged by a specific grid pattern on a specific position or a position connected to the
+     * specific position.
      * @param tilePosition is the specific position.
      * @param taggedBy is the {@link GridPattern} that tagged this spot.
      * @return true if tagged.
      */
     public Boolean hasTagConnectedTo(GridDirection tilePosition, GridPattern taggedBy) {
         for (GridDirection otherPosition : GridDirection.values()) {
-            if (tile.hasConnection(tilePosition, otherPosition) && tagMap.get(otherPosition).contains(taggedBy)) {
+            if (tile.hasConnection(tilePosition, otherPosition) && isTaggedBy(otherPosition, taggedBy)) {
                 return true;
             }
         }
@@ -148,30 +178,6 @@ public class GridSpot {
         return tile != null;
     }
 
-    /**
-     * Method determines if tile recently was tagged by grid pattern checks on a specific position or not.
-     * @param tilePosition is the specific position.
-     * @return true if it was not tagged.
-     */
-    public Boolean isUntagged(GridDirection tilePosition) {
-        return !containsKey(tilePosition);
-    }
-
-    /**
-     * Removes all the tags from the tile.
-     */
-    public void removeTags() {
-        tagMap.values().forEach(it -> it.clear());
-    }
-
-    /**
-     * Removes all the tags of a specific pattern from the tile.
-     * @param pattern is the specific grid pattern.
-     */
-    public void removeTagsFrom(GridPattern pattern) {
-        tagMap.values().forEach(it -> it.remove(pattern));
-    }
-
     /**
      * Set tile on grid spot if possible.
      * @param tile is the tile to set.
@@ -187,12 +193,17 @@ public class GridSpot {
     }
 
     /**
-     * tag the tile as recently checked by grid pattern checks for a specific direction.
+     * tag the tile as checked by grid pattern checks for a specific direction. The tag only stores the tag epoch of the
+     * pattern, so it replaces any earlier tag on the direction and is outdated when the next pattern search starts. Hidden
+     * tags are stored separately and do not replace visible tags.
      * @param direction is the tag direction.
      * @param taggedBy is the {@link GridPattern} that tagged the spot.
      */
     public void setTag(GridDirection direction, GridPattern taggedBy) {
-        tagMap.get(direction).add(taggedBy);
+        if (tags == null) {
+            tags = new int[POSITIONS * 2];
+        }
+        tags[tagIndex(direction, taggedBy)] = taggedBy.getTagEpoch();
     }
 
     @Override
@@ -200,14 +211,112 @@ public class GridSpot {
         return getClass().getSimpleName() + "[on: (" + x + "|" + y + "), Occupied:" + isOccupied() + "]";
     }
 
+    /**
+     * Removes the tile from the grid spot, which undoes {@link #set(Tile)}.
+     * @return the removed tile.
+     */
+    Tile remove() {
+        Tile removedTile = tile;
+        removedTile.removePosition();
+        tile = null;
+        tags = null; // a tile placed later on this spot starts without tags
+        return removedTile;
+    }
+
+    /**
+     * Removes all tags from the tile, which is only needed when the tag epochs of the grid start over.
+     */
+    void clearTags() {
+        tags = null;
+    }
+
+    /**
+     * Returns the cluster of placed tiles this spot belongs to.
+     * @return the cluster or {@link TileClusters#NONE} if the spot is free.
+     */
+    int getCluster() {
+        return cluster;
+    }
+
+    /**
+     * Sets the cluster of placed tiles this spot belongs to.
+     * @param cluster is the cluster.
+     */
+    void setCluster(int cluster) {
+        this.cluster = cluster;
+    }
+
+    /**
+     * Returns the field segment of the tile on a specific position.
+     * @param position is the specific position.
+     * @return the segment or {@link CastleAndRoadSegments#NONE} if there is none.
+     */
+    int getFieldSegment(GridDirection position) {
+        if (fieldSegments == null) {
+            return CastleAndRoadSegments.NONE;
+        }
+        return fieldSegments[position.ordinal()];
+    }
+
+    /**
+     * Returns the castle or road segment of the tile on a specific position.
+     * @param position is the specific position.
+     * @return the segment or {@link CastleAndRoadSegments#NONE} if there is none.
+     */
+    int getSegment(GridDirection position) {
+        if (segments == null) {
+            return CastleAndRoadSegments.NONE;
+        }
+        return segments[position.ordinal()];
+    }
+
+    /**
+     * Sets the castle and road segments of the tile, indexed by the ordinal of the tile position.
+     * @param segments are the segments.
+     */
+    void setSegments(int[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Sets the field segments of the tile, indexed by the ordinal of the tile position.
+     * @param fieldSegments are the field segments.
+     */
+    void setFieldSegments(int[] fieldSegments) {
+        this.fieldSegments = fieldSegments;
+    }
+
+    private List<GridPattern> buildFieldAndMonasteryPatterns() {
+        List<GridPattern> results = new LinkedList<>();
+        // check fields:
+        for (GridDirection direction : GridDirection.values()) {
+            TerrainType terrain = tile.getTerrain(direction); // get terrain type.
+            if (terrain == TerrainType.FIELDS && hasNoTagConnectedTo(direction)) {
+                results.add(new FieldsPattern(this, direction, grid));
+            }
+        }
+        // then check for monastery patterns:
+        addPatternIfMonastery(this, results); // the tile itself
+        grid.getNeighbors(this, false, GridDirection.neighbors()).forEach(it -> addPatternIfMonastery(it, results));
+        return results; // return all patterns.
+    }
+
     private void addPatternIfMonastery(GridSpot spot, List<GridPattern> patternList) {
         if (spot.getTile().getTerrain(CENTER) == TerrainType.MONASTERY && spot.hasNoTagConnectedTo(CENTER)) {
             patternList.add(new MonasteryGridPattern(spot, grid));
         }
     }
 
-    private boolean containsKey(GridDirection direction) {
-        return !tagMap.get(direction).isEmpty();
+    private boolean isTagged(GridDirection position) {
+        return tags != null && grid.isValidTagEpoch(tags[position.ordinal()]);
+    }
+
+    private boolean isTaggedBy(GridDirection position, GridPattern pattern) {
+        return tags != null && pattern.getTagEpoch() != 0 && tags[tagIndex(position, pattern)] == pattern.getTagEpoch(); // epochs are unique
+    }
+
+    private int tagIndex(GridDirection position, GridPattern pattern) {
+        return pattern.getTagEpoch() < 0 ? POSITIONS + position.ordinal() : position.ordinal(); // hidden tags have negative epochs
     }
 
     private boolean isPlaceable(Tile tile) {
@@ -217,17 +326,16 @@ public class GridSpot {
         int neighborCount = 0;
         for (GridDirection direction : GridDirection.directNeighbors()) { // for every direction
             GridSpot neighbor = grid.getNeighbor(this, direction);
-            if (neighbor == null) { // free space
-                if (grid.isClosingFreeSpotsOff(this, direction)) {
-                    return false; // you can't close off free spaces
-                }
-            } else { // if there is a neighbor in the direction.
+            if (neighbor != null) { // if there is a neighbor in the direction.
                 neighborCount++;
                 if (!tile.canConnectTo(direction, neighbor.getTile())) {
                     return false; // if it does not fit to terrain, it can't be placed.
                 }
             }
         }
+        if (grid.isClosingFreeSpotsOff(this)) {
+            return false; // you can't close off free spaces
+        }
         return neighborCount > 0; // can be placed beneath another tile.
     }
 }
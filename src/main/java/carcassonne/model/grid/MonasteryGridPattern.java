@@ -24,6 +24,7 @@ public class MonasteryGridPattern extends GridPattern {
         if (spot.getTile().getTerrain(CENTER) != MONASTERY) {
             throw new IllegalArgumentException("Can't create monastery pattern from non monastery tile");
         }
+        tagEpoch = grid.nextTagEpoch(false);
         buildPattern(spot, grid);
     }
 
@@ -0,0 +1,269 @@
+package carcassonne.model.grid;
+
+import static carcassonne.model.grid.GridDirection.CENTER;
+import static carcassonne.model.terrain.TerrainType.CASTLE;
+import static carcassonne.model.terrain.TerrainType.FIELDS;
+import static carcassonne.model.terrain.TerrainType.MONASTERY;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import carcassonne.model.Meeple;
+import carcassonne.model.tile.Tile;
+
+/**
+ * Finds all patterns of a grid in a single pass by labeling connected components, which is used for the final scoring.
+ * Castles and roads are already labeled by the {@link CastleAndRoadSegments}. Fields are labeled with a union-find over
+ * the positions of all placed tiles, which links every field position to the connected positions on its tile and to the
+ * touching positions on the neighboring tiles. Every pattern is thus found exactly once, and the fields are scored as
+ * independent components, in parallel on large grids.
+ * <p>
+ * The labeling gives the same points as traversing the grid row by row with {@link FieldsPattern}: Where a field corner
+ * touches a corner without fields on a neighboring tile, the traversal enters that corner and counts its adjacent castles.
+ * Only the field that is traversed first can enter it, so the corner is assigned to the first field in row order.
+ * @author Timur Saglam
+ */
+class PatternLabeling {
+    private static final int NONE = -1;
+    private static final int PARALLEL_THRESHOLD = 2048; // placed tiles, smaller grids are not worth the thread overhead
+    private static final int POSITIONS = GridDirection.values().length;
+    private final Grid grid;
+    private final CastleAndRoadSegments segments;
+    private final GridSpot[] spots; // row by row
+    private final Map<GridSpot, Integer> indices;
+    private final int[] parents; // union-find over the positions of all spots, see node(int, GridDirection)
+    private final int[] components; // field component of every position, or NONE
+    private final Map<Integer, Integer> claimedCorners; // positions without fields that were entered, mapped to the field
+    private int componentCount;
+
+    /**
+     * Creates the labeling for the current state of a grid.
+     * @param grid is the grid.
+     * @param placedSpots are the spots of the grid with placed tiles.
+     * @param segments are the castle and road segments of the grid.
+     */
+    PatternLabeling(Grid grid, Collection<GridSpot> placedSpots, CastleAndRoadSegments segments) {
+        this.grid = grid;
+        this.segments = segments;
+        spots = placedSpots.toArray(new GridSpot[0]);
+        Arrays.sort(spots, Comparator.comparingInt(GridSpot::getY).thenComparingInt(GridSpot::getX)); // row by row
+        indices = new HashMap<>();
+        for (int index = 0; index < spots.length; index++) {
+            indices.put(spots[index], index);
+        }
+        parents = new int[spots.length * POSITIONS];
+        components = new int[spots.length * POSITIONS];
+        claimedCorners = new HashMap<>();
+    }
+
+    /**
+     * Creates all patterns of the grid, which are the castle and road patterns, the field patterns and the monastery
+     * patterns.
+     * @return the list of patterns.
+     */
+    List<GridPattern> createPatterns() {
+        List<GridPattern> patterns = segments.createAllPatterns();
+        patterns.addAll(createFieldPatterns());
+        patterns.addAll(createMonasteryPatterns());
+        return patterns;
+    }
+
+    private void addAdjacentCastles(GridSpot spot, GridDirection position, Set<Integer> castles) {
+        for (GridDirection neighbor : FieldsPattern.getAdjacentPositions(position)) {
+            int segment = spot.getSegment(neighbor);
+            if (spot.getTile().getTerrain(neighbor) == CASTLE && segment != CastleAndRoadSegments.NONE && segments.isComplete(segment)) {
+                castles.add(segments.find(segment));
+            }
+        }
+    }
+
+    /**
+     * Assigns the entered corners without fields to the first field that touches them.
+     */
+    private void claimCorners(List<int[]> touchedCorners) {
+        for (int[] touch : touchedCorners) {
+            claimedCorners.merge(touch[1], components[touch[0]], Math::min);
+        }
+    }
+
+    private FieldComponentPattern createFieldPattern(int component, int[] offsets, int[] nodes, Map<Integer, List<Integer>> corners,
+            Map<Integer, List<Meeple>> meeples) {
+        Set<Integer> castles = new HashSet<>();
+        for (int index = offsets[component]; index < offsets[component + 1]; index++) {
+            addAdjacentCastles(spots[nodes[index] / POSITIONS], position(nodes[index]), castles);
+        }
+        for (int node : corners.getOrDefault(component, List.of())) {
+            GridSpot spot = spots[node / POSITIONS];
+            for (GridDirection position : FieldsPattern.getFieldPositions(spot.getTile(), position(node))) {
+                addAdjacentCastles(spot, position, castles);
+            }
+        }
+        return new FieldComponentPattern(castles.size(), meeples.getOrDefault(component, List.of()));
+    }
+
+    private List<FieldComponentPattern> createFieldPatterns() {
+        List<int[]> touchedCorners = new ArrayList<>();
+        for (int node = 0; node < parents.length; node++) {
+            parents[node] = node;
+        }
+        for (int index = 0; index < spots.length; index++) {
+            linkFields(index, touchedCorners);
+        }
+        labelFields();
+        claimCorners(touchedCorners);
+        int[] offsets = new int[componentCount + 1]; // nodes of the components, grouped by component
+        for (int component : components) {
+            if (component != NONE) {
+                offsets[component + 1]++;
+            }
+        }
+        for (int component = 0; component < componentCount; component++) {
+            offsets[component + 1] += offsets[component];
+        }
+        int[] nodes = new int[offsets[componentCount]];
+        int[] nextNode = Arrays.copyOf(offsets, componentCount);
+        for (int node = 0; node < components.length; node++) {
+            if (components[node] != NONE) {
+                nodes[nextNode[components[node]]++] = node;
+            }
+        }
+        Map<Integer, List<Integer>> corners = new HashMap<>();
+        claimedCorners.forEach((node, component) -> corners.computeIfAbsent(component, it -> new ArrayList<>()).add(node));
+        Map<Integer, List<Meeple>> meeples = findFieldMeeples();
+        IntStream componentStream = IntStream.range(0, componentCount);
+        if (spots.length >= PARALLEL_THRESHOLD) {
+            componentStream = componentStream.parallel(); // components are independent, the grid is only read
+        }
+        return componentStream.mapToObj(it -> createFieldPattern(it, offsets, nodes, corners, meeples)).collect(toList());
+    }
+
+    private List<GridPattern> createMonasteryPatterns() {
+        List<GridPattern> patterns = new LinkedList<>();
+        for (GridSpot spot : spots) {
+            if (spot.getTile().getTerrain(CENTER) == MONASTERY) {
+                patterns.add(new MonasteryGridPattern(spot, grid));
+            }
+        }
+        return patterns;
+    }
+
+    private int find(int node) {
+        int current = node;
+        while (parents[current] != current) {
+            parents[current] = parents[parents[current]]; // path halving
+            current = parents[current];
+        }
+        return current;
+    }
+
+    /**
+     * Finds the meeples on fields. Like during the traversal, the meeple of a tile is considered even if it was returned,
+     * which never happens for meeples on fields.
+     */
+    private Map<Integer, List<Meeple>> findFieldMeeples() {
+        Map<Integer, List<Meeple>> meeples = new HashMap<>();
+        for (int index = 0; index < spots.length; index++) {
+            Tile tile = spots[index].getTile();
+            if (tile.hasMeeple() && tile.getTerrain(tile.getMeeple().getPosition()) == FIELDS) {
+                int component = components[node(index, tile.getMeeple().getPosition())];
+                meeples.computeIfAbsent(component, it -> new ArrayList<>()).add(tile.getMeeple());
+            }
+        }
+        return meeples;
+    }
+
+    /**
+     * Labels the field components in row order of their first position, which is the order in which they are found when
+     * traversing the grid row by row.
+     */
+    private void labelFields() {
+        int[] labels = new int[parents.length];
+        Arrays.fill(labels, NONE);
+        Arrays.fill(components, NONE);
+        for (int index = 0; index < spots.length; index++) {
+            for (GridDirection position : GridDirection.values()) {
+                if (spots[index].getTile().getTerrain(position) == FIELDS) {
+                    int root = find(node(index, position));
+                    if (labels[root] == NONE) {
+                        labels[root] = componentCount++;
+                    }
+                    components[node(index, position)] = labels[root];
+                }
+            }
+        }
+    }
+
+    /**
+     * Links the field positions of a spot with the connected positions on the tile and the touching positions of the
+     * neighbors. Touched corners without fields are collected as pairs of field position and representative corner, since
+     * they do not link back.
+     */
+    private void linkFields(int index, List<int[]> touchedCorners) {
+        GridSpot spot = spots[index];
+        Tile tile = spot.getTile();
+        for (GridDirection position : GridDirection.values()) {
+            if (tile.getTerrain(position) == FIELDS) {
+                for (GridDirection other : GridDirection.values()) {
+                    if (other.ordinal() < position.ordinal() && tile.hasConnection(position, other)) {
+                        union(node(index, position), node(index, other));
+                    }
+                }
+                for (GridDirection direction : FieldsPattern.getFieldConnections(position, tile)) {
+                    GridSpot neighbor = grid.getPlacedSpot(spot.getX() + direction.getX(), spot.getY() + direction.getY());
+                    if (neighbor != null) {
+                        linkNeighbor(node(index, position), indices.get(neighbor), FieldsPattern.getFieldOpposite(position, direction),
+                                touchedCorners);
+                    }
+                }
+            }
+        }
+    }
+
+    private void linkNeighbor(int node, int neighborIndex, GridDirection opposite, List<int[]> touchedCorners) {
+        Tile neighborTile = spots[neighborIndex].getTile();
+        if (neighborTile.getTerrain(opposite) == FIELDS) {
+            union(node, node(neighborIndex, opposite));
+        } else {
+            touchedCorners.add(new int[] { node, node(neighborIndex, representative(neighborTile, opposite)) });
+        }
+    }
+
+    private int node(int spotIndex, GridDirection position) {
+        return spotIndex * POSITIONS + position.ordinal();
+    }
+
+    private GridDirection position(int node) {
+        return GridDirection.values()[node % POSITIONS];
+    }
+
+    /**
+     * Returns the first position on a tile that is connected to a specific position, which represents all of them.
+     */
+    private GridDirection representative(Tile tile, GridDirection position) {
+        for (GridDirection other : GridDirection.values()) {
+            if (tile.hasConnection(position, other)) {
+                return other;
+            }
+        }
+        return position;
+    }
+
+    private void union(int first, int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot != secondRoot) {
+            parents[Math.max(firstRoot, secondRoot)] = Math.min(firstRoot, secondRoot);
+        }
+    }
+}
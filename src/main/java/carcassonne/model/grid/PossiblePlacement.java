@@ -0,0 +1,44 @@
+package carcassonne.model.grid;
+
+import carcassonne.model.tile.TileRotation;
+
+/**
+ * A legal placement of a tile, which consists of a free spot on the grid and the rotation the tile needs to have to be
+ * placed there.
+ * @author Timur Saglam
+ */
+public class PossiblePlacement {
+    private final GridSpot spot;
+    private final TileRotation rotation;
+
+    /**
+     * Creates the placement.
+     * @param spot is the free spot on the grid.
+     * @param rotation is the required rotation of the tile.
+     */
+    PossiblePlacement(GridSpot spot, TileRotation rotation) {
+        this.spot = spot;
+        this.rotation = rotation;
+    }
+
+    /**
+     * Getter for the free spot where the tile can be placed.
+     * @return the grid spot.
+     */
+    public GridSpot getSpot() {
+        return spot;
+    }
+
+    /**
+     * Getter for the rotation the tile needs to have to be placed on the spot.
+     * @return the tile rotation.
+     */
+    public TileRotation getRotation() {
+        return rotation;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[on: (" + spot.getX() + "|" + spot.getY() + "), rotation: " + rotation + "]";
+    }
+}
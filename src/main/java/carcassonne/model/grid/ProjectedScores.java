@@ -0,0 +1,62 @@
+package carcassonne.model.grid;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import carcassonne.model.Meeple;
+import carcassonne.model.Player;
+
+/**
+ * Projected points of the players for the incomplete patterns of a grid, which are the points the players would get from
+ * the final scoring if the game ended now. The incrementally maintained patterns replace their projected points whenever
+ * they change, so the projected points of every player are up to date without scoring the whole grid.
+ * @author Timur Saglam
+ */
+class ProjectedScores {
+    private final Map<Player, Integer> points;
+
+    /**
+     * Creates the projected scores without any points.
+     */
+    ProjectedScores() {
+        points = new HashMap<>();
+    }
+
+    /**
+     * Returns the projected points of a player for all incomplete patterns.
+     * @param player is the player.
+     * @return the projected points, not including the score of the player.
+     */
+    int getPoints(Player player) {
+        return points.getOrDefault(player, 0);
+    }
+
+    /**
+     * Replaces the projected points of a pattern. Like the final scoring, the players with the most placed meeples on the
+     * pattern get the value of the pattern, divided by the number of involved players.
+     * @param previous are the previous projected points of the pattern, as returned by the last replacement.
+     * @param meeples are the meeples of the pattern, of which only the placed meeples are considered.
+     * @param value is the value of the pattern, which is zero for complete patterns.
+     * @return the new projected points of the pattern, which need to be passed to the next replacement.
+     */
+    Map<Player, Integer> replace(Map<Player, Integer> previous, Collection<Meeple> meeples, int value) {
+        previous.forEach((player, amount) -> points.merge(player, -amount, Integer::sum));
+        Map<Player, Integer> meepleCounts = new HashMap<>();
+        if (value > 0) {
+            meeples.stream().filter(Meeple::isPlaced).forEach(it -> meepleCounts.merge(it.getOwner(), 1, Integer::sum));
+        }
+        if (meepleCounts.isEmpty()) {
+            return Map.of();
+        }
+        int maximum = meepleCounts.values().stream().mapToInt(Integer::intValue).max().getAsInt();
+        Map<Player, Integer> projection = new HashMap<>();
+        for (Player player : meepleCounts.keySet()) {
+            if (meepleCounts.get(player) == maximum) { // dominant players split the pot
+                projection.put(player, value / meepleCounts.size());
+                points.merge(player, value / meepleCounts.size(), Integer::sum);
+            }
+        }
+        return projection;
+    }
+}
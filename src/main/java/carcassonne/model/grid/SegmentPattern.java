@@ -0,0 +1,48 @@
+package carcassonne.model.grid;
+
+import java.util.List;
+
+import carcassonne.model.Meeple;
+import carcassonne.model.terrain.TerrainType;
+
+/**
+ * Grid pattern for a castle or road that is created from the incrementally maintained {@link CastleAndRoadSegments}
+ * instead of traversing the grid. It thus knows its size and emblems, but not the spots it consists of.
+ * @author Timur Saglam
+ */
+public class SegmentPattern extends GridPattern {
+    private final int size;
+    private final int emblems;
+
+    /**
+     * Creates the pattern from the information of a set of segments.
+     * @param patternType is the type of the pattern, either castle or road.
+     * @param size is the number of segments in the pattern.
+     * @param emblems is the number of emblems in the pattern.
+     * @param complete specifies whether the pattern is complete.
+     * @param meeples are the meeples placed on the pattern.
+     */
+    SegmentPattern(TerrainType patternType, int size, int emblems, boolean complete, List<Meeple> meeples) {
+        super(patternType, (patternType == TerrainType.CASTLE) ? 2 : 1);
+        this.size = size;
+        this.emblems = emblems;
+        this.complete = complete;
+        meeples.forEach(it -> addMeeple(it));
+    }
+
+    @Override
+    public void forceDisburse() {
+        scoreMultiplier = 1; // reduce score multiplier
+        super.forceDisburse();
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    protected int countEmblems() {
+        return emblems;
+    }
+}
@@ -0,0 +1,187 @@
+package carcassonne.model.grid;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import carcassonne.model.terrain.RotationDirection;
+
+/**
+ * Incrementally maintained clusters of placed tiles, where tiles that touch each other on a side or on a corner belong to
+ * the same disjoint set (union-find). The clusters are used to detect whether placing a tile would close off free spots:
+ * Free spots are connected through their sides, while tiles block them even if they only touch on a corner. A free spot
+ * can therefore only be closed off if a placed tile connects a cluster to itself, which means the ring of eight
+ * neighbors of the placed tile touches the same cluster on both sides of a free neighbor. Because enclosing placements
+ * are never allowed, every free spot is connected to the border of the grid before the placement, which makes this
+ * local check exact. The merges of every placement are recorded, so the last placement can be undone.
+ * @author Timur Saglam
+ */
+class TileClusters {
+    /**
+     * Marks spots that are not part of any cluster.
+     */
+    static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final List<GridDirection> RING = ring();
+    private int[] parents;
+    private int[] sizes;
+    private int clusterCount;
+    private final Deque<int[]> merges; // merged clusters of every placement, last placement first
+
+    /**
+     * Creates an empty cluster structure.
+     */
+    TileClusters() {
+        parents = new int[INITIAL_CAPACITY];
+        sizes = new int[INITIAL_CAPACITY];
+        merges = new ArrayDeque<>();
+    }
+
+    /**
+     * Adds the spot of a newly placed tile and merges it with the clusters of all its neighboring tiles.
+     * @param spot is the spot of the placed tile.
+     * @param grid is the grid of the spot.
+     */
+    void add(GridSpot spot, Grid grid) {
+        int cluster = createCluster();
+        spot.setCluster(cluster);
+        int[] merged = new int[RING.size()];
+        int mergeCount = 0;
+        for (GridDirection direction : RING) {
+            int neighbor = clusterAt(spot.getX() + direction.getX(), spot.getY() + direction.getY(), grid);
+            if (neighbor != NONE) {
+                int other = union(cluster, neighbor);
+                if (other != NONE) {
+                    merged[mergeCount++] = other;
+                }
+            }
+        }
+        merges.push(Arrays.copyOf(merged, mergeCount));
+    }
+
+    /**
+     * Removes the spot of the tile that was placed last, which undoes {@link #add(GridSpot, Grid)}. The merges of the
+     * placement are split in reverse order.
+     * @param spot is the spot of the tile that was placed last.
+     */
+    void remove(GridSpot spot) {
+        int[] merged = merges.pop();
+        for (int index = merged.length - 1; index >= 0; index--) {
+            int other = merged[index];
+            sizes[parents[other]] -= sizes[other];
+            parents[other] = other;
+        }
+        clusterCount--;
+        spot.setCluster(NONE);
+    }
+
+    /**
+     * Checks whether placing a tile on a free spot would close off free spots from the border of the grid. The free
+     * neighbors that are connected with each other around the spot form groups, and the tiles between two such groups
+     * form an arc. The placement closes off free spots if two arcs belong to the same cluster.
+     * @param spot is the free spot.
+     * @param grid is the grid of the spot.
+     * @return true if the placement would close off free spots.
+     */
+    boolean isClosingFreeSpotsOff(GridSpot spot, Grid grid) {
+        int[] ring = new int[RING.size()];
+        int start = NONE;
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = clusterAt(spot.getX() + RING.get(i).getX(), spot.getY() + RING.get(i).getY(), grid);
+            if (ring[i] != NONE && start == NONE) {
+                start = i;
+            }
+        }
+        if (start == NONE) {
+            return false; // no neighboring tiles
+        }
+        List<Integer> arcs = new ArrayList<>();
+        int arc = find(ring[start]);
+        boolean inGroup = false;
+        boolean hasSideNeighbor = false; // only groups with a free direct neighbor can be closed off
+        for (int step = 1; step <= ring.length; step++) {
+            int index = (start + step) % ring.length;
+            if (ring[index] == NONE) {
+                inGroup = true;
+                hasSideNeighbor |= index % 2 == 0;
+            } else {
+                if (inGroup && hasSideNeighbor) {
+                    if (arcs.contains(arc)) {
+                        return true; // cluster would be connected to itself
+                    }
+                    arcs.add(arc);
+                    arc = find(ring[index]);
+                }
+                inGroup = false;
+                hasSideNeighbor = false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the cluster of the tile on specific coordinates, or {@link #NONE} if there is no tile.
+     */
+    private int clusterAt(int x, int y, Grid grid) {
+        GridSpot spot = grid.getPlacedSpot(x, y);
+        return spot == null ? NONE : spot.getCluster();
+    }
+
+    private int createCluster() {
+        if (clusterCount == parents.length) {
+            parents = Arrays.copyOf(parents, parents.length * 2);
+            sizes = Arrays.copyOf(sizes, sizes.length * 2);
+        }
+        int cluster = clusterCount++;
+        parents[cluster] = cluster;
+        sizes[cluster] = 1;
+        return cluster;
+    }
+
+    /**
+     * Finds the root of a set. Union by size keeps the trees shallow, so no path compression is needed, which also keeps
+     * every merge reversible.
+     */
+    private int find(int cluster) {
+        int current = cluster;
+        while (parents[current] != current) {
+            current = parents[current];
+        }
+        return current;
+    }
+
+    /**
+     * Merges the sets of two clusters and returns the root that was attached to the other root, or {@link #NONE} if both
+     * clusters already were in the same set.
+     */
+    private int union(int first, int second) {
+        int root = find(first);
+        int other = find(second);
+        if (root == other) {
+            return NONE;
+        }
+        if (sizes[root] < sizes[other]) {
+            int temporary = root;
+            root = other;
+            other = temporary;
+        }
+        parents[other] = root;
+        sizes[root] += sizes[other];
+        return other;
+    }
+
+    /**
+     * Returns the eight neighbors in clockwise order, starting with north. Direct neighbors have even indices.
+     */
+    private static List<GridDirection> ring() {
+        List<GridDirection> ring = new ArrayList<>();
+        GridDirection direction = GridDirection.NORTH;
+        do {
+            ring.add(direction);
+            direction = direction.nextDirectionTo(RotationDirection.RIGHT);
+        } while (direction != GridDirection.NORTH);
+        return List.copyOf(ring);
+    }
+}
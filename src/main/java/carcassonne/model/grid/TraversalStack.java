@@ -0,0 +1,96 @@
+package carcassonne.model.grid;
+
+import java.util.Arrays;
+
+/**
+ * Explicit work stack for the traversals of the grid, which replaces recursion so that traversals of very large patterns
+ * cannot overflow the call stack. Every entry consists of a spot and an int value, e.g. the ordinal of a direction or an
+ * encoded position, which are stored in parallel arrays that grow on demand and are reused by every traversal. Nested
+ * traversals share the stack by only popping the entries above the size the stack had when they started.
+ * @author Timur Saglam
+ */
+final class TraversalStack {
+    private static final int INITIAL_CAPACITY = 64;
+    private GridSpot[] spots;
+    private int[] values;
+    private int size;
+
+    /**
+     * Creates an empty stack.
+     */
+    TraversalStack() {
+        spots = new GridSpot[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Getter for the spot of an entry.
+     * @param entry is the entry returned by {@link #pop()}.
+     * @return the spot, or null if the entry has no spot.
+     */
+    GridSpot getSpot(int entry) {
+        return spots[entry];
+    }
+
+    /**
+     * Getter for the value of an entry.
+     * @param entry is the entry returned by {@link #pop()}.
+     * @return the value.
+     */
+    int getValue(int entry) {
+        return values[entry];
+    }
+
+    /**
+     * Removes the top entry of the stack. The entry stays readable until the next push.
+     * @return the removed entry.
+     */
+    int pop() {
+        if (size == 0) {
+            throw new IllegalStateException("Cannot pop from an empty traversal stack!");
+        }
+        return --size;
+    }
+
+    /**
+     * Pushes a value without a spot on the stack.
+     * @param value is the value.
+     */
+    void push(int value) {
+        push(null, value);
+    }
+
+    /**
+     * Pushes a spot with a value on the stack.
+     * @param spot is the spot.
+     * @param value is the value.
+     */
+    void push(GridSpot spot, int value) {
+        if (size == spots.length) {
+            spots = Arrays.copyOf(spots, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        spots[size] = spot;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Removes all entries above a specific size, e.g. when a traversal ends early.
+     * @param size is the size of the stack afterwards.
+     */
+    void truncate(int size) {
+        if (size < 0 || size > this.size) {
+            throw new IllegalArgumentException("Cannot truncate the traversal stack of size " + this.size + " to " + size);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Getter for the amount of entries on the stack.
+     * @return the size.
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,53 @@
+package carcassonne.model.record;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileRotation;
+import carcassonne.model.tile.TileType;
+
+/**
+ * Constants of the binary game record format. A record consists of a header and a move stream. The header contains a
+ * magic number, the format version, the settings of the game, the tile distribution, the seed and the tile stack. A
+ * shuffled stack is stored as its seed and rebuilt from the seed and the settings, only a stack with a predetermined
+ * order is stored as the order in which the tiles are drawn. Each move of the stream starts with a code, which is
+ * either the end marker, the skip marker or the tile type of a placement. A placement continues with the coordinates
+ * and a combination of the meeple position and the rotation, so a placement usually takes four bytes. All numbers
+ * except the seed are written as unsigned variable-length integers with seven bits per byte.
+ * @author Timur Saglam
+ */
+final class GameRecordFormat {
+    static final int MAGIC = 0x43415243; // "CARC"
+    static final int VERSION = 2;
+    static final int END = 0;
+    static final int SKIP = 1;
+    static final int PLACEMENT = 2; // offset of the tile type in the code of a placement
+    static final int NO_TILE = 0; // tile type of a skip without a tile, other tile types are offset by one
+    static final int NO_MEEPLE = 0; // meeple position of a placement without a meeple, other positions are offset by one
+    static final int ROTATIONS = TileRotation.values().length;
+    static final int FORTIFYING_FLAG = 1; // meeple rules follow in the higher bits of the rule flags
+    static final int SEEDED_STACK = 0; // the seed of the stack follows
+    static final int ORDERED_STACK = 1; // the draw order of the stack follows, starting with the initial hands
+
+    private GameRecordFormat() {
+        // private constructor ensures non-instantiability!
+    }
+
+    /**
+     * Determines the order in which the tiles of a new game are drawn, which starts with the initial hands of the players.
+     * @param engine is the game engine of the new game.
+     * @return the tile types in draw order.
+     */
+    static List<TileType> stackOrder(GameEngine engine) {
+        List<TileType> order = new ArrayList<>();
+        for (int number = 0; number < engine.getRound().getPlayerCount(); number++) {
+            for (Tile tile : engine.getRound().getPlayer(number).getHandOfTiles()) {
+                order.add(tile.getType());
+            }
+        }
+        order.addAll(engine.getTileStack().getDrawOrder());
+        return order;
+    }
+}
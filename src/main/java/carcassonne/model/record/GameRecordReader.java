@@ -0,0 +1,243 @@
+package carcassonne.model.record;
+
+import static carcassonne.model.record.GameRecordFormat.END;
+import static carcassonne.model.record.GameRecordFormat.FORTIFYING_FLAG;
+import static carcassonne.model.record.GameRecordFormat.MAGIC;
+import static carcassonne.model.record.GameRecordFormat.NO_MEEPLE;
+import static carcassonne.model.record.GameRecordFormat.NO_TILE;
+import static carcassonne.model.record.GameRecordFormat.ORDERED_STACK;
+import static carcassonne.model.record.GameRecordFormat.PLACEMENT;
+import static carcassonne.model.record.GameRecordFormat.ROTATIONS;
+import static carcassonne.model.record.GameRecordFormat.SEEDED_STACK;
+import static carcassonne.model.record.GameRecordFormat.SKIP;
+import static carcassonne.model.record.GameRecordFormat.VERSION;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.GamePhase;
+import carcassonne.model.Move;
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.TileRotation;
+import carcassonne.model.tile.TileStack;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Streaming reader of the binary game record format. The header is read when the reader is opened, the moves are read
+ * one by one, so the reader never holds the game in memory. The stream is not buffered and not closed by the reader, so
+ * an archive with multiple records can be read by opening readers until the end of the stream is reached.
+ * @author Timur Saglam
+ * @see GameRecordWriter
+ */
+public class GameRecordReader {
+    private static final TileType[] TILE_TYPES = TileType.values();
+    private static final TileRotation[] ROTATION_VALUES = TileRotation.values();
+    private static final GridDirection[] POSITIONS = GridDirection.values();
+    private final DataInputStream input;
+    private final GameSettings settings;
+    private final int playerCount;
+    private final long seed;
+    private final boolean seededStack;
+    private final long stackSeed;
+    private List<TileType> stackOrder; // determined on demand for seeded stacks
+    private boolean finished;
+
+    private GameRecordReader(DataInputStream input, int firstByte) throws IOException {
+        this.input = input;
+        if ((firstByte << 24 | input.readUnsignedByte() << 16 | input.readUnsignedShort()) != MAGIC) {
+            throw new IOException("Stream does not contain a game record.");
+        }
+        int version = readNumber();
+        if (version != VERSION) {
+            throw new IOException("Unsupported game record version: " + version);
+        }
+        settings = new GameSettings();
+        playerCount = readNumber();
+        readSettings();
+        seed = input.readLong();
+        int stackType = readNumber();
+        if (stackType != SEEDED_STACK && stackType != ORDERED_STACK) {
+            throw new IOException("Invalid tile stack type in game record: " + stackType);
+        }
+        seededStack = stackType == SEEDED_STACK;
+        stackSeed = seededStack ? input.readLong() : 0;
+        if (!seededStack) {
+            int tileCount = readNumber();
+            stackOrder = new ArrayList<>(tileCount);
+            for (int i = 0; i < tileCount; i++) {
+                stackOrder.add(readTileType(readNumber()));
+            }
+        }
+    }
+
+    /**
+     * Opens the next record of a stream and reads its header.
+     * @param input is the stream to read from, which should be buffered.
+     * @return the reader of the record, or null if the stream ended before the record.
+     * @throws IOException if the stream can not be read or does not contain a valid record.
+     */
+    public static GameRecordReader open(InputStream input) throws IOException {
+        DataInputStream dataInput = new DataInputStream(input);
+        int firstByte = dataInput.read();
+        if (firstByte == -1) {
+            return null; // no more records
+        }
+        return new GameRecordReader(dataInput, firstByte);
+    }
+
+    /**
+     * Creates the game engine of the recorded game before the first move. A shuffled stack is rebuilt from its seed and
+     * the tile distribution of the settings.
+     * @return the new game engine.
+     */
+    public GameEngine createEngine() {
+        if (seededStack) {
+            TileStack stack = new TileStack(playerCount, settings.getTileDistribution(), settings.getStackSizeMultiplier(), stackSeed);
+            return new GameEngine(playerCount, stack, settings);
+        }
+        return new GameEngine(playerCount, new TileStack(stackOrder), settings);
+    }
+
+    /**
+     * Getter for the seed of the recorded game.
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Getter for the settings of the recorded game, which contain the rules, the grid size and the tile distribution.
+     * @return the game settings.
+     */
+    public GameSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Getter for the amount of players of the recorded game.
+     * @return the amount of players.
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Gives read access to the order in which the tiles of the recorded game are drawn, starting with the initial hands.
+     * The order of a shuffled stack is not recorded, it is determined from the rebuilt stack when it is first requested.
+     * @return the tile types in draw order.
+     */
+    public List<TileType> getStackOrder() {
+        if (stackOrder == null) {
+            stackOrder = GameRecordFormat.stackOrder(createEngine());
+        }
+        return Collections.unmodifiableList(stackOrder);
+    }
+
+    /**
+     * Reads the next move of the record.
+     * @return the move or null if the record has no more moves.
+     * @throws IOException if the stream can not be read or the move is invalid.
+     */
+    public Move readMove() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int code = readNumber();
+        if (code == END) {
+            finished = true;
+            return null;
+        } else if (code == SKIP) {
+            int tile = readNumber();
+            return Move.skip(tile == NO_TILE ? null : readTileType(tile - 1));
+        }
+        TileType type = readTileType(code - PLACEMENT);
+        int x = readNumber();
+        int y = readNumber();
+        int meepleAndRotation = readNumber();
+        int meeple = meepleAndRotation / ROTATIONS;
+        if (meeple > POSITIONS.length) {
+            throw new IOException("Invalid meeple position in game record: " + meeple);
+        }
+        GridDirection position = meeple == NO_MEEPLE ? null : POSITIONS[meeple - 1];
+        return Move.placement(type, ROTATION_VALUES[meepleAndRotation % ROTATIONS], x, y, position);
+    }
+
+    /**
+     * Reconstructs the recorded game by replaying the remaining moves of the record on a new game engine. The final
+     * scoring is not performed, even if the game is over.
+     * @return the game engine after the last move.
+     * @throws IOException if the stream can not be read or contains an illegal move.
+     */
+    public GameEngine replay() throws IOException {
+        GameEngine engine = createEngine();
+        engine.drawTile();
+        for (Move move = readMove(); move != null; move = readMove()) {
+            if (engine.getPhase() == GamePhase.OVER) {
+                throw new IOException("Game record contains moves after the end of the game: " + move);
+            }
+            try {
+                engine.make(move);
+            } catch (IllegalArgumentException exception) {
+                throw new IOException("Game record contains an illegal move: " + move, exception);
+            }
+        }
+        return engine;
+    }
+
+    private void readSettings() throws IOException {
+        settings.setAmountOfPlayers(playerCount);
+        settings.setGridWidth(readNumber());
+        settings.setGridHeight(readNumber());
+        settings.setGridSizeChanged(false);
+        settings.setTilesPerPlayer(readNumber());
+        settings.setStackSizeMultiplier(readNumber());
+        int rules = readNumber();
+        settings.setAllowFortifying((rules & FORTIFYING_FLAG) != 0);
+        List<TerrainType> terrain = TerrainType.basicTerrain();
+        for (int i = 0; i < terrain.size(); i++) {
+            if (settings.getMeepleRule(terrain.get(i)) != ((rules & 1 << (i + 1)) != 0)) {
+                settings.toggleMeepleRule(terrain.get(i));
+            }
+        }
+        int typeCount = readNumber();
+        for (int i = 0; i < typeCount; i++) {
+            int quantity = readNumber();
+            if (i < TILE_TYPES.length) {
+                settings.getTileDistribution().setQuantity(TILE_TYPES[i], quantity);
+            }
+        }
+    }
+
+    /**
+     * Reads a non-negative number with seven bits per byte, where the highest bit marks that more bytes follow.
+     */
+    private int readNumber() throws IOException {
+        int value = 0;
+        int shift = 0;
+        int next;
+        do {
+            if (shift >= Integer.SIZE) {
+                throw new IOException("Malformed number in game record.");
+            }
+            next = input.readUnsignedByte();
+            value |= (next & 0x7F) << shift;
+            shift += 7;
+        } while ((next & 0x80) != 0);
+        return value;
+    }
+
+    private TileType readTileType(int ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= TILE_TYPES.length) {
+            throw new IOException("Invalid tile type in game record: " + ordinal);
+        }
+        return TILE_TYPES[ordinal];
+    }
+}
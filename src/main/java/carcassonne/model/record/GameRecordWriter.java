@@ -0,0 +1,159 @@
+package carcassonne.model.record;
+
+import static carcassonne.model.record.GameRecordFormat.END;
+import static carcassonne.model.record.GameRecordFormat.FORTIFYING_FLAG;
+import static carcassonne.model.record.GameRecordFormat.MAGIC;
+import static carcassonne.model.record.GameRecordFormat.NO_MEEPLE;
+import static carcassonne.model.record.GameRecordFormat.NO_TILE;
+import static carcassonne.model.record.GameRecordFormat.ORDERED_STACK;
+import static carcassonne.model.record.GameRecordFormat.PLACEMENT;
+import static carcassonne.model.record.GameRecordFormat.ROTATIONS;
+import static carcassonne.model.record.GameRecordFormat.SEEDED_STACK;
+import static carcassonne.model.record.GameRecordFormat.SKIP;
+import static carcassonne.model.record.GameRecordFormat.VERSION;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.Move;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.TileStack;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Streaming writer of the binary game record format. The header is written when the writer is created, every move is
+ * written as soon as it is played, so the writer never holds the game in memory. The stream is not buffered and not
+ * closed by the writer, which allows to write multiple records into one archive stream.
+ * @author Timur Saglam
+ * @see GameRecordReader
+ */
+public class GameRecordWriter {
+    private final DataOutputStream output;
+    private boolean finished;
+
+    /**
+     * Creates a writer for a new game and writes the header of the record.
+     * @param output is the stream to write to, which should be buffered.
+     * @param engine is the game engine of the game, which must not have any moves yet.
+     * @param settings are the {@link GameSettings} of the game.
+     * @param seed is the seed of the game.
+     * @throws IOException if the header can not be written.
+     * @throws IllegalArgumentException if the game has already started.
+     */
+    public GameRecordWriter(OutputStream output, GameEngine engine, GameSettings settings, long seed) throws IOException {
+        if (!engine.getMoves().isEmpty() || engine.getState().getTileCount() != 1) {
+            throw new IllegalArgumentException("Only new games can be recorded.");
+        }
+        this.output = new DataOutputStream(output);
+        this.output.writeInt(MAGIC);
+        writeNumber(VERSION);
+        writeSettings(engine, settings);
+        this.output.writeLong(seed);
+        writeStack(engine);
+    }
+
+    /**
+     * Writes the end marker of the record and flushes the stream. The stream stays open.
+     * @throws IOException if the stream can not be written.
+     */
+    public void finish() throws IOException {
+        checkNotFinished();
+        writeNumber(END);
+        output.flush();
+        finished = true;
+    }
+
+    /**
+     * Writes a move of the game.
+     * @param move is the move, which needs to be played in the game after the previously written moves.
+     * @throws IOException if the move can not be written.
+     */
+    public void write(Move move) throws IOException {
+        checkNotFinished();
+        if (move.isSkip()) {
+            writeNumber(SKIP);
+            writeNumber(move.getTileType() == null ? NO_TILE : move.getTileType().ordinal() + 1);
+        } else {
+            writeNumber(PLACEMENT + move.getTileType().ordinal());
+            writeNumber(move.getX());
+            writeNumber(move.getY());
+            int meeple = move.hasMeeple() ? move.getMeeplePosition().ordinal() + 1 : NO_MEEPLE;
+            writeNumber(meeple * ROTATIONS + move.getRotation().ordinal());
+        }
+    }
+
+    /**
+     * Writes multiple moves of the game.
+     * @param moves are the moves in the order they were played.
+     * @throws IOException if the moves can not be written.
+     */
+    public void writeAll(List<Move> moves) throws IOException {
+        for (Move move : moves) {
+            write(move);
+        }
+    }
+
+    private void checkNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("The record was already finished.");
+        }
+    }
+
+    private void writeSettings(GameEngine engine, GameSettings settings) throws IOException {
+        writeNumber(engine.getRound().getPlayerCount());
+        writeNumber(engine.getGrid().getWidth());
+        writeNumber(engine.getGrid().getHeight());
+        writeNumber(settings.getTilesPerPlayer());
+        writeNumber(settings.getStackSizeMultiplier());
+        int rules = settings.isAllowingFortifying() ? FORTIFYING_FLAG : 0;
+        List<TerrainType> terrain = TerrainType.basicTerrain();
+        for (int i = 0; i < terrain.size(); i++) {
+            if (settings.getMeepleRule(terrain.get(i))) {
+                rules |= 1 << (i + 1);
+            }
+        }
+        writeNumber(rules);
+        writeNumber(TileType.values().length);
+        for (TileType type : TileType.values()) {
+            writeNumber(settings.getTileDistribution().getQuantity(type));
+        }
+    }
+
+    /**
+     * Writes the seed of a shuffled stack, which is rebuilt from the seed and the settings. Only a stack with a
+     * predetermined order is written as the order in which the tiles are drawn, starting with the initial hands.
+     */
+    private void writeStack(GameEngine engine) throws IOException {
+        TileStack stack = engine.getTileStack();
+        if (stack.isSeeded()) {
+            writeNumber(SEEDED_STACK);
+            output.writeLong(stack.getSeed());
+        } else {
+            List<TileType> order = GameRecordFormat.stackOrder(engine);
+            writeNumber(ORDERED_STACK);
+            writeNumber(order.size());
+            for (TileType type : order) {
+                writeNumber(type.ordinal());
+            }
+        }
+    }
+
+    /**
+     * Writes a non-negative number with seven bits per byte, where the highest bit marks that more bytes follow.
+     */
+    private void writeNumber(int value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Cannot record negative number: " + value);
+        }
+        int remaining = value;
+        while (remaining >= 0x80) {
+            output.write(remaining & 0x7F | 0x80);
+            remaining >>>= 7;
+        }
+        output.write(remaining);
+    }
+}
@@ -0,0 +1,131 @@
+package carcassonne.model.record;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.GameState;
+import carcassonne.model.Move;
+import carcassonne.model.grid.GridSpot;
+import carcassonne.model.tile.TileStack;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Replay of a recorded game, which allows to step through the game and to jump to any turn. While the record is loaded,
+ * a keyframe with the {@link GameState} is stored every few turns. Nearby turns are reached by playing and taking back
+ * moves, distant turns by restoring the closest keyframe before the turn and playing the remaining moves. Seeking a turn
+ * therefore costs at most one keyframe restore and a bounded number of moves, independent of the length of the game.
+ * @author Timur Saglam
+ */
+public class GameReplay {
+    private static final int KEYFRAME_INTERVAL = 16;
+    private final GameSettings settings;
+    private final List<TileType> stackOrder;
+    private final List<Move> moves;
+    private final List<GameState> keyframes;
+    private GameEngine engine;
+    private int turn;
+    private int engineStart; // turn at which the engine was created, moves before it can not be taken back
+
+    /**
+     * Creates the replay by reading the remaining moves of a record. Afterwards, the replay shows the last turn.
+     * @param reader is the reader of the record.
+     * @throws IOException if the record can not be read or contains an illegal move.
+     */
+    public GameReplay(GameRecordReader reader) throws IOException {
+        settings = reader.getSettings();
+        stackOrder = reader.getStackOrder();
+        moves = new ArrayList<>();
+        keyframes = new ArrayList<>();
+        engine = reader.createEngine();
+        engine.drawTile();
+        keyframes.add(engine.getState());
+        for (Move move = reader.readMove(); move != null; move = reader.readMove()) {
+            try {
+                engine.make(move);
+            } catch (IllegalArgumentException | IllegalStateException exception) {
+                throw new IOException("Game record contains an illegal move: " + move, exception);
+            }
+            moves.add(move);
+            if (moves.size() % KEYFRAME_INTERVAL == 0) {
+                keyframes.add(engine.getState());
+            }
+        }
+        turn = moves.size();
+    }
+
+    /**
+     * Getter for the game engine that shows the current turn. The engine changes when a keyframe is restored, so it needs
+     * to be requested again after seeking.
+     * @return the game engine.
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Getter for the settings of the replayed game.
+     * @return the game settings.
+     */
+    public GameSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Getter for the current turn, which is the number of moves that were played.
+     * @return the current turn.
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Getter for the number of turns of the game, which is the number of moves that were played in total.
+     * @return the number of turns.
+     */
+    public int getTurnCount() {
+        return moves.size();
+    }
+
+    /**
+     * Jumps to a specific turn of the game.
+     * @param targetTurn is the turn, between zero for the start of the game and {@link #getTurnCount()} for its end.
+     * @return the spots of the grid of the current engine whose tile or meeple changed.
+     */
+    public List<GridSpot> seek(int targetTurn) {
+        if (targetTurn < 0 || targetTurn > moves.size()) {
+            throw new IllegalArgumentException("Turn " + targetTurn + " is not between 0 and " + moves.size());
+        }
+        GameState previousState = engine.getState();
+        if (Math.abs(targetTurn - turn) >= KEYFRAME_INTERVAL || targetTurn < engineStart) {
+            restoreKeyframe(targetTurn / KEYFRAME_INTERVAL);
+        }
+        while (turn > targetTurn) {
+            engine.unmake();
+            turn--;
+        }
+        while (turn < targetTurn) {
+            engine.make(moves.get(turn));
+            turn++;
+        }
+        List<GridSpot> changedSpots = new ArrayList<>();
+        for (int[] coordinates : engine.getState().getChangedSpots(previousState)) {
+            changedSpots.add(engine.getGrid().getSpot(coordinates[0], coordinates[1]));
+        }
+        return changedSpots;
+    }
+
+    /**
+     * Restores the game engine from a keyframe. The tiles that remain on the stack are the last tiles of the draw order.
+     */
+    private void restoreKeyframe(int index) {
+        GameState keyframe = keyframes.get(index);
+        int remainingTiles = keyframe.getStackSize() - keyframe.getReturnedTiles().size();
+        List<TileType> remainingOrder = stackOrder.subList(stackOrder.size() - remainingTiles, stackOrder.size());
+        engine = new GameEngine(keyframe, new TileStack(remainingOrder, keyframe.getReturnedTiles()), settings);
+        turn = index * KEYFRAME_INTERVAL;
+        engineStart = turn;
+    }
+}
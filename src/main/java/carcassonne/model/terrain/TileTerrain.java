@@ -1,19 +1,12 @@
 package carcassonne.model.terrain;
 
 import static carcassonne.model.grid.GridDirection.CENTER;
-import static carcassonne.model.grid.GridDirection.EAST;
-import static carcassonne.model.grid.GridDirection.NORTH;
-import static carcassonne.model.grid.GridDirection.NORTH_EAST;
-import static carcassonne.model.grid.GridDirection.NORTH_WEST;
-import static carcassonne.model.grid.GridDirection.SOUTH;
-import static carcassonne.model.grid.GridDirection.SOUTH_EAST;
-import static carcassonne.model.grid.GridDirection.SOUTH_WEST;
-import static carcassonne.model.grid.GridDirection.WEST;
 import static java.util.stream.Collectors.toList;
 
 import java.awt.Point;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -22,28 +15,37 @@ import java.util.Set;
 import java.util.stream.Stream;
 
 import carcassonne.model.grid.GridDirection;
+import carcassonne.model.tile.TileRotation;
 import carcassonne.model.tile.TileType;
 
 /**
- * Represents the terrain information of a single tile. It consists out of nine different terrain types, one for each
- * grid direction. Every other property, such as the meeple spots and connections between positions, is computed from
- * that information.
+ * Represents the terrain information of a single tile in a specific rotation. It consists out of nine different terrain
+ * types, one for each grid direction. Every other property, such as the meeple spots and connections between positions,
+ * is computed from that information once on creation, as the terrain is immutable.
  * @author Timur Saglam
  */
 public class TileTerrain {
+    private final int[] connectivity; // bitmask of connected directions per direction
     private Set<GridDirection> meepleSpots;
     private final Map<GridDirection, TerrainType> terrain;
 
     /**
      * Creates a terrain instance with nine terrain types.
      * @param type is the tile type of the terrain.
+     * @param rotation is the rotation of the terrain.
      */
-    public TileTerrain(TileType type) {
-        terrain = new HashMap<>();
+    public TileTerrain(TileType type, TileRotation rotation) {
+        terrain = new EnumMap<>(GridDirection.class);
         for (int i = 0; i < GridDirection.values().length; i++) {
             terrain.put(GridDirection.values()[i], type.getTerrain()[i]);
         }
+        for (int i = 0; i < rotation.ordinal(); i++) {
+            rotate(GridDirection.directNeighbors());
+            rotate(GridDirection.indirectNeighbors());
+        }
+        connectivity = computeConnectivity();
         createMeepleSpots();
+        meepleSpots = Collections.unmodifiableSet(meepleSpots);
     }
 
     /**
@@ -73,30 +75,37 @@ public class TileTerrain {
      * @return true if connected, false if not.
      */
     public final boolean isConnected(GridDirection from, GridDirection towards) {
-        if (isDirectConnected(from, towards)) {
-            return true; // directly connected through the middle of the tile
-        } else if (from != CENTER && towards != CENTER && isIndirectConnected(from, towards)) {
-            return true; // is not from or to middle but indirectly connected (counter)clockwise
-        } else if (terrain.get(from) == TerrainType.FIELDS && terrain.get(towards) == TerrainType.FIELDS) {
-            return isImplicitlyConnected(from, towards); // is connected through implicit terrain information
-        }
-        return false;
+        return (connectivity[from.ordinal()] & 1 << towards.ordinal()) != 0;
     }
 
     /**
-     * Turns a tile 90 degree to the left.
+     * Computes the connectivity of the terrain, which is one bitmask of connected directions per direction (indexed by the
+     * ordinals of the {@link GridDirection}).
      */
-    public void rotateLeft() {
-        rotate(List.of(NORTH, WEST, SOUTH, EAST));
-        rotate(List.of(NORTH_EAST, NORTH_WEST, SOUTH_WEST, SOUTH_EAST));
+    private int[] computeConnectivity() {
+        int[] connections = new int[GridDirection.values().length];
+        for (GridDirection from : GridDirection.values()) {
+            for (GridDirection towards : GridDirection.values()) {
+                if (isConnectedThroughTerrain(from, towards)) {
+                    connections[from.ordinal()] |= 1 << towards.ordinal();
+                }
+            }
+        }
+        return connections;
     }
 
     /**
-     * Turns a tile 90 degree to the right.
+     * Checks whether two parts of a tile are connected by analyzing the terrain.
      */
-    public void rotateRight() {
-        rotate(GridDirection.directNeighbors());
-        rotate(GridDirection.indirectNeighbors());
+    private boolean isConnectedThroughTerrain(GridDirection from, GridDirection towards) {
+        if (isDirectConnected(from, towards)) {
+            return true; // directly connected through the middle of the tile
+        } else if (from != CENTER && towards != CENTER && isIndirectConnected(from, towards)) {
+            return true; // is not from or to middle but indirectly connected (counter)clockwise
+        } else if (terrain.get(from) == TerrainType.FIELDS && terrain.get(towards) == TerrainType.FIELDS) {
+            return isImplicitlyConnected(from, towards); // is connected through implicit terrain information
+        }
+        return false;
     }
 
     /**
@@ -247,6 +256,5 @@ public class TileTerrain {
         for (GridDirection direction : directions) { // rotate terrain through temporary:
             temporary = terrain.put(direction, temporary);
         }
-        createMeepleSpots();
     }
 }
@@ -1,6 +1,5 @@
 package carcassonne.model.tile;
 
-import java.io.InputStream;
 import java.util.Set;
 
 import javax.swing.ImageIcon;
@@ -11,7 +10,6 @@ import carcassonne.model.grid.GridDirection;
 import carcassonne.model.grid.GridSpot;
 import carcassonne.model.terrain.RotationDirection;
 import carcassonne.model.terrain.TerrainType;
-import carcassonne.model.terrain.TileTerrain;
 import carcassonne.settings.GameSettings;
 import carcassonne.util.ConcurrentTileImageScaler;
 
@@ -20,13 +18,10 @@ import carcassonne.util.ConcurrentTileImageScaler;
  * @author Timur Saglam
  */
 public class Tile {
-    private static final int CASTLE_THRESHOLD = 6; // size required for a castle to have an emblem
     private GridSpot gridSpot;
     private Meeple meeple;
-    private final TileTerrain terrain;
+    private TileDescriptor descriptor; // shared description of the type in the current rotation
     private final TileType type;
-    private TileRotation rotation;
-    private final int rotationLimit;
 
     /**
      * Simple constructor.
@@ -38,10 +33,8 @@ public class Tile {
             throw new IllegalArgumentException("Tile type cannot be null");
         }
         this.type = type;
-        terrain = new TileTerrain(type);
-        rotation = TileRotation.UP;
+        descriptor = TileDescriptor.of(type, TileRotation.UP);
         meeple = null;
-        rotationLimit = determineRotationLimit();
     }
 
     /**
@@ -104,7 +97,7 @@ public class Tile {
      * @return the terrain type, or null if the direction is not mapped.
      */
     public TerrainType getTerrain(GridDirection direction) {
-        return terrain.at(direction);
+        return descriptor.getTerrain().at(direction);
     }
 
     /**
@@ -120,7 +113,7 @@ public class Tile {
      * @return the rotation.
      */
     public TileRotation getRotation() {
-        return rotation;
+        return descriptor.getRotation();
     }
 
     /**
@@ -129,7 +122,7 @@ public class Tile {
      * @return the image index.
      */
     public int getImageIndex() {
-        return rotation.ordinal() % rotationLimit;
+        return descriptor.getRotation().ordinal() % descriptor.getRotationLimit();
     }
 
     /**
@@ -139,7 +132,7 @@ public class Tile {
      * @return true if the terrain connected.
      */
     public boolean hasConnection(GridDirection from, GridDirection to) {
-        return terrain.isConnected(from, to);
+        return descriptor.getTerrain().isConnected(from, to);
     }
 
     /**
@@ -168,7 +161,7 @@ public class Tile {
      * @return if it can be potentially placed. Does not check whether enemy players sit on the pattern.
      */
     public boolean hasMeepleSpot(GridDirection direction) {
-        return terrain.getMeepleSpots().contains(direction);
+        return descriptor.getTerrain().getMeepleSpots().contains(direction);
     }
 
     /**
@@ -176,13 +169,7 @@ public class Tile {
      * @return true if it has an emblem, which doubles the points of this tile.
      */
     public final boolean hasEmblem() {
-        int castleSize = 0;
-        for (GridDirection direction : GridDirection.values()) {
-            if (terrain.at(direction).equals(TerrainType.CASTLE)) {
-                castleSize++;
-            }
-        }
-        return castleSize >= CASTLE_THRESHOLD;
+        return descriptor.hasEmblem();
     }
 
     /**
@@ -211,36 +198,44 @@ public class Tile {
             meeple = player.getMeeple();
             meeple.setLocation(gridSpot);
             meeple.setPosition(position);
+            gridSpot.notifyMeeplePlacement(meeple);
         } else {
             throw new IllegalArgumentException("Tile can not have already a meeple placed on it: " + toString());
         }
     }
 
     /**
-     * Removes and returns the meeple from the tile. Calls Meeple.removePlacement.
+     * Removes the meeple from the tile and returns it to its owner, which undoes
+     * {@link #placeMeeple(Player, GridDirection)}. Calls Meeple.removePlacement.
      */
     public void removeMeeple() {
         if (meeple == null) {
             throw new IllegalStateException("Meeple has already been removed.");
         }
+        gridSpot.notifyMeepleRemoval(meeple);
         meeple.removePlacement();
         meeple = null;
     }
 
+    /**
+     * Removes the position of the tile, which undoes {@link #setPosition(GridSpot)} when the tile is removed from the grid.
+     */
+    public void removePosition() {
+        gridSpot = null;
+    }
+
     /**
      * Turns a tile 90 degree to the left.
      */
     public void rotateLeft() {
-        terrain.rotateLeft();
-        rotation = rotation.rotate(RotationDirection.LEFT);
+        descriptor = descriptor.rotate(RotationDirection.LEFT);
     }
 
     /**
      * Turns a tile 90 degree to the right.
      */
     public void rotateRight() {
-        terrain.rotateRight();
-        rotation = rotation.rotate(RotationDirection.RIGHT);
+        descriptor = descriptor.rotate(RotationDirection.RIGHT);
     }
 
     /**
@@ -256,7 +251,7 @@ public class Tile {
 
     @Override
     public String toString() {
-        return type + getClass().getSimpleName() + "[coordinates: " + gridSpot + ", terrain" + terrain + ", Meeple: " + meeple + "]";
+        return type + getClass().getSimpleName() + "[coordinates: " + gridSpot + ", terrain" + descriptor.getTerrain() + ", Meeple: " + meeple + "]";
     }
 
     /**
@@ -264,24 +259,6 @@ public class Tile {
      * @return the positions on the grid where placing a meeple is possible.
      */
     protected Set<GridDirection> getMeepleSpots() {
-        return terrain.getMeepleSpots();
-    }
-
-    /**
-     * Checks how many image files are available for this tile.
-     */
-    private final int determineRotationLimit() {
-        int rotations = 0;
-        for (int rotation = 0; rotation < TileRotation.values().length; rotation++) {
-            String path = GameSettings.TILE_FOLDER_PATH + type.name() + rotation + GameSettings.TILE_FILE_TYPE;
-            InputStream file = getClass().getClassLoader().getResourceAsStream(path);
-            if (file != null) {
-                rotations++;
-            }
-        }
-        if (rotations == 0) {
-            throw new IllegalStateException(type + " tile needs at least one image file!");
-        }
-        return rotations;
+        return descriptor.getTerrain().getMeepleSpots();
     }
 }
\ No newline at end of file
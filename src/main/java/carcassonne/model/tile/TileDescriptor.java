@@ -0,0 +1,102 @@
+package carcassonne.model.tile;
+
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.terrain.RotationDirection;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.terrain.TileTerrain;
+import carcassonne.util.TileImageManifest;
+
+/**
+ * Immutable description of a tile type in a specific rotation, which contains everything that does not depend on the
+ * individual tile: the terrain with its connections and meeple spots, the emblem and the number of available tile
+ * images. There is exactly one descriptor for every combination of tile type and rotation, which is shared by all tiles.
+ * Rotating a tile therefore only means switching to another descriptor.
+ * @author Timur Saglam
+ */
+class TileDescriptor {
+    private static final int CASTLE_THRESHOLD = 6; // size required for a castle to have an emblem
+    private static final TileDescriptor[][] descriptors = new TileDescriptor[TileType.values().length][];
+    private final TileType type;
+    private final TileRotation rotation;
+    private final TileTerrain terrain;
+    private final boolean emblem;
+    private final int rotationLimit;
+
+    private TileDescriptor(TileType type, TileRotation rotation, int rotationLimit) {
+        this.type = type;
+        this.rotation = rotation;
+        this.rotationLimit = rotationLimit;
+        terrain = new TileTerrain(type, rotation);
+        emblem = countCastleTerrain() >= CASTLE_THRESHOLD;
+    }
+
+    /**
+     * Returns the shared descriptor of a tile type in a specific rotation. The descriptors of a tile type are created on
+     * the first request.
+     * @param type is the tile type.
+     * @param rotation is the rotation.
+     * @return the descriptor.
+     */
+    static synchronized TileDescriptor of(TileType type, TileRotation rotation) {
+        if (descriptors[type.ordinal()] == null) {
+            int rotationLimit = TileImageManifest.getRotationLimit(type);
+            TileDescriptor[] rotations = new TileDescriptor[TileRotation.values().length];
+            for (TileRotation tileRotation : TileRotation.values()) {
+                rotations[tileRotation.ordinal()] = new TileDescriptor(type, tileRotation, rotationLimit);
+            }
+            descriptors[type.ordinal()] = rotations;
+        }
+        return descriptors[type.ordinal()][rotation.ordinal()];
+    }
+
+    /**
+     * Returns the descriptor of the same tile type that is rotated by 90 degree.
+     * @param direction is the direction of the rotation.
+     * @return the rotated descriptor.
+     */
+    TileDescriptor rotate(RotationDirection direction) {
+        return of(type, rotation.rotate(direction));
+    }
+
+    /**
+     * Getter for the rotation.
+     * @return the rotation.
+     */
+    TileRotation getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Getter for the number of image files of the tile type.
+     * @return the rotation limit.
+     */
+    int getRotationLimit() {
+        return rotationLimit;
+    }
+
+    /**
+     * Getter for the terrain.
+     * @return the immutable terrain.
+     */
+    TileTerrain getTerrain() {
+        return terrain;
+    }
+
+    /**
+     * Determines whether the tile has an emblem. Only large castle tiles can have emblems.
+     * @return true if it has an emblem.
+     */
+    boolean hasEmblem() {
+        return emblem;
+    }
+
+    private int countCastleTerrain() {
+        int castleSize = 0;
+        for (GridDirection direction : GridDirection.values()) {
+            if (terrain.at(direction) == TerrainType.CASTLE) {
+                castleSize++;
+            }
+        }
+        return castleSize;
+    }
+}
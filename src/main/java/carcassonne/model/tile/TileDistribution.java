@@ -3,6 +3,7 @@ package carcassonne.model.tile;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 import java.util.Stack;
 
 /**
@@ -71,23 +72,24 @@ public class TileDistribution {
     /**
      * Shuffles the tile amounts. The shuffle is not completely random as it tries to avoid giving a tile type its original
      * amount.
+     * @param random is the random number generator that shuffles the amounts.
      */
-    public void shuffle() {
+    public void shuffle(Random random) {
         TileType.enabledTiles().forEach(it -> distribution.putIfAbsent(it, it.getAmount()));
         Stack<Integer> tileAmounts = new Stack<Integer>();
-        tileAmounts.addAll(distribution.values());
-        Collections.shuffle(tileAmounts);
-        TileType.enabledTiles().forEach(it -> distribution.put(it, getPseudoRandomAmount(it, tileAmounts)));
+        distribution.keySet().stream().sorted().forEach(it -> tileAmounts.add(distribution.get(it))); // same order in every run
+        Collections.shuffle(tileAmounts, random);
+        TileType.enabledTiles().forEach(it -> distribution.put(it, getPseudoRandomAmount(it, tileAmounts, random)));
     }
 
     /**
      * Chooses a pseudo-random amount from a stack of amounts for a certain tile type.
      */
-    private int getPseudoRandomAmount(TileType tileType, Stack<Integer> randomAmounts) {
+    private int getPseudoRandomAmount(TileType tileType, Stack<Integer> randomAmounts, Random random) {
         int amount = randomAmounts.peek();
         int attempts = 0;
         while (amount == tileType.getAmount() && attempts < MAXIMAL_ATTEMPTS) {
-            Collections.shuffle(randomAmounts);
+            Collections.shuffle(randomAmounts, random);
             amount = randomAmounts.peek();
             attempts++;
         }
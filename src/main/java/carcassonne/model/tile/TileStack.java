@@ -1,32 +1,88 @@
 package carcassonne.model.tile;
 
-import java.util.Collections;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Stack;
+import java.util.List;
+import java.util.Random;
+
+import carcassonne.model.ZobristKeys;
+import carcassonne.util.RandomStreams;
 
 /**
- * The stack of tiles for a game.
+ * The stack of tiles for a game. The stack only stores how many tiles of every type are left and creates a tile when it
+ * is drawn. A shuffled stack chooses the type of every drawn tile by weighted sampling with a random number generator
+ * derived from the seed of the stack and the number of the draw, so the order of the stack is fixed by its seed even
+ * though no tile exists in advance.
  * @author Timur Saglam
  */
 public class TileStack {
-    private final Stack<Tile> tiles;
-    private final Queue<Tile> returnedTiles;
-    private final int multiplicator;
+    private static final TileType[] TYPES = TileType.values();
+    private List<TileType> order; // predetermined draw order, or null if the types are sampled
+    private final long seed; // seed of the sampled draws
+    private final int[] remainingCounts; // amount of tiles per type that were not drawn yet, without the returned tiles
+    private final Deque<Tile> undrawnTiles; // drawn tiles that were put back on top when their draw was undone
+    private final Deque<Tile> returnedTiles;
+    private final int[] typeCounts; // amount of tiles per type on the stack, including the returned tiles
+    private int remainingSize; // amount of tiles that were not drawn yet, without the returned tiles
+    private int drawnTiles; // amount of tiles that were drawn, without the returned tiles
+    private long zobristHash;
 
     /**
      * Simple constructor, creates the default fixed-amount stack.
      * @param players is the amount of player for which this tile stack is intended.
      * @param distribution is the tile distribution according which the stack is filled.
      * @param multiplicator is the tile stack multiplier, meaning how often the distribution is added to the stack.
+     * @param random is the random number generator of the game, which determines the seed of the stack. The same seed leads
+     * to the same order and rotations of the tiles.
      */
-    public TileStack(int players, TileDistribution distribution, int multiplicator) {
-        this.multiplicator = multiplicator;
-        tiles = new Stack<>();
+    public TileStack(int players, TileDistribution distribution, int multiplicator, Random random) {
+        this(players, distribution, multiplicator, random.nextLong());
+    }
+
+    /**
+     * Creates the default fixed-amount stack with a specific seed, which allows to reproduce the stack of a game.
+     * @param players is the amount of player for which this tile stack is intended.
+     * @param distribution is the tile distribution according which the stack is filled.
+     * @param multiplicator is the tile stack multiplier, meaning how often the distribution is added to the stack.
+     * @param seed is the seed of the stack, see {@link #getSeed()}.
+     */
+    public TileStack(int players, TileDistribution distribution, int multiplicator, long seed) {
+        this(null, seed);
+        for (TileType tileType : TileType.validTiles()) {
+            addRemaining(tileType, distribution.getQuantity(tileType) * multiplicator);
+        }
+    }
+
+    /**
+     * Creates a stack with a predetermined order of tiles, which allows to reproduce a game.
+     * @param tileTypes are the types of the tiles in the order they are drawn.
+     */
+    public TileStack(List<TileType> tileTypes) {
+        this(tileTypes, List.of());
+    }
+
+    /**
+     * Creates a stack with a predetermined order of tiles and tiles that were already put back under the stack, which
+     * allows to restore a game.
+     * @param tileTypes are the types of the tiles in the order they are drawn.
+     * @param returnedTypes are the types of the tiles that were put back, in the order they are drawn.
+     */
+    public TileStack(List<TileType> tileTypes, List<TileType> returnedTypes) {
+        this(List.copyOf(tileTypes), 0);
+        tileTypes.forEach(it -> addRemaining(it, 1));
+        returnedTypes.forEach(it -> returnedTiles.add(new Tile(it)));
+        returnedTypes.forEach(it -> count(it, 1));
+    }
+
+    private TileStack(List<TileType> order, long seed) {
+        this.order = order;
+        this.seed = seed;
+        remainingCounts = new int[TYPES.length];
+        typeCounts = new int[TYPES.length];
+        undrawnTiles = new ArrayDeque<>();
         returnedTiles = new LinkedList<>();
-        fillStack(distribution);
-        rotateRandomly();
-        Collections.shuffle(tiles);
     }
 
     /**
@@ -34,14 +90,95 @@ public class TileStack {
      * @return the tile or null if the stack is empty.
      */
     public Tile drawTile() {
-        if (tiles.isEmpty()) {
+        Tile tile;
+        if (remainingSize == 0) {
             if (returnedTiles.isEmpty()) {
                 return null;
             } else {
-                return returnedTiles.poll();
+                tile = returnedTiles.poll();
             }
+        } else {
+            tile = undrawnTiles.isEmpty() ? createTile() : undrawnTiles.pop();
+            remainingCounts[tile.getType().ordinal()]--;
+            remainingSize--;
+            drawnTiles++;
         }
-        return tiles.pop();
+        count(tile.getType(), -1);
+        return tile;
+    }
+
+    /**
+     * Determines the types of the tiles that were not drawn yet in the order they will be drawn, including the tiles that
+     * were put back under the stack. This allows to record a game.
+     * @return the list of tile types in draw order.
+     */
+    public List<TileType> getDrawOrder() {
+        List<TileType> types = new ArrayList<>();
+        int[] counts = remainingCounts.clone();
+        for (int draw = drawnTiles; draw < drawnTiles + remainingSize; draw++) {
+            TileType type = order == null ? sample(RandomStreams.stream(seed, draw), counts, drawnTiles + remainingSize - draw) : order.get(draw);
+            counts[type.ordinal()]--;
+            types.add(type);
+        }
+        returnedTiles.forEach(it -> types.add(it.getType()));
+        return types;
+    }
+
+    /**
+     * Determines the probability that the next drawn tile is of a specific type, for a player who does not know the order
+     * of the stack. Tiles that were put back under the stack are only drawn when all other tiles were drawn.
+     * @param type is the specific type.
+     * @return the probability, which is zero if the stack is empty.
+     */
+    public double getDrawProbability(TileType type) {
+        if (remainingSize > 0) {
+            return remainingCounts[type.ordinal()] / (double) remainingSize;
+        }
+        return !returnedTiles.isEmpty() && returnedTiles.peek().getType() == type ? 1 : 0;
+    }
+
+    /**
+     * Determines how many tiles of a specific type were not drawn yet. Tiles that were put back under the stack are not
+     * counted.
+     * @param type is the specific type.
+     * @return the amount of tiles.
+     */
+    public int getRemainingCount(TileType type) {
+        return remainingCounts[type.ordinal()];
+    }
+
+    /**
+     * Determines the types of the tiles that were not drawn yet, without revealing their order. Tiles that were put back
+     * under the stack are not contained.
+     * @return the list of tile types, sorted by type.
+     */
+    public List<TileType> getRemainingTypes() {
+        List<TileType> types = new ArrayList<>();
+        for (TileType type : TYPES) {
+            for (int i = 0; i < remainingCounts[type.ordinal()]; i++) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Getter for the seed of a shuffled stack. Stacks with the same seed, distribution and multiplier draw the same tiles.
+     * @return the seed, which is zero for stacks with a predetermined order.
+     * @see #isSeeded()
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Getter for the Zobrist hash of the stack, which covers the amount of tiles of every type on the stack, but not their
+     * order. The hash is updated with every change of the stack.
+     * @return the hash.
+     * @see ZobristKeys
+     */
+    public long getZobristHash() {
+        return zobristHash;
     }
 
     /**
@@ -52,8 +189,9 @@ public class TileStack {
         if (tile.isPlaced()) {
             throw new IllegalArgumentException("Cannot return a placed tile!");
         }
-        if (!tiles.isEmpty()) {
+        if (remainingSize > 0) {
             returnedTiles.add(tile); // tiles can only be returned once!
+            count(tile.getType(), 1);
         }
     }
 
@@ -62,7 +200,7 @@ public class TileStack {
      * @return the amount of tiled on the stack.
      */
     public int getSize() {
-        return tiles.size() + returnedTiles.size();
+        return remainingSize + returnedTiles.size();
     }
 
     /**
@@ -70,23 +208,107 @@ public class TileStack {
      * @return true if empty.
      */
     public boolean isEmpty() {
-        return tiles.isEmpty() && returnedTiles.isEmpty();
+        return remainingSize == 0 && returnedTiles.isEmpty();
     }
 
-    private void fillStack(TileDistribution distribution) {
-        for (TileType tileType : TileType.validTiles()) {
-            int amount = distribution.getQuantity(tileType) * multiplicator;
-            for (int i = 0; i < amount; i++) {
-                tiles.add(new Tile(tileType));
-            }
+    /**
+     * Checks whether the tiles of the stack are sampled with its seed instead of being drawn in a predetermined order.
+     * @return true if the stack is shuffled by its seed.
+     */
+    public boolean isSeeded() {
+        return order == null;
+    }
+
+    /**
+     * Replaces the tiles that were not drawn yet with tiles in a new predetermined order, e.g. to deal a different order of
+     * the hidden tiles to a simulated game. The tiles that were put back under the stack are kept.
+     * @param tileTypes are the types of the new tiles in the order they are drawn.
+     * @throws IllegalStateException if the stack is shuffled by its seed.
+     */
+    public void replaceRemaining(List<TileType> tileTypes) {
+        if (isSeeded()) {
+            throw new IllegalStateException("Cannot replace the tiles of a shuffled stack.");
+        }
+        for (TileType type : TYPES) {
+            addRemaining(type, -remainingCounts[type.ordinal()]);
+        }
+        undrawnTiles.clear();
+        order = List.copyOf(tileTypes);
+        drawnTiles = 0;
+        tileTypes.forEach(it -> addRemaining(it, 1));
+    }
+
+    /**
+     * Puts a drawn tile back on top of the stack, which undoes {@link #drawTile()}.
+     * @param tile is the drawn tile.
+     * @param returned specifies whether the tile was drawn from the tiles that were put back under the stack.
+     */
+    public void undoDraw(Tile tile, boolean returned) {
+        if (returned) {
+            returnedTiles.addFirst(tile);
+        } else {
+            undrawnTiles.push(tile); // it is drawn again instead of creating a new tile of the same draw
+            remainingCounts[tile.getType().ordinal()]++;
+            remainingSize++;
+            drawnTiles--;
+        }
+        count(tile.getType(), 1);
+    }
+
+    /**
+     * Takes a tile back that was put back under the stack last, which undoes {@link #putBack(Tile)}. Does nothing if the
+     * tile was not put back because the stack was empty.
+     * @param tile is the tile that was put back.
+     */
+    public void undoPutBack(Tile tile) {
+        if (returnedTiles.peekLast() == tile) {
+            returnedTiles.removeLast();
+            count(tile.getType(), -1);
+        }
+    }
+
+    private void addRemaining(TileType type, int amount) {
+        remainingCounts[type.ordinal()] += amount;
+        remainingSize += amount;
+        count(type, amount);
+    }
+
+    /**
+     * Changes the amount of tiles of a type on the stack and replaces the key of the old amount in the hash.
+     */
+    private void count(TileType type, int change) {
+        int amount = typeCounts[type.ordinal()];
+        typeCounts[type.ordinal()] = amount + change;
+        zobristHash ^= ZobristKeys.stackCount(type, amount) ^ ZobristKeys.stackCount(type, amount + change);
+    }
+
+    /**
+     * Creates the tile of the next draw. Sampled tiles get a random orientation with equal chance for each orientation.
+     */
+    private Tile createTile() {
+        if (order != null) {
+            return new Tile(order.get(drawnTiles));
+        }
+        Random random = RandomStreams.stream(seed, drawnTiles);
+        Tile tile = new Tile(sample(random, remainingCounts, remainingSize));
+        int rotations = random.nextInt(TileRotation.values().length);
+        for (int i = 0; i < rotations; i++) {
+            tile.rotateRight();
         }
+        return tile;
     }
 
-    private void rotateRandomly() {
-        for (Tile tile : tiles) {
-            for (int i = 0; i < Math.round(Math.random() * 4 - 0.5); i++) {
-                tile.rotateRight(); // Random orientation with equal chance for each orientation.
+    /**
+     * Chooses a tile type with a chance proportional to its amount.
+     */
+    private static TileType sample(Random random, int[] counts, int size) {
+        int sample = random.nextInt(size);
+        for (TileType type : TYPES) {
+            sample -= counts[type.ordinal()];
+            if (sample < 0) {
+                return type;
             }
         }
+        throw new IllegalStateException("The tile counts do not add up to the stack size: " + size);
     }
 }
@@ -11,6 +11,7 @@ import java.util.Map;
 import carcassonne.model.Player;
 import carcassonne.model.terrain.TerrainType;
 import carcassonne.model.tile.TileDistribution;
+import carcassonne.util.RandomStreams;
 import carcassonne.view.NotifiableUI;
 import carcassonne.view.PaintShop;
 
@@ -25,6 +26,7 @@ public class GameSettings {
     public static final int TILE_SIZE = 100;
     public static final int TILE_RESOLUTION = 600;
     public static final int HIGH_DPI_FACTOR = 2; // maximum supported DPI factor.
+    public static final int DEFAULT_THINKING_TIME = 2000; // milliseconds per computer move
 
     // STRING CONSTANTS
     public static final String TILE_FILE_TYPE = ".png";
@@ -50,12 +52,18 @@ public class GameSettings {
     private int amountOfPlayers;
     private int stackSizeMultiplier;
     private final TileDistribution tileDistribution;
+    private long seed;
+    private boolean seedFixed;
 
     // GAME RULES:
     private boolean allowFortifying;
     private int tilesPerPlayer;
     private final Map<TerrainType, Boolean> meepleRules;
 
+    // COMPUTER PLAYERS:
+    private final boolean[] computerPlayers;
+    private int thinkingTime;
+
     // OTHER/INTERNAL
     private boolean gridSizeChanged;
     private final List<NotifiableUI> changeListeners;
@@ -75,6 +83,9 @@ public class GameSettings {
         gridWidth = 29;
         gridHeight = 19;
         gridSizeChanged = false;
+        computerPlayers = new boolean[MAXIMAL_PLAYERS];
+        thinkingTime = DEFAULT_THINKING_TIME;
+        seed = RandomStreams.newSeed();
         changeListeners = new ArrayList<NotifiableUI>();
     }
 
@@ -86,6 +97,14 @@ public class GameSettings {
         return amountOfPlayers;
     }
 
+    /**
+     * Returns how long a computer player may think about a move.
+     * @return the thinking time in milliseconds.
+     */
+    public int getComputerThinkingTime() {
+        return thinkingTime;
+    }
+
     /**
      * Getter for the height of the grid.
      * @return the gridHeight the grid height in tiles.
@@ -129,6 +148,15 @@ public class GameSettings {
         return names.get(playerNumber);
     }
 
+    /**
+     * Returns the seed of the current game, which reproduces its tile stack. If the seed is fixed, it is also the seed of
+     * the next game.
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
     /**
      * Returns the multiplier for the tile amounts in a tile stack. When a tile amount is 2 and the stack multiplier is 2
      * the tile stack contains for tiles of this type.
@@ -162,6 +190,15 @@ public class GameSettings {
         return allowFortifying;
     }
 
+    /**
+     * Checks whether a specific {@link Player} is controlled by the computer.
+     * @param playerNumber is the number of the {@link Player}.
+     * @return true if it is a computer player.
+     */
+    public boolean isComputerPlayer(int playerNumber) {
+        return computerPlayers[playerNumber];
+    }
+
     /**
      * Gives information whether the user or the game changed the grid size settings.
      * @return the true if the size was changed.
@@ -170,6 +207,26 @@ public class GameSettings {
         return gridSizeChanged;
     }
 
+    /**
+     * Checks whether every new game uses the same seed, instead of a new random seed.
+     * @return true if the seed is fixed.
+     */
+    public boolean isSeedFixed() {
+        return seedFixed;
+    }
+
+    /**
+     * Determines the seed of a new game, which is the fixed seed or a new random seed. The seed is recorded as the seed of
+     * the current game.
+     * @return the seed of the new game.
+     */
+    public long nextSeed() {
+        if (!seedFixed) {
+            seed = RandomStreams.newSeed();
+        }
+        return seed;
+    }
+
     /**
      * Registers a UI element that wants to listen to changes.
      * @param notifiable is the UI element.
@@ -178,6 +235,13 @@ public class GameSettings {
         changeListeners.add(notifiable);
     }
 
+    /**
+     * Lets every new game use a new random seed again, which undoes {@link #setSeed(long)}.
+     */
+    public void releaseSeed() {
+        seedFixed = false;
+    }
+
     /**
      * Changes whether players are allowed to directly place meeples on patterns they already own.
      * @param allowFortifying forbids or allows fortifying.
@@ -194,6 +258,26 @@ public class GameSettings {
         this.amountOfPlayers = amountOfPlayers;
     }
 
+    /**
+     * Specifies whether a specific {@link Player} is controlled by the computer.
+     * @param computerPlayer is true if the computer should control the {@link Player}.
+     * @param playerNumber is the number of the {@link Player}.
+     */
+    public void setComputerPlayer(boolean computerPlayer, int playerNumber) {
+        computerPlayers[playerNumber] = computerPlayer;
+    }
+
+    /**
+     * Changes how long a computer player may think about a move.
+     * @param thinkingTime is the thinking time in milliseconds.
+     */
+    public void setComputerThinkingTime(int thinkingTime) {
+        if (thinkingTime <= 0) {
+            throw new IllegalArgumentException("Thinking time needs to be positive: " + thinkingTime);
+        }
+        this.thinkingTime = thinkingTime;
+    }
+
     /**
      * Setter for the height of grid.
      * @param gridHeight the grid height in tiles.
@@ -240,6 +324,15 @@ public class GameSettings {
         notifyListeners();
     }
 
+    /**
+     * Fixes the seed of the next games, which allows to play a game again.
+     * @param seed is the seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        seedFixed = true;
+    }
+
     /**
      * Sets the multiplier for the tile amounts in a tile stack. When a tile amount is 2 and the stack multiplier is 2 the
      * tile stack contains for tiles of this type.
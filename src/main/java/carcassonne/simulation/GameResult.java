@@ -0,0 +1,60 @@
+package carcassonne.simulation;
+
+import java.util.List;
+
+import carcassonne.model.Player;
+import carcassonne.model.Round;
+import carcassonne.model.terrain.TerrainType;
+
+/**
+ * The result of a single simulated game, which are the final scores of all players and the number of turns.
+ * @author Timur Saglam
+ */
+class GameResult {
+    private final int[] scores;
+    private final int[][] terrainScores;
+    private final int turns;
+
+    /**
+     * Creates the result of a finished round.
+     * @param round is the finished and scored round.
+     * @param turns is the number of turns that were played.
+     */
+    GameResult(Round round, int turns) {
+        this.turns = turns;
+        List<TerrainType> terrain = TerrainType.basicTerrain();
+        scores = new int[round.getPlayerCount()];
+        terrainScores = new int[round.getPlayerCount()][terrain.size()];
+        for (int seat = 0; seat < scores.length; seat++) {
+            Player player = round.getPlayer(seat);
+            scores[seat] = player.getScore();
+            for (int index = 0; index < terrain.size(); index++) {
+                terrainScores[seat][index] = player.getTerrainScore(terrain.get(index));
+            }
+        }
+    }
+
+    /**
+     * Getter for the final scores per seat.
+     * @return the scores.
+     */
+    int[] getScores() {
+        return scores;
+    }
+
+    /**
+     * Getter for the final scores per seat and terrain type, in the order of {@link TerrainType#basicTerrain()}.
+     * @return the terrain scores.
+     */
+    int[][] getTerrainScores() {
+        return terrainScores;
+    }
+
+    /**
+     * Getter for the number of turns.
+     * @return the turns.
+     */
+    int getTurns() {
+        return turns;
+    }
+}
@@ -0,0 +1,243 @@
+package carcassonne.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.GamePhase;
+import carcassonne.model.GameState;
+import carcassonne.model.Move;
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.Tile;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Suggests moves to the active player by ranking all legal tile placements, rotations and meeple placements of his hand
+ * by the gain of his projected score. The candidates are evaluated in parallel on a background executor, where every
+ * thread plays and takes back its share of the candidates on its own copy of the game. The evaluation stops when its time
+ * budget is over or when it is cancelled, and then ranks the candidates that were evaluated so far. Complete rankings are
+ * cached, so querying the same position with the same hand again returns immediately.
+ * @author Timur Saglam
+ */
+public class HintEngine implements AutoCloseable {
+    private static final int CACHE_SIZE = 16;
+    private final GameSettings settings;
+    private final int parallelism;
+    private final ExecutorService executor;
+    private final Map<HintKey, List<MoveHint>> cache;
+
+    /**
+     * Creates a hint engine that uses all available processors.
+     * @param settings are the {@link GameSettings}, which specify the meeple rules.
+     */
+    public HintEngine(GameSettings settings) {
+        this(settings, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a hint engine that uses a specific number of threads.
+     * @param settings are the {@link GameSettings}, which specify the meeple rules.
+     * @param parallelism is the number of threads, each of which evaluates a share of the candidates.
+     */
+    public HintEngine(GameSettings settings, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism needs to be positive: " + parallelism);
+        }
+        this.settings = settings;
+        this.parallelism = parallelism;
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, getClass().getSimpleName());
+            thread.setDaemon(true); // hints never keep the game alive
+            return thread;
+        });
+        cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+            private static final long serialVersionUID = 4094387329316713622L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<HintKey, List<MoveHint>> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Shuts the threads of the hint engine down. Evaluations that were already started are completed, but new
+     * evaluations are rejected.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Ranks the moves of the active player in the background. The knowledge of the player is captured before this method
+     * returns, so the game is not accessed by the evaluation. Cancelling the returned future stops the evaluation.
+     * @param engine is the game engine in the placing phase or manning phase, after the tile of the turn was drawn. In the
+     * manning phase, only the meeple placements on the placed tile are ranked.
+     * @param timeBudget is the time budget in milliseconds, after which the evaluated candidates are ranked.
+     * @return the future of the ranked hints, best hint first, which contains at least one hint unless it was cancelled.
+     */
+    public CompletableFuture<List<MoveHint>> suggestAsync(GameEngine engine, long timeBudget) {
+        HintKey key = new HintKey(engine.getState(), settings);
+        List<MoveHint> cachedHints = getCached(key);
+        if (cachedHints != null) {
+            return CompletableFuture.completedFuture(cachedHints);
+        }
+        InformationSet informationSet = new InformationSet(engine, settings);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudget);
+        CompletableFuture<List<MoveHint>> result = new CompletableFuture<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        List<CompletableFuture<List<MoveHint>>> workers = IntStream.range(0, parallelism)
+                .mapToObj(it -> CompletableFuture.supplyAsync(() -> evaluate(informationSet, it, deadline, result, interrupted), executor))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, exception) -> {
+            if (exception != null) {
+                result.completeExceptionally(exception);
+            } else {
+                List<MoveHint> hints = new ArrayList<>();
+                workers.forEach(it -> hints.addAll(it.join()));
+                Collections.sort(hints);
+                List<MoveHint> ranking = Collections.unmodifiableList(hints);
+                if (!interrupted.get()) {
+                    putCached(key, ranking);
+                }
+                result.complete(ranking);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Evaluates the share of the candidates of a worker on a copy of the game. Every worker evaluates at least one
+     * candidate, so there is a hint even if the time budget is very small.
+     */
+    private List<MoveHint> evaluate(InformationSet informationSet, int worker, long deadline, CompletableFuture<?> result,
+            AtomicBoolean interrupted) {
+        GameEngine game = informationSet.determinize(new Random(worker)); // the order of the stack does not matter
+        int[] scoresBefore = projectScores(game);
+        List<MoveHint> hints = new ArrayList<>();
+        if (game.getPhase() == GamePhase.MANNING) {
+            List<GridDirection> options = meepleOptions(game);
+            for (int index = worker; index < options.size() && !isStopped(index != worker, deadline, result, interrupted); index += parallelism) {
+                hints.add(evaluateManning(game, informationSet.getPendingPlacement(), options.get(index), scoresBefore));
+            }
+            return hints;
+        }
+        List<SearchAction> actions = SearchAction.legalActions(game);
+        for (int index = worker; index < actions.size() && !isStopped(index != worker, deadline, result, interrupted); index += parallelism) {
+            SearchAction action = actions.get(index);
+            if (action.isSkip()) {
+                hints.add(new MoveHint(Move.skip(action.getTileType()), 0, 0));
+            } else {
+                Tile tile = game.getActivePlayer().getTile(action.getTileType());
+                while (tile.getRotation() != action.getRotation()) {
+                    tile.rotateRight();
+                }
+                game.placeTile(tile, action.getX(), action.getY());
+                meepleOptions(game).forEach(it -> hints.add(evaluateManning(game, action, it, scoresBefore)));
+                game.undo();
+            }
+        }
+        return hints;
+    }
+
+    /**
+     * Places a meeple on the placed tile or not, measures the projected scores and takes the meeple placement back.
+     */
+    private MoveHint evaluateManning(GameEngine game, SearchAction placement, GridDirection meeplePosition, int[] scoresBefore) {
+        int activePlayer = game.getActivePlayer().getNumber();
+        if (meeplePosition == null) {
+            game.skipMeeple();
+        } else {
+            game.placeMeeple(meeplePosition);
+        }
+        int[] scoresAfter = projectScores(game);
+        game.undo();
+        int opponentGain = scoresAfter.length > 1 ? Integer.MIN_VALUE : 0;
+        for (int player = 0; player < scoresAfter.length; player++) {
+            if (player != activePlayer) {
+                opponentGain = Math.max(opponentGain, scoresAfter[player] - scoresBefore[player]);
+            }
+        }
+        Move move = Move.placement(placement.getTileType(), placement.getRotation(), placement.getX(), placement.getY(), meeplePosition);
+        return new MoveHint(move, scoresAfter[activePlayer] - scoresBefore[activePlayer], opponentGain);
+    }
+
+    private synchronized List<MoveHint> getCached(HintKey key) {
+        return cache.get(key);
+    }
+
+    private boolean isStopped(boolean evaluatedAny, long deadline, CompletableFuture<?> result, AtomicBoolean interrupted) {
+        if (result.isDone() || evaluatedAny && System.nanoTime() >= deadline) {
+            interrupted.set(true);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the meeple placements of the placed tile, where null stands for placing no meeple.
+     */
+    private List<GridDirection> meepleOptions(GameEngine game) {
+        List<GridDirection> options = new ArrayList<>();
+        options.add(null);
+        options.addAll(game.legalMeepleSpots());
+        return options;
+    }
+
+    private int[] projectScores(GameEngine game) {
+        int[] scores = new int[game.getRound().getPlayerCount()];
+        for (int player = 0; player < scores.length; player++) {
+            scores[player] = game.getRound().getProjectedScore(player);
+        }
+        return scores;
+    }
+
+    private synchronized void putCached(HintKey key, List<MoveHint> hints) {
+        cache.put(key, hints);
+    }
+
+    /**
+     * Identifies a position together with the meeple rules that were used to rank its moves. Game states are immutable and
+     * only replaced when the game changes, so they are compared by identity, which also matches positions that are reached
+     * again by undoing moves.
+     */
+    private static final class HintKey {
+        private final GameState state;
+        private final boolean fortifying;
+        private final List<TerrainType> meepleTerrain;
+
+        HintKey(GameState state, GameSettings settings) {
+            this.state = state;
+            fortifying = settings.isAllowingFortifying();
+            meepleTerrain = TerrainType.basicTerrain().stream().filter(settings::getMeepleRule).collect(Collectors.toList());
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof HintKey)) {
+                return false;
+            }
+            HintKey other = (HintKey) object;
+            return state == other.state && fortifying == other.fortifying && meepleTerrain.equals(other.meepleTerrain);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(state), fortifying, meepleTerrain);
+        }
+    }
+}
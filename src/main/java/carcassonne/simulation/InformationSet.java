@@ -0,0 +1,118 @@
+package carcassonne.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.GamePhase;
+import carcassonne.model.GameState;
+import carcassonne.model.tile.TileStack;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+
+/**
+ * The knowledge of the active player about a game, which is captured once and can then be used concurrently. The player
+ * knows the board, the scores and his own hand, but neither the order of the tile stack nor the hands of the other
+ * players. A determinization assigns the unknown tiles randomly and restores a game from the {@link GameState}, which
+ * leads to a game that the active player can not distinguish from the real one. The unknown tiles of a determinization
+ * can be dealt anew, which samples another determinization without restoring the game again.
+ * @author Timur Saglam
+ */
+class InformationSet {
+    private final GameSettings settings;
+    private final GameState state;
+    private final List<TileType> unknownTypes;
+    private final SearchAction pendingPlacement;
+
+    /**
+     * Captures the knowledge of the active player about a game.
+     * @param engine is the game engine in the placing phase or manning phase, after the tile of the turn was drawn.
+     * @param settings are the {@link GameSettings} of the game.
+     */
+    InformationSet(GameEngine engine, GameSettings settings) {
+        if (engine.getPhase() == GamePhase.OVER) {
+            throw new IllegalArgumentException("Cannot search a game that is over.");
+        }
+        this.settings = settings;
+        state = engine.getState();
+        pendingPlacement = engine.getPhase() == GamePhase.MANNING ? SearchAction.placementOf(engine.getPlacedTile()) : null;
+        unknownTypes = new ArrayList<>();
+        for (int player = 0; player < state.getPlayerCount(); player++) {
+            if (player != state.getActivePlayer()) {
+                unknownTypes.addAll(state.getHand(player));
+            }
+        }
+        for (TileType type : TileType.values()) {
+            unknownTypes.addAll(Collections.nCopies(state.getStackCount(type), type));
+        }
+    }
+
+    /**
+     * Creates a random determinization of the game. The returned game is in the same phase as the original game.
+     * @param random is the random number generator that assigns the unknown tiles.
+     * @return the game engine of the determinization.
+     */
+    GameEngine determinize(Random random) {
+        List<List<TileType>> hands = new ArrayList<>();
+        List<TileType> stackOrder = deal(random, hands);
+        GameState determinization = state;
+        for (int player = 0; player < state.getPlayerCount(); player++) {
+            determinization = determinization.withHand(player, hands.get(player));
+        }
+        return new GameEngine(determinization, new TileStack(stackOrder, state.getReturnedTiles()), settings);
+    }
+
+    /**
+     * Changes a determinization into another random determinization by dealing the unknown tiles anew.
+     * @param engine is the game engine of the determinization, which needs to be in the position of the original game.
+     * @param random is the random number generator that assigns the unknown tiles.
+     * @see GameEngine#redeal(List, List)
+     */
+    void redeal(GameEngine engine, Random random) {
+        List<List<TileType>> hands = new ArrayList<>();
+        List<TileType> stackOrder = deal(random, hands);
+        engine.redeal(hands, stackOrder);
+    }
+
+    /**
+     * Getter for the amount of players of the game.
+     * @return the amount of players.
+     */
+    int getPlayerCount() {
+        return state.getPlayerCount();
+    }
+
+    /**
+     * Getter for the tile placement of the current turn if the game is in the manning phase.
+     * @return the placement or null if the game is in the placing phase.
+     */
+    SearchAction getPendingPlacement() {
+        return pendingPlacement;
+    }
+
+    /**
+     * Shuffles the unknown tiles and deals them to the hands of the other players and the stack. The hand of the active
+     * player stays the same.
+     */
+    private List<TileType> deal(Random random, List<List<TileType>> hands) {
+        List<TileType> shuffledTypes = new ArrayList<>(unknownTypes);
+        Collections.shuffle(shuffledTypes, random);
+        Iterator<TileType> unknown = shuffledTypes.iterator();
+        for (int player = 0; player < state.getPlayerCount(); player++) {
+            List<TileType> hand = state.getHand(player);
+            if (player != state.getActivePlayer()) {
+                hand = new ArrayList<>();
+                for (int i = 0; i < state.getHand(player).size(); i++) {
+                    hand.add(unknown.next());
+                }
+            }
+            hands.add(hand);
+        }
+        List<TileType> stackOrder = new ArrayList<>();
+        unknown.forEachRemaining(stackOrder::add);
+        return stackOrder;
+    }
+}
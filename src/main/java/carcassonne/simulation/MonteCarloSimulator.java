@@ -0,0 +1,152 @@
+package carcassonne.simulation;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.GamePhase;
+import carcassonne.model.record.GameRecordReader;
+import carcassonne.model.record.GameRecordWriter;
+import carcassonne.settings.GameSettings;
+import carcassonne.util.RandomStreams;
+
+/**
+ * Batch simulator that plays complete games between simulated players on all available cores. The games are played
+ * with the headless {@link GameEngine} and respect the {@link GameSettings}, such as the amount of players, the stack
+ * size multiplier, the grid size and the meeple rules. The simulation results contain the throughput and the score
+ * distributions, which allows to evaluate changes of rules and tile distributions.
+ * @author Timur Saglam
+ */
+public class MonteCarloSimulator {
+    private static final int DEFAULT_GAMES = 1000;
+    private final GameSettings settings;
+    private final SimulationStrategy strategy;
+    private final int parallelism;
+
+    /**
+     * Creates a simulator that uses all available processors.
+     * @param settings are the {@link GameSettings} of the simulated games.
+     * @param strategy is the strategy of the simulated players.
+     */
+    public MonteCarloSimulator(GameSettings settings, SimulationStrategy strategy) {
+        this(settings, strategy, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a simulator that uses a specific number of threads.
+     * @param settings are the {@link GameSettings} of the simulated games. They must not be changed during a simulation.
+     * @param strategy is the strategy of the simulated players.
+     * @param parallelism is the number of threads.
+     */
+    public MonteCarloSimulator(GameSettings settings, SimulationStrategy strategy, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism needs to be positive: " + parallelism);
+        }
+        this.settings = settings;
+        this.strategy = strategy;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Simulates a number of games in parallel.
+     * @param games is the number of games.
+     * @param seed is the seed of the simulation. Every game uses its own random number generator for its tile stack and
+     * the decisions of the simulated players, which is derived from this seed. The same seed leads to the same games.
+     * @return the result of the simulation.
+     */
+    public SimulationResult simulate(int games, long seed) {
+        return simulate(games, seed, null);
+    }
+
+    /**
+     * Simulates a number of games in parallel and archives them as game records.
+     * @param games is the number of games.
+     * @param seed is the seed of the simulation. Every game uses its own random number generator for its tile stack and
+     * the decisions of the simulated players, whose seed is derived from this seed and stored in its record.
+     * @param archive is the stream the records are written to in the order the games end, or null if the games are not
+     * archived. The records can be read with {@link GameRecordReader}.
+     * @return the result of the simulation.
+     */
+    public SimulationResult simulate(int games, long seed, OutputStream archive) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            List<GameResult> results = pool.submit(() -> IntStream.range(0, games).parallel() // play games in parallel
+                    .mapToObj(it -> playGame(RandomStreams.deriveSeed(seed, it), archive)).collect(Collectors.toList())).get();
+            return new SimulationResult(results, System.nanoTime() - start);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation was interrupted.", exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Simulation failed: " + exception.getCause(), exception.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays a single game until it is over and performs the final scoring. The record of the game is written into a small
+     * buffer first, so that the records of parallel games do not interleave in the archive.
+     */
+    private GameResult playGame(long seed, OutputStream archive) {
+        Random random = new Random(seed); // shuffles the tile stack and decides the moves
+        GameEngine engine = new GameEngine(settings.getAmountOfPlayers(), settings, random);
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        try {
+            GameRecordWriter writer = archive == null ? null : new GameRecordWriter(record, engine, settings, seed);
+            int turns = 0;
+            while (engine.getPhase() != GamePhase.OVER) {
+                engine.drawTile();
+                strategy.playTurn(engine, random);
+                turns++;
+            }
+            engine.finalScore();
+            if (writer != null) {
+                writer.writeAll(engine.getMoves());
+                writer.finish();
+                synchronized (archive) {
+                    record.writeTo(archive);
+                }
+            }
+            return new GameResult(engine.getRound(), turns);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Runs a simulation with the default settings and prints the report.
+     * @param args are optional: the number of games, the strategy (RANDOM or GREEDY), the amount of players, the number
+     * of threads and the path of a file the games are archived in.
+     * @throws IOException if the archive can not be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        SimulationStrategy strategy = args.length > 1 ? SimulationStrategy.valueOf(args[1]) : SimulationStrategy.RANDOM;
+        GameSettings settings = new GameSettings();
+        if (args.length > 2) {
+            settings.setAmountOfPlayers(Integer.parseInt(args[2]));
+        }
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        MonteCarloSimulator simulator = new MonteCarloSimulator(settings, strategy, threads);
+        SimulationResult result;
+        if (args.length > 4) {
+            try (OutputStream archive = new BufferedOutputStream(new FileOutputStream(args[4]))) {
+                result = simulator.simulate(games, System.nanoTime(), archive);
+            }
+        } else {
+            result = simulator.simulate(games, System.nanoTime());
+        }
+        System.out.print(result.createReport());
+    }
+}
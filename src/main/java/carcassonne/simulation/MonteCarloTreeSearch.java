@@ -0,0 +1,264 @@
+package carcassonne.simulation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.GamePhase;
+import carcassonne.model.Move;
+import carcassonne.settings.GameSettings;
+import carcassonne.util.RandomStreams;
+
+/**
+ * Computer player that decides its moves with a Monte Carlo tree search. The search handles the hidden information of
+ * the game by searching a different random determinization of the tile stack and the hands of the other players in every
+ * iteration. It uses root parallelization: every thread of its pool builds its own search tree until the thinking time
+ * of the {@link GameSettings} is over, and the statistics of the trees are merged to choose the move. More threads and
+ * more time therefore lead to more iterations and stronger moves. Playouts are played with
+ * {@link SimulationStrategy#RANDOM} for a limited number of rounds and are then evaluated with the projected scores, which
+ * do not end the game. Every tree therefore uses a single game engine, which is taken back to the searched position and
+ * dealt anew after every iteration.
+ * @author Timur Saglam
+ */
+public class MonteCarloTreeSearch implements AutoCloseable {
+    private static final double EXPLORATION = 0.7;
+    private static final double SCORE_SCALE = 10; // score lead that corresponds to a reward of about 0.73
+    private static final int PLAYOUT_ROUNDS = 2;
+    private static final SimulationStrategy PLAYOUT_STRATEGY = SimulationStrategy.RANDOM;
+    private final GameSettings settings;
+    private final int parallelism;
+    private final ForkJoinPool pool;
+    private GameEngine plannedGame;
+    private int plannedTurn;
+    private Move plannedMove;
+
+    /**
+     * Creates a search that uses all available processors.
+     * @param settings are the {@link GameSettings}, which specify the thinking time.
+     */
+    public MonteCarloTreeSearch(GameSettings settings) {
+        this(settings, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a search that uses a specific number of threads.
+     * @param settings are the {@link GameSettings}, which specify the thinking time.
+     * @param parallelism is the number of threads, each of which builds its own search tree. The threads are started on
+     * demand and are kept until the search is closed.
+     */
+    public MonteCarloTreeSearch(GameSettings settings, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism needs to be positive: " + parallelism);
+        }
+        this.settings = settings;
+        this.parallelism = parallelism;
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Shuts the threads of the search down. Searches that were already started are completed, but new searches are
+     * rejected.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Searches the move of the active player and blocks until the thinking time is over.
+     * @param engine is the game engine in the placing phase or manning phase, after the tile of the turn was drawn.
+     * @return the chosen move.
+     * @see #searchAsync(GameEngine)
+     */
+    public Move search(GameEngine engine) {
+        return searchAsync(engine).join();
+    }
+
+    /**
+     * Searches the move of the active player in the background. The knowledge of the player is captured before this
+     * method returns, so the game is not accessed by the search. In the placing phase, the move contains the tile
+     * placement and the meeple placement. In the manning phase, the move contains the tile that was placed in this turn
+     * and the chosen meeple placement. If the tile was placed according to a previous search, its meeple placement is
+     * returned immediately.
+     * @param engine is the game engine in the placing phase or manning phase, after the tile of the turn was drawn.
+     * @return the future of the chosen move.
+     */
+    public CompletableFuture<Move> searchAsync(GameEngine engine) {
+        Move plan = getPlan(engine);
+        if (plan != null) {
+            return CompletableFuture.completedFuture(plan);
+        }
+        InformationSet informationSet = new InformationSet(engine, settings);
+        long thinkingTime = settings.getComputerThinkingTime();
+        int turn = engine.getMoves().size();
+        return CompletableFuture.supplyAsync(() -> {
+            Move move = search(informationSet, thinkingTime);
+            setPlan(engine, turn, move);
+            return move;
+        }, pool);
+    }
+
+    /**
+     * Builds one tree per thread and chooses the move. Runs on a thread of the pool, so the parallel stream also runs on the
+     * pool.
+     */
+    private Move search(InformationSet informationSet, long thinkingTime) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(thinkingTime);
+        long seed = RandomStreams.newSeed();
+        List<SearchNode> roots = IntStream.range(0, parallelism).parallel() // one tree per thread
+                .mapToObj(it -> buildTree(informationSet, deadline, RandomStreams.stream(seed, it))).collect(Collectors.toList());
+        return chooseMove(informationSet, roots);
+    }
+
+    /**
+     * Builds a search tree until the deadline is reached, at least one iteration is performed. Every iteration starts on a
+     * new determinization of the same game engine.
+     */
+    private SearchNode buildTree(InformationSet informationSet, long deadline, Random random) {
+        SearchNode root = new SearchNode();
+        GameEngine engine = informationSet.determinize(random);
+        iterate(root, engine, informationSet.getPlayerCount(), random);
+        while (System.nanoTime() < deadline) {
+            informationSet.redeal(engine, random);
+            iterate(root, engine, informationSet.getPlayerCount(), random);
+        }
+        return root;
+    }
+
+    /**
+     * Performs a single iteration: selects a path through the tree on the determinization, expands the tree by one node,
+     * plays out the game and propagates the rewards back. Afterwards, all actions of the iteration are undone.
+     */
+    private void iterate(SearchNode root, GameEngine engine, int playerCount, Random random) {
+        SearchNode node = root;
+        boolean expanded = false;
+        while (!expanded && engine.getPhase() != GamePhase.OVER) {
+            List<SearchAction> actions = SearchAction.legalActions(engine);
+            List<SearchAction> untriedActions = node.updateAvailability(actions);
+            if (untriedActions.isEmpty()) {
+                node = node.select(actions, EXPLORATION, random);
+            } else {
+                SearchAction action = untriedActions.get(random.nextInt(untriedActions.size()));
+                node = node.addChild(action, engine.getActivePlayer().getNumber());
+                expanded = true;
+            }
+            node.getAction().apply(engine);
+        }
+        playOut(engine, playerCount, random);
+        node.backpropagate(evaluate(engine, playerCount));
+        while (engine.canUndo()) {
+            engine.undo();
+        }
+    }
+
+    private void playOut(GameEngine engine, int playerCount, Random random) {
+        if (engine.getPhase() == GamePhase.MANNING) {
+            PLAYOUT_STRATEGY.playMeeple(engine, random);
+            if (engine.getPhase() == GamePhase.PLACING) {
+                engine.drawTile();
+            }
+        }
+        for (int turn = 0; turn < PLAYOUT_ROUNDS * playerCount && engine.getPhase() != GamePhase.OVER; turn++) {
+            PLAYOUT_STRATEGY.playTurn(engine, random);
+            if (engine.getPhase() == GamePhase.PLACING) {
+                engine.drawTile();
+            }
+        }
+    }
+
+    /**
+     * Scores the game as if it were over and rewards every player according to his lead over the best other player.
+     */
+    private double[] evaluate(GameEngine engine, int playerCount) {
+        int[] scores = new int[playerCount];
+        for (int player = 0; player < playerCount; player++) {
+            scores[player] = engine.getRound().getProjectedScore(player);
+        }
+        double[] rewards = new double[playerCount];
+        for (int player = 0; player < playerCount; player++) {
+            int bestOtherScore = Integer.MIN_VALUE;
+            for (int other = 0; other < playerCount; other++) {
+                if (other != player) {
+                    bestOtherScore = Math.max(bestOtherScore, scores[other]);
+                }
+            }
+            int lead = scores[player] - bestOtherScore;
+            rewards[player] = 1 / (1 + Math.exp(-lead / SCORE_SCALE));
+        }
+        return rewards;
+    }
+
+    /**
+     * Chooses the most visited action of the merged trees, and in the placing phase also the most visited meeple
+     * placement after the chosen tile placement.
+     */
+    private Move chooseMove(InformationSet informationSet, List<SearchNode> roots) {
+        SearchAction action = mostVisitedAction(roots);
+        SearchAction placement = informationSet.getPendingPlacement();
+        SearchAction manning = action;
+        if (placement == null) {
+            if (action.isSkip()) {
+                return Move.skip(action.getTileType());
+            }
+            placement = action;
+            List<SearchNode> placementNodes = new ArrayList<>();
+            for (SearchNode root : roots) {
+                root.getChildren().stream().filter(it -> it.getAction().equals(action)).forEach(placementNodes::add);
+            }
+            manning = mostVisitedAction(placementNodes);
+        }
+        boolean hasMeeple = manning != null && !manning.isSkip();
+        return Move.placement(placement.getTileType(), placement.getRotation(), placement.getX(), placement.getY(),
+                hasMeeple ? manning.getMeeplePosition() : null);
+    }
+
+    /**
+     * Determines the action that was visited most often among the children of a set of equivalent nodes. Ties are broken
+     * by the average reward.
+     */
+    private SearchAction mostVisitedAction(List<SearchNode> nodes) {
+        Map<SearchAction, double[]> statistics = new LinkedHashMap<>(); // visits and reward per action
+        for (SearchNode node : nodes) {
+            for (SearchNode child : node.getChildren()) {
+                double[] values = statistics.computeIfAbsent(child.getAction(), it -> new double[2]);
+                values[0] += child.getVisits();
+                values[1] += child.getReward();
+            }
+        }
+        SearchAction bestAction = null;
+        double[] best = { -1, 0 };
+        for (Map.Entry<SearchAction, double[]> entry : statistics.entrySet()) {
+            double[] values = entry.getValue();
+            if (values[0] > best[0] || values[0] == best[0] && values[1] > best[1]) {
+                bestAction = entry.getKey();
+                best = values;
+            }
+        }
+        return bestAction;
+    }
+
+    private synchronized Move getPlan(GameEngine engine) {
+        if (plannedGame == engine && plannedTurn == engine.getMoves().size() && engine.getPhase() == GamePhase.MANNING) {
+            SearchAction placement = SearchAction.placementOf(engine.getPlacedTile());
+            if (plannedMove.getTileType() == placement.getTileType() && plannedMove.getRotation() == placement.getRotation()
+                    && plannedMove.getX() == placement.getX() && plannedMove.getY() == placement.getY()) {
+                return plannedMove;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void setPlan(GameEngine engine, int turn, Move move) {
+        plannedGame = engine;
+        plannedTurn = turn;
+        plannedMove = move;
+    }
+}
@@ -0,0 +1,68 @@
+package carcassonne.simulation;
+
+import carcassonne.model.Move;
+
+/**
+ * A move suggested by the {@link HintEngine}, together with the change of the projected scores it causes. The projected
+ * score of a player is his score plus the points of his incomplete patterns, so the gain covers completed patterns as well
+ * as patterns that were extended or occupied.
+ * @author Timur Saglam
+ */
+public final class MoveHint implements Comparable<MoveHint> {
+    private final Move move;
+    private final int scoreGain;
+    private final int opponentGain;
+
+    /**
+     * Creates a hint.
+     * @param move is the suggested move.
+     * @param scoreGain is the gain of the projected score of the active player.
+     * @param opponentGain is the highest gain of the projected score of any other player.
+     */
+    MoveHint(Move move, int scoreGain, int opponentGain) {
+        this.move = move;
+        this.scoreGain = scoreGain;
+        this.opponentGain = opponentGain;
+    }
+
+    /**
+     * Orders better hints first: hints with a higher gain of the active player, and on equal gain the hints that help the
+     * other players less.
+     */
+    @Override
+    public int compareTo(MoveHint other) {
+        if (scoreGain != other.scoreGain) {
+            return Integer.compare(other.scoreGain, scoreGain);
+        }
+        return Integer.compare(opponentGain, other.opponentGain);
+    }
+
+    /**
+     * Getter for the suggested move.
+     * @return the move.
+     */
+    public Move getMove() {
+        return move;
+    }
+
+    /**
+     * Getter for the highest gain of the projected score of any other player.
+     * @return the gain in points.
+     */
+    public int getOpponentGain() {
+        return opponentGain;
+    }
+
+    /**
+     * Getter for the gain of the projected score of the active player.
+     * @return the gain in points.
+     */
+    public int getScoreGain() {
+        return scoreGain;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + move + ", gain: " + scoreGain + ", opponent gain: " + opponentGain + "]";
+    }
+}
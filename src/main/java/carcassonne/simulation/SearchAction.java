@@ -0,0 +1,192 @@
+package carcassonne.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.GamePhase;
+import carcassonne.model.Player;
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.grid.PossiblePlacement;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileRotation;
+import carcassonne.model.tile.TileType;
+
+/**
+ * A single decision of a player in the search tree. A turn consists of two decisions: placing a tile (or skipping the
+ * turn) in the placing phase, and placing a meeple (or not) in the manning phase. Actions only reference tile types, so
+ * they can be applied to every determinization of a game.
+ * @author Timur Saglam
+ */
+final class SearchAction {
+    private final TileType tileType;
+    private final TileRotation rotation;
+    private final int x;
+    private final int y;
+    private final GridDirection meeplePosition;
+    private final GamePhase phase;
+    private final boolean skip;
+
+    private SearchAction(TileType tileType, TileRotation rotation, int x, int y, GridDirection meeplePosition, GamePhase phase, boolean skip) {
+        this.tileType = tileType;
+        this.rotation = rotation;
+        this.x = x;
+        this.y = y;
+        this.meeplePosition = meeplePosition;
+        this.phase = phase;
+        this.skip = skip;
+    }
+
+    /**
+     * Determines all legal actions of the active player.
+     * @param engine is the game engine in the placing or manning phase.
+     * @return the list of legal actions, which contains at least one action.
+     */
+    static List<SearchAction> legalActions(GameEngine engine) {
+        List<SearchAction> actions = new ArrayList<>();
+        if (engine.getPhase() == GamePhase.MANNING) {
+            for (GridDirection position : engine.legalMeepleSpots()) {
+                actions.add(new SearchAction(null, null, -1, -1, position, GamePhase.MANNING, false));
+            }
+            actions.add(new SearchAction(null, null, -1, -1, null, GamePhase.MANNING, true));
+        } else {
+            Player player = engine.getActivePlayer();
+            List<TileType> types = new ArrayList<>();
+            for (Tile tile : player.getHandOfTiles()) {
+                if (!types.contains(tile.getType())) { // equal tiles have equal placements
+                    types.add(tile.getType());
+                    List<PossiblePlacement> placements = engine.isPlaceableAnywhere(tile.getType()) ? engine.legalPlacements(tile) : List.of();
+                    for (PossiblePlacement placement : placements) {
+                        actions.add(new SearchAction(tile.getType(), placement.getRotation(), placement.getSpot().getX(),
+                                placement.getSpot().getY(), null, GamePhase.PLACING, false));
+                    }
+                }
+            }
+            if (actions.isEmpty()) {
+                TileType returnedType = player.hasEmptyHand() ? null : types.get(0);
+                actions.add(new SearchAction(returnedType, null, -1, -1, null, GamePhase.PLACING, true));
+            }
+        }
+        return actions;
+    }
+
+    /**
+     * Creates the action that places a specific tile, which is used to restore a search root in the manning phase.
+     * @param tile is the tile, which is placed on the grid.
+     * @return the action.
+     */
+    static SearchAction placementOf(Tile tile) {
+        return new SearchAction(tile.getType(), tile.getRotation(), tile.getGridSpot().getX(), tile.getGridSpot().getY(), null,
+                GamePhase.PLACING, false);
+    }
+
+    /**
+     * Applies the action to a game. If the action starts the turn of the next player, the tile of that turn is drawn.
+     * @param engine is the game engine, which needs to be in the phase of the action.
+     */
+    void apply(GameEngine engine) {
+        if (phase == GamePhase.MANNING) {
+            if (skip) {
+                engine.skipMeeple();
+            } else {
+                engine.placeMeeple(meeplePosition);
+            }
+        } else {
+            Tile tile = engine.getActivePlayer().getTile(tileType);
+            if (skip) {
+                engine.skipTile(tile);
+            } else {
+                while (tile.getRotation() != rotation) {
+                    tile.rotateRight();
+                }
+                engine.placeTile(tile, x, y);
+            }
+        }
+        if (engine.getPhase() == GamePhase.PLACING) {
+            engine.drawTile();
+        }
+    }
+
+    /**
+     * Getter for the position of the meeple of a manning action.
+     * @return the meeple position, or null if no meeple is placed.
+     */
+    GridDirection getMeeplePosition() {
+        return meeplePosition;
+    }
+
+    /**
+     * Getter for the phase in which this action is played.
+     * @return the phase, either placing or manning.
+     */
+    GamePhase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Getter for the rotation of the placed tile.
+     * @return the rotation, or null if this is no tile placement.
+     */
+    TileRotation getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Getter for the type of the placed or returned tile.
+     * @return the tile type, or null if this is a manning action.
+     */
+    TileType getTileType() {
+        return tileType;
+    }
+
+    /**
+     * Getter for the x coordinate of the placed tile.
+     * @return the x coordinate.
+     */
+    int getX() {
+        return x;
+    }
+
+    /**
+     * Getter for the y coordinate of the placed tile.
+     * @return the y coordinate.
+     */
+    int getY() {
+        return y;
+    }
+
+    /**
+     * Checks whether the action skips a tile or meeple placement.
+     * @return true if it is a skip.
+     */
+    boolean isSkip() {
+        return skip;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof SearchAction)) {
+            return false;
+        }
+        SearchAction other = (SearchAction) object;
+        return tileType == other.tileType && rotation == other.rotation && x == other.x && y == other.y
+                && meeplePosition == other.meeplePosition && phase == other.phase && skip == other.skip;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tileType, rotation, x, y, meeplePosition, phase, skip);
+    }
+
+    @Override
+    public String toString() {
+        if (phase == GamePhase.MANNING) {
+            return skip ? "Action[no meeple]" : "Action[meeple " + meeplePosition + "]";
+        }
+        return skip ? "Action[skip " + tileType + "]" : "Action[" + tileType + " " + rotation + " at (" + x + "|" + y + ")]";
+    }
+}
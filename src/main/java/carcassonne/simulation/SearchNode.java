@@ -0,0 +1,141 @@
+package carcassonne.simulation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Node of a Monte Carlo search tree. Every node except the root is reached by an action of a specific player and
+ * accumulates the rewards of that player. As every iteration searches a different determinization, not all children are
+ * legal in every iteration. Therefore every child counts how often it was available, which replaces the visits of the
+ * parent in the exploration term.
+ * @author Timur Saglam
+ */
+class SearchNode {
+    private final SearchNode parent;
+    private final SearchAction action;
+    private final int player;
+    private final Map<SearchAction, SearchNode> children;
+    private int visits;
+    private int availability;
+    private double reward;
+
+    /**
+     * Creates a root node.
+     */
+    SearchNode() {
+        this(null, null, -1);
+    }
+
+    private SearchNode(SearchNode parent, SearchAction action, int player) {
+        this.parent = parent;
+        this.action = action;
+        this.player = player;
+        children = new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds a child for an action that was not tried yet.
+     * @param childAction is the action that leads to the child.
+     * @param actingPlayer is the number of the player that plays the action.
+     * @return the new child.
+     */
+    SearchNode addChild(SearchAction childAction, int actingPlayer) {
+        SearchNode child = new SearchNode(this, childAction, actingPlayer);
+        child.availability = 1;
+        children.put(childAction, child);
+        return child;
+    }
+
+    /**
+     * Registers that a set of actions is legal in the current iteration and determines the actions that were not tried.
+     * @param legalActions are the legal actions.
+     * @return the untried actions, which may be empty.
+     */
+    List<SearchAction> updateAvailability(List<SearchAction> legalActions) {
+        List<SearchAction> untried = new ArrayList<>();
+        for (SearchAction legalAction : legalActions) {
+            SearchNode child = children.get(legalAction);
+            if (child == null) {
+                untried.add(legalAction);
+            } else {
+                child.availability++;
+            }
+        }
+        return untried;
+    }
+
+    /**
+     * Selects the child with the highest upper confidence bound among the children of legal actions. Ties are broken
+     * randomly.
+     * @param legalActions are the legal actions, all of which need to have a child.
+     * @param exploration is the exploration constant.
+     * @param random is the random number generator.
+     * @return the selected child.
+     */
+    SearchNode select(List<SearchAction> legalActions, double exploration, Random random) {
+        SearchNode selected = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        int ties = 0;
+        for (SearchAction legalAction : legalActions) {
+            SearchNode child = children.get(legalAction);
+            double value = child.reward / child.visits + exploration * Math.sqrt(Math.log(child.availability) / child.visits);
+            if (value > bestValue) {
+                selected = child;
+                bestValue = value;
+                ties = 1;
+            } else if (value == bestValue && random.nextInt(++ties) == 0) {
+                selected = child;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Adds the rewards of an iteration to this node and all its ancestors.
+     * @param rewards are the rewards of all players, indexed by player number.
+     */
+    void backpropagate(double[] rewards) {
+        for (SearchNode node = this; node != null; node = node.parent) {
+            node.visits++;
+            if (node.player >= 0) {
+                node.reward += rewards[node.player];
+            }
+        }
+    }
+
+    /**
+     * Getter for the action that leads to this node.
+     * @return the action, or null for the root.
+     */
+    SearchAction getAction() {
+        return action;
+    }
+
+    /**
+     * Gives access to the children of this node.
+     * @return the children.
+     */
+    Collection<SearchNode> getChildren() {
+        return children.values();
+    }
+
+    /**
+     * Getter for the accumulated reward of the acting player.
+     * @return the reward.
+     */
+    double getReward() {
+        return reward;
+    }
+
+    /**
+     * Getter for the number of iterations that passed this node.
+     * @return the visits.
+     */
+    int getVisits() {
+        return visits;
+    }
+}
@@ -0,0 +1,139 @@
+package carcassonne.simulation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import carcassonne.model.terrain.TerrainType;
+
+/**
+ * The result of a batch of simulated games. It contains the throughput of the simulation and the distribution of the
+ * final scores, both per seat (player number) and for the winners.
+ * @author Timur Saglam
+ */
+public class SimulationResult {
+    private static final double NANOS_PER_SECOND = 1e9;
+    private final int[][] scores; // final score per game and seat
+    private final int[][] terrainScores; // summed up score per seat and terrain type
+    private final long turns;
+    private final long elapsedNanos;
+
+    /**
+     * Creates the result from the results of the single games.
+     * @param games are the results of the single games.
+     * @param elapsedNanos is the wall clock time the simulation took in nanoseconds.
+     */
+    SimulationResult(List<GameResult> games, long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+        scores = new int[games.size()][];
+        int seats = games.isEmpty() ? 0 : games.get(0).getScores().length;
+        terrainScores = new int[seats][TerrainType.basicTerrain().size()];
+        long turnSum = 0;
+        for (int game = 0; game < games.size(); game++) {
+            GameResult result = games.get(game);
+            scores[game] = result.getScores();
+            turnSum += result.getTurns();
+            for (int seat = 0; seat < seats; seat++) {
+                for (int terrain = 0; terrain < terrainScores[seat].length; terrain++) {
+                    terrainScores[seat][terrain] += result.getTerrainScores()[seat][terrain];
+                }
+            }
+        }
+        turns = turnSum;
+    }
+
+    /**
+     * Getter for the number of simulated games.
+     * @return the number of games.
+     */
+    public int getGames() {
+        return scores.length;
+    }
+
+    /**
+     * Calculates the number of simulated games per second of wall clock time.
+     * @return the games per second.
+     */
+    public double getGamesPerSecond() {
+        return scores.length * NANOS_PER_SECOND / Math.max(1, elapsedNanos);
+    }
+
+    /**
+     * Getter for the number of simulated turns, which includes skipped turns.
+     * @return the number of turns.
+     */
+    public long getTurns() {
+        return turns;
+    }
+
+    /**
+     * Calculates the number of simulated turns per second of wall clock time.
+     * @return the turns per second.
+     */
+    public double getTurnsPerSecond() {
+        return turns * NANOS_PER_SECOND / Math.max(1, elapsedNanos);
+    }
+
+    /**
+     * Returns the sorted final scores of a specific seat over all games.
+     * @param seat is the player number.
+     * @return the sorted scores.
+     */
+    public int[] getScores(int seat) {
+        return Arrays.stream(scores).mapToInt(it -> it[seat]).sorted().toArray();
+    }
+
+    /**
+     * Returns the sorted winning scores, which is the highest final score of every game.
+     * @return the sorted scores.
+     */
+    public int[] getWinningScores() {
+        return Arrays.stream(scores).mapToInt(it -> Arrays.stream(it).max().orElse(0)).sorted().toArray();
+    }
+
+    /**
+     * Creates a human readable report of the throughput and the score distributions.
+     * @return the report.
+     */
+    public String createReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(format("%d games, %d turns in %.2f s: %.1f games/s, %.1f turns/s%n", getGames(), turns, elapsedNanos / NANOS_PER_SECOND,
+                getGamesPerSecond(), getTurnsPerSecond()));
+        report.append(format("%-10s %8s %8s %6s %6s %6s %6s %6s", "scores", "mean", "stddev", "min", "p25", "median", "p75", "max"));
+        TerrainType.basicTerrain().forEach(it -> report.append(format(" %9s", it.toReadableString())));
+        report.append(System.lineSeparator());
+        for (int seat = 0; seat < terrainScores.length; seat++) {
+            appendDistribution(report, "player " + (seat + 1), getScores(seat));
+            for (int terrain = 0; terrain < terrainScores[seat].length; terrain++) {
+                report.append(format(" %9.1f", terrainScores[seat][terrain] / (double) Math.max(1, getGames())));
+            }
+            report.append(System.lineSeparator());
+        }
+        appendDistribution(report, "winner", getWinningScores());
+        report.append(System.lineSeparator());
+        return report.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[games: " + getGames() + ", turns: " + turns + ", games/s: " + getGamesPerSecond() + "]";
+    }
+
+    private void appendDistribution(StringBuilder report, String label, int[] sortedScores) {
+        double mean = Arrays.stream(sortedScores).average().orElse(0);
+        double variance = Arrays.stream(sortedScores).mapToDouble(it -> (it - mean) * (it - mean)).average().orElse(0);
+        report.append(format("%-10s %8.1f %8.1f %6d %6d %6d %6d %6d", label, mean, Math.sqrt(variance), percentile(sortedScores, 0),
+                percentile(sortedScores, 25), percentile(sortedScores, 50), percentile(sortedScores, 75), percentile(sortedScores, 100)));
+    }
+
+    private static String format(String format, Object... arguments) {
+        return String.format(Locale.UK, format, arguments);
+    }
+
+    private static int percentile(int[] sortedScores, int percent) {
+        if (sortedScores.length == 0) {
+            return 0;
+        }
+        return sortedScores[(int) Math.round(percent / 100.0 * (sortedScores.length - 1))];
+    }
+}
@@ -0,0 +1,133 @@
+package carcassonne.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.Player;
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.grid.PossiblePlacement;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.Tile;
+
+/**
+ * Enumeration for the strategies of simulated players. A strategy decides where a tile is placed and where a meeple is
+ * placed.
+ * @author Timur Saglam
+ */
+public enum SimulationStrategy {
+    /**
+     * Places tiles and meeples randomly, and places a meeple on every second turn on average.
+     */
+    RANDOM {
+        @Override
+        public PossiblePlacement choosePlacement(GameEngine engine, Tile tile, List<PossiblePlacement> placements, Random random) {
+            return placements.get(random.nextInt(placements.size()));
+        }
+
+        @Override
+        public GridDirection chooseMeepleSpot(GameEngine engine, List<GridDirection> positions, Random random) {
+            if (positions.isEmpty() || random.nextBoolean()) {
+                return null;
+            }
+            return positions.get(random.nextInt(positions.size()));
+        }
+    },
+
+    /**
+     * Places tiles next to as many other tiles as possible and places meeples on castles, monasteries and roads, in that
+     * order of preference. Never places meeples on fields.
+     */
+    GREEDY {
+        private final List<TerrainType> preferences = List.of(TerrainType.CASTLE, TerrainType.MONASTERY, TerrainType.ROAD);
+
+        @Override
+        public PossiblePlacement choosePlacement(GameEngine engine, Tile tile, List<PossiblePlacement> placements, Random random) {
+            PossiblePlacement best = null;
+            int bestNeighbors = -1;
+            int ties = 0;
+            for (PossiblePlacement placement : placements) {
+                int neighbors = engine.getGrid().getNeighbors(placement.getSpot(), false, GridDirection.directNeighbors()).size();
+                if (neighbors > bestNeighbors) {
+                    best = placement;
+                    bestNeighbors = neighbors;
+                    ties = 1;
+                } else if (neighbors == bestNeighbors && random.nextInt(++ties) == 0) {
+                    best = placement; // choose uniformly among equally good placements
+                }
+            }
+            return best;
+        }
+
+        @Override
+        public GridDirection chooseMeepleSpot(GameEngine engine, List<GridDirection> positions, Random random) {
+            for (TerrainType terrain : preferences) {
+                for (GridDirection position : positions) {
+                    if (engine.getPlacedTile().getTerrain(position) == terrain) {
+                        return position;
+                    }
+                }
+            }
+            return null;
+        }
+    };
+
+    /**
+     * Plays the turn of the active player according to this strategy. A random tile of the hand that can be placed is
+     * placed, if there is none, the first tile is put back.
+     * @param engine is the game engine in the placing phase, after the tile of the turn was drawn.
+     * @param random is the random number generator of the simulated game.
+     */
+    public void playTurn(GameEngine engine, Random random) {
+        Player player = engine.getActivePlayer();
+        List<Tile> candidates = new ArrayList<>(player.getHandOfTiles());
+        while (!candidates.isEmpty()) {
+            Tile tile = candidates.remove(random.nextInt(candidates.size()));
+            if (engine.isPlaceableAnywhere(tile.getType())) {
+                List<PossiblePlacement> placements = engine.legalPlacements(tile);
+                PossiblePlacement placement = choosePlacement(engine, tile, placements, random);
+                while (tile.getRotation() != placement.getRotation()) {
+                    tile.rotateRight();
+                }
+                engine.placeTile(tile, placement.getSpot().getX(), placement.getSpot().getY());
+                playMeeple(engine, random);
+                return;
+            }
+        }
+        engine.skipTile(player.hasEmptyHand() ? null : player.getHandOfTiles().iterator().next());
+    }
+
+    /**
+     * Ends the turn of the active player according to this strategy by placing a meeple or not.
+     * @param engine is the game engine in the manning phase.
+     * @param random is the random number generator of the simulated game.
+     */
+    public void playMeeple(GameEngine engine, Random random) {
+        GridDirection position = chooseMeepleSpot(engine, engine.legalMeepleSpots(), random);
+        if (position == null) {
+            engine.skipMeeple();
+        } else {
+            engine.placeMeeple(position);
+        }
+    }
+
+    /**
+     * Chooses where to place a tile.
+     * @param engine is the game engine in the placing phase.
+     * @param tile is the tile to place.
+     * @param placements are the legal placements of the tile, at least one.
+     * @param random is the random number generator of the simulated game.
+     * @return the chosen placement.
+     */
+    public abstract PossiblePlacement choosePlacement(GameEngine engine, Tile tile, List<PossiblePlacement> placements, Random random);
+
+    /**
+     * Chooses where to place a meeple on the placed tile.
+     * @param engine is the game engine in the manning phase.
+     * @param positions are the legal meeple positions, possibly none.
+     * @param random is the random number generator of the simulated game.
+     * @return the chosen position or null if no meeple should be placed.
+     */
+    public abstract GridDirection chooseMeepleSpot(GameEngine engine, List<GridDirection> positions, Random random);
+}
@@ -0,0 +1,55 @@
+package carcassonne.util;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Utility class for seeded random number generators. A game is reproducible from its seed, and independent streams can
+ * be derived from one seed, e.g. for the games of a simulation or the threads of a search. Derived seeds are mixed like
+ * the seeds of a {@link java.util.SplittableRandom}, so neighboring streams do not produce correlated numbers.
+ * @author Timur Saglam
+ */
+public final class RandomStreams {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private RandomStreams() {
+        // private constructor ensures non-instantiability!
+    }
+
+    /**
+     * Derives the seed of an independent stream from a seed.
+     * @param seed is the seed the stream is derived from.
+     * @param stream is the index of the stream.
+     * @return the derived seed, which is different for every stream.
+     */
+    public static long deriveSeed(long seed, long stream) {
+        return mix(mix(seed) + (stream + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Chooses a new random seed, e.g. for a game whose seed was not specified.
+     * @return the seed.
+     */
+    public static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Creates the random number generator of an independent stream, derived from a seed.
+     * @param seed is the seed the stream is derived from.
+     * @param stream is the index of the stream.
+     * @return the random number generator.
+     */
+    public static Random stream(long seed, long stream) {
+        return new Random(deriveSeed(seed, stream));
+    }
+
+    /**
+     * Mixes the bits of a value with the finalizer of the SplitMix64 generator.
+     */
+    private static long mix(long value) {
+        long mixed = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94d049bb133111ebL;
+        return mixed ^ (mixed >>> 31);
+    }
+}
@@ -0,0 +1,77 @@
+package carcassonne.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import carcassonne.model.tile.TileRotation;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+
+/**
+ * Manifest of the available tile images, which specifies how many image files (one per rotation) exist for every tile
+ * type. The manifest is read once from a resource file in the tile folder, which lists the image count per tile type.
+ * Tile types that are missing from that file are probed on the classpath once.
+ * @author Timur Saglam
+ */
+public final class TileImageManifest {
+    private static final String MANIFEST_PATH = GameSettings.TILE_FOLDER_PATH + "manifest.properties";
+    private static final int[] imageCounts = loadManifest();
+
+    private TileImageManifest() {
+        // private constructor ensures non-instantiability!
+    }
+
+    /**
+     * Returns the number of image files that are available for a tile type, which is the number of distinct rotations the
+     * tile can be depicted in.
+     * @param type is the tile type.
+     * @return the number of image files, at least one.
+     * @throws IllegalStateException if there is no image file for the tile type.
+     */
+    public static int getRotationLimit(TileType type) {
+        int rotations = imageCounts[type.ordinal()];
+        if (rotations == 0) {
+            throw new IllegalStateException(type + " tile needs at least one image file!");
+        }
+        return rotations;
+    }
+
+    /**
+     * Loads the image counts of all tile types from the manifest file.
+     */
+    private static int[] loadManifest() {
+        Properties manifest = new Properties();
+        try (InputStream stream = TileImageManifest.class.getClassLoader().getResourceAsStream(MANIFEST_PATH)) {
+            if (stream != null) {
+                manifest.load(stream);
+            }
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+        int[] counts = new int[TileType.values().length];
+        for (TileType type : TileType.values()) {
+            String count = manifest.getProperty(type.name());
+            counts[type.ordinal()] = count == null ? countImageFiles(type) : Integer.parseInt(count.trim());
+        }
+        return counts;
+    }
+
+    /**
+     * Checks how many image files are available for a tile type by probing the classpath.
+     */
+    private static int countImageFiles(TileType type) {
+        int rotations = 0;
+        for (int rotation = 0; rotation < TileRotation.values().length; rotation++) {
+            String path = GameSettings.TILE_FOLDER_PATH + type.name() + rotation + GameSettings.TILE_FILE_TYPE;
+            try (InputStream file = TileImageManifest.class.getClassLoader().getResourceAsStream(path)) {
+                if (file != null) {
+                    rotations++;
+                }
+            } catch (IOException exception) {
+                exception.printStackTrace();
+            }
+        }
+        return rotations;
+    }
+}
@@ -0,0 +1,234 @@
+package carcassonne.verification;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.GamePhase;
+import carcassonne.model.Player;
+import carcassonne.model.Round;
+import carcassonne.model.grid.Grid;
+import carcassonne.model.grid.GridDirection;
+import carcassonne.model.grid.GridPattern;
+import carcassonne.model.record.GameRecordReader;
+import carcassonne.model.record.GameRecordWriter;
+import carcassonne.model.terrain.TerrainType;
+import carcassonne.model.tile.Tile;
+import carcassonne.model.tile.TileRotation;
+import carcassonne.model.tile.TileType;
+import carcassonne.settings.GameSettings;
+import carcassonne.simulation.SimulationStrategy;
+
+/**
+ * Verification suite of the model, which contains the regressions of fixed scoring bugs and differential checks that
+ * compare the incrementally maintained game with an independent reconstruction over seeded random games. Does not require
+ * any libraries, run it with the main method. Fails with an exception if any verification fails.
+ * @author Timur Saglam
+ */
+public final class VerificationSuite {
+    private static final long DEFAULT_SEED = 42;
+    private static final int GAMES = 20;
+    private static final int UNDO_CHANCE = 6; // one in this many turns takes moves back
+
+    private VerificationSuite() {
+        // private constructor ensures non-instantiability!
+    }
+
+    /**
+     * Creates the verifications of the model.
+     * @param seed is the seed of the random games.
+     * @return the verifications, mapped by their names.
+     */
+    public static Map<String, Runnable> createVerifications(long seed) {
+        Map<String, Runnable> verifications = new LinkedHashMap<>();
+        verifications.put("Final scoring includes the castle next to a nested field castle", VerificationSuite::verifyNestedFieldCastle);
+        verifications.put("Projected scores match the final scoring of fields touching corners", VerificationSuite::verifyFieldCorners);
+        verifications.put("Game records replay the recorded games", () -> verifyRecordRoundTrip(seed));
+        verifications.put("Undo and redo restore the position hashes", () -> verifyUndoRedoHashes(seed));
+        return verifications;
+    }
+
+    /**
+     * Runs the verification suite and prints the results.
+     * @param args is optional: the seed of the random games.
+     */
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_SEED;
+        int failures = 0;
+        for (Map.Entry<String, Runnable> verification : createVerifications(seed).entrySet()) {
+            try {
+                verification.getValue().run();
+                System.out.println("PASSED " + verification.getKey());
+            } catch (IllegalStateException exception) {
+                System.out.println("FAILED " + verification.getKey() + ": " + exception.getMessage());
+                failures++;
+            }
+        }
+        if (failures > 0) {
+            throw new IllegalStateException(failures + " verifications failed with seed " + seed);
+        }
+    }
+
+    /**
+     * The fields of both castle walls touch the corners without fields of the tile between them, which are claimed by one of
+     * the fields. The projection needs to count the same castles as the final scoring, also after a tile that touches the
+     * corners was taken back.
+     */
+    private static void verifyFieldCorners() {
+        Grid grid = new Grid(31, 31); // foundation at (15, 15)
+        place(grid, TileType.CastleCenterSides, TileRotation.UP, 15, 14);
+        Tile eastTile = place(grid, TileType.CastleWall, TileRotation.UP, 16, 14);
+        Tile westTile = place(grid, TileType.CastleWall, TileRotation.UP, 14, 14);
+        place(grid, TileType.CastleWall, TileRotation.UP, 15, 13);
+        grid.removeLastTile();
+        GameSettings settings = new GameSettings();
+        Player[] players = { new Player(0, settings), new Player(1, settings) };
+        eastTile.placeMeeple(players[0], GridDirection.EAST);
+        westTile.placeMeeple(players[1], GridDirection.WEST);
+        int[] projected = { grid.getProjectedPoints(players[0]), grid.getProjectedPoints(players[1]) };
+        grid.getAllPatterns().forEach(GridPattern::forceDisburse);
+        for (Player player : players) {
+            int score = player.getScore();
+            verify(projected[player.getNumber()] == score, "projected " + projected[player.getNumber()] + " but scored " + score);
+        }
+    }
+
+    /**
+     * The field next to the mini castle contains the castle of the tube entry as nested castle. Its traversal must not leave
+     * tags behind that hide the incomplete castle from the final scoring.
+     */
+    private static void verifyNestedFieldCastle() {
+        Grid grid = new Grid(31, 31); // foundation at (15, 15)
+        place(grid, TileType.CastleTubeEntry, TileRotation.TILTED_RIGHT, 16, 15);
+        Tile tile = place(grid, TileType.CastleEdgeRoad, TileRotation.UP, 16, 16);
+        place(grid, TileType.CastleMini, TileRotation.TILTED_LEFT, 15, 16);
+        Player player = new Player(0, new GameSettings());
+        tile.placeMeeple(player, GridDirection.NORTH);
+        grid.getAllPatterns().forEach(GridPattern::forceDisburse);
+        verify(player.getTerrainScore(TerrainType.CASTLE) == 2, "castle score is " + player.getTerrainScore(TerrainType.CASTLE));
+    }
+
+    /**
+     * Records random games into one archive and checks that replaying every record leads to the same moves, positions and
+     * final scores.
+     */
+    private static void verifyRecordRoundTrip(long seed) {
+        Random random = new Random(seed);
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        List<GameEngine> engines = new ArrayList<>();
+        try {
+            for (int game = 0; game < GAMES; game++) {
+                GameSettings settings = createSettings(game);
+                GameEngine engine = new GameEngine(settings.getAmountOfPlayers(), settings, random);
+                GameRecordWriter writer = new GameRecordWriter(archive, engine, settings, seed + game);
+                engine.drawTile();
+                while (engine.getPhase() != GamePhase.OVER) {
+                    SimulationStrategy.RANDOM.playTurn(engine, random);
+                    writer.write(engine.getMoves().get(engine.getMoves().size() - 1));
+                    if (engine.getPhase() == GamePhase.PLACING) {
+                        engine.drawTile();
+                    }
+                }
+                writer.finish();
+                engines.add(engine);
+            }
+            InputStream input = new ByteArrayInputStream(archive.toByteArray());
+            int game = 0;
+            for (GameRecordReader reader = GameRecordReader.open(input); reader != null; reader = GameRecordReader.open(input)) {
+                GameEngine original = engines.get(game);
+                GameEngine replayed = reader.replay();
+                verify(reader.getSeed() == seed + game, "seed of game " + game + " is " + reader.getSeed());
+                verify(replayed.getMoves().equals(original.getMoves()), "moves of game " + game + " differ");
+                verifySamePosition(original, replayed, "replay of game " + game);
+                original.finalScore();
+                replayed.finalScore();
+                verifySamePosition(original, replayed, "final scoring of game " + game);
+                game++;
+            }
+            verify(game == GAMES, game + " of " + GAMES + " records were read");
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Plays random games and takes back moves at random turns. Taking back moves needs to restore the position hash of the
+     * turn, and redoing them the position hash and scores before they were taken back.
+     */
+    private static void verifyUndoRedoHashes(long seed) {
+        Random random = new Random(seed);
+        for (int game = 0; game < GAMES; game++) {
+            GameSettings settings = createSettings(game);
+            GameEngine engine = new GameEngine(settings.getAmountOfPlayers(), settings, random);
+            List<Long> hashes = new ArrayList<>(); // hash at the start of every move
+            engine.drawTile();
+            while (engine.getPhase() != GamePhase.OVER) {
+                hashes.add(engine.getRound().getZobristHash());
+                if (random.nextInt(UNDO_CHANCE) == 0) {
+                    long hash = engine.getRound().getZobristHash();
+                    int[] scores = getScores(engine.getRound());
+                    int moves = Math.min(engine.getMoves().size(), 1 + random.nextInt(3));
+                    for (int move = 0; move < moves; move++) {
+                        engine.unmake();
+                        long expected = hashes.get(engine.getMoves().size());
+                        verify(engine.getRound().getZobristHash() == expected, "hash after taking back move " + engine.getMoves().size());
+                    }
+                    while (engine.canRedo()) {
+                        engine.redo();
+                    }
+                    verify(engine.getRound().getZobristHash() == hash, "hash after redoing move " + engine.getMoves().size());
+                    verify(Arrays.equals(getScores(engine.getRound()), scores), "scores after redoing move " + engine.getMoves().size());
+                }
+                SimulationStrategy.RANDOM.playTurn(engine, random);
+                if (engine.getPhase() == GamePhase.PLACING) {
+                    engine.drawTile();
+                }
+            }
+        }
+    }
+
+    private static GameSettings createSettings(int game) {
+        GameSettings settings = new GameSettings();
+        settings.setAmountOfPlayers(2 + game % 4);
+        settings.setTilesPerPlayer(1 + game % 3);
+        return settings;
+    }
+
+    private static int[] getScores(Round round) {
+        int[] scores = new int[round.getPlayerCount()];
+        for (int player = 0; player < scores.length; player++) {
+            scores[player] = round.getPlayer(player).getScore();
+        }
+        return scores;
+    }
+
+    private static Tile place(Grid grid, TileType type, TileRotation rotation, int x, int y) {
+        Tile tile = new Tile(type);
+        while (tile.getRotation() != rotation) {
+            tile.rotateRight();
+        }
+        verify(grid.place(x, y, tile), type + " can not be placed on " + x + ", " + y);
+        return tile;
+    }
+
+    private static void verify(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private static void verifySamePosition(GameEngine expected, GameEngine actual, String description) {
+        verify(actual.getRound().getZobristHash() == expected.getRound().getZobristHash(), "position hash of the " + description);
+        verify(Arrays.equals(getScores(actual.getRound()), getScores(expected.getRound())), "scores of the " + description);
+        verify(actual.getPhase() == expected.getPhase(), "phase of the " + description);
+    }
+}
@@ -1,5 +1,6 @@
 package carcassonne.view;
 
+import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
@@ -48,6 +49,8 @@ public class GlobalKeyBindingManager {
         addZoomKeyBindings();
         addRotationBindings();
         addSelectionBindings();
+        addUndoBinding();
+        addHintBinding();
     }
 
     /**
@@ -100,6 +103,20 @@ public class GlobalKeyBindingManager {
         addKeyBinding("down", downStroke, selectBelowAction);
     }
 
+    private void addHintBinding() {
+        // SUGGEST MOVE:
+        KeyStroke hintStroke = KeyStroke.getKeyStroke(KeyEvent.VK_H, NO_MODIFIER);
+        Action hintAction = new AbstractAction() {
+            private static final long serialVersionUID = -2377316052648301187L;
+
+            @Override
+            public void actionPerformed(ActionEvent event) {
+                controller.requestMoveSuggestion();
+            }
+        };
+        addKeyBinding("hint", hintStroke, hintAction);
+    }
+
     private void addRotationBindings() {
         // ROTATE TILE LEFT:
         KeyStroke leftStroke = KeyStroke.getKeyStroke(KeyEvent.VK_LEFT, NO_MODIFIER);
@@ -138,6 +155,20 @@ public class GlobalKeyBindingManager {
         addKeyBinding("escape", escapeStroke, skipAction);
     }
 
+    private void addUndoBinding() {
+        // UNDO LAST MOVE:
+        KeyStroke undoStroke = KeyStroke.getKeyStroke(KeyEvent.VK_Z, Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx());
+        Action undoAction = new AbstractAction() {
+            private static final long serialVersionUID = 3412694870263571924L;
+
+            @Override
+            public void actionPerformed(ActionEvent event) {
+                controller.requestUndo();
+            }
+        };
+        addKeyBinding("undo", undoStroke, undoAction);
+    }
+
     private void addZoomKeyBindings() {
         // ZOOM IN:
         KeyStroke plusStroke = KeyStroke.getKeyStroke(KeyEvent.VK_PLUS, NO_MODIFIER, true);
@@ -2,6 +2,8 @@ package carcassonne.view.main;
 
 import java.awt.BorderLayout;
 import java.awt.Dimension;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 import javax.swing.ActionMap;
 import javax.swing.ImageIcon;
@@ -66,6 +68,13 @@ public class MainGUI extends JFrame implements NotifiableUI {
         keyBindings.addKeyBindingsToMaps(inputMap, actionMap);
     }
 
+    /**
+     * Hides the suggested tile, if one is shown.
+     */
+    public void resetHint() {
+        tileLayer.resetHint();
+    }
+
     /**
      * Resets the tile grid and the meeple grid to return to the initial state.
      */
@@ -116,6 +125,17 @@ public class MainGUI extends JFrame implements NotifiableUI {
         meepleLayer.resetPanel(x, y);
     }
 
+    /**
+     * Resets a single spot of the tile grid and the meeple grid, which removes its tile and meeple.
+     * @param x is the x coordinate.
+     * @param y is the y coordinate.
+     */
+    public void resetTile(int x, int y) {
+        checkCoordinates(x, y);
+        tileLayer.resetTile(x, y);
+        meepleLayer.resetPanel(x, y);
+    }
+
     /**
      * Resets the state of the menu to allows restarting.
      */
@@ -227,6 +247,19 @@ public class MainGUI extends JFrame implements NotifiableUI {
         tileLayer.highlightTile(x, y);
     }
 
+    /**
+     * Shows a suggested tile placement on the grid.
+     * @param tile is the suggested tile, rotated as suggested.
+     * @param x is the x coordinate.
+     * @param y is the y coordinate.
+     * @param description describes the suggestion, it is shown as tool tip.
+     */
+    public void setHint(Tile tile, int x, int y, String description) {
+        checkParameters(tile);
+        checkCoordinates(x, y);
+        tileLayer.showHint(tile, x, y, description);
+    }
+
     /**
      * Draws meeple on a tile on the grid.
      * @param tile is the tile where the meeple gets drawn.
@@ -291,6 +324,12 @@ public class MainGUI extends JFrame implements NotifiableUI {
         add(scrollPane, BorderLayout.CENTER);
         setMinimumSize(MINIMAL_WINDOW_SIZE);
         addWindowListener(new WindowMaximizationAdapter(this));
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent windowEvent) {
+                controller.requestExit(); // before the application exits
+            }
+        });
         pack();
     }
 
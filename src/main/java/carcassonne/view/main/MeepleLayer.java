@@ -133,7 +133,9 @@ public class MeepleLayer extends JPanel {
      * @param y is the y-coordinate of that panel.
      */
     public void resetPanel(int x, int y) {
-        meeplePanelGrid[x][y].resetAll();
+        if (meeplePanelGrid[x][y] != null) { // panels without meeples might not be initialized
+            meeplePanelGrid[x][y].resetAll();
+        }
     }
 
     /**
@@ -98,6 +98,27 @@ public class TileDepiction {
         setTile(highlightTile);
     }
 
+    /**
+     * Shows a suggested tile on this label, which stays until it is hidden or replaced.
+     * @param hintTile is the suggested {@link Tile}.
+     * @param description describes the suggestion, it is shown as tool tip.
+     */
+    public void showHint(Tile hintTile, String description) {
+        setTile(hintTile);
+        label.setToolTipText(description);
+    }
+
+    /**
+     * Hides a suggested tile again and shows the highlight instead, unless the label shows another tile in the meantime.
+     * @param hintTile is the suggested {@link Tile} that was shown.
+     */
+    public void hideHint(Tile hintTile) {
+        label.setToolTipText(null);
+        if (tile == hintTile) {
+            highlight();
+        }
+    }
+
     /**
      * Disables the colored mouseover highlight and sets this tile to the default tile.
      */
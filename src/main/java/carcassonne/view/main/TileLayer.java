@@ -3,7 +3,9 @@ package carcassonne.view.main;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.swing.ImageIcon;
 import javax.swing.JPanel;
@@ -21,6 +23,9 @@ public class TileLayer extends JPanel {
     private static final long serialVersionUID = 1503933201337556131L;
     private List<TileDepiction> tileLabels;
     private TileDepiction[][] tileLabelGrid;
+    private Set<TileDepiction> changedLabels;
+    private TileDepiction hintLabel;
+    private Tile hintTile;
 
     /**
      * Creates the tile layer.
@@ -34,6 +39,7 @@ public class TileLayer extends JPanel {
         setLayout(new GridBagLayout());
         GridBagConstraints constraints = new GridBagConstraints();
         tileLabels = new ArrayList<>();
+        changedLabels = new HashSet<>();
         tileLabelGrid = new TileDepiction[gridWidth][gridHeight]; // build array of labels.
         Tile defaultTile = new Tile(TileType.Null);
         Tile highlightTile = new Tile(TileType.Null);
@@ -65,6 +71,7 @@ public class TileLayer extends JPanel {
      */
     public void highlightTile(int x, int y) {
         tileLabelGrid[x][y].highlight();
+        changedLabels.add(tileLabelGrid[x][y]);
     }
 
     /**
@@ -75,6 +82,7 @@ public class TileLayer extends JPanel {
      */
     public void placeTile(Tile tile, int x, int y) {
         tileLabelGrid[x][y].setTile(tile);
+        changedLabels.add(tileLabelGrid[x][y]);
     }
 
     /**
@@ -86,9 +94,45 @@ public class TileLayer extends JPanel {
     }
 
     /**
-     * Resets every tile label in this layer.
+     * Hides the suggested tile, if one is shown.
+     */
+    public void resetHint() {
+        if (hintLabel != null) {
+            hintLabel.hideHint(hintTile);
+            hintLabel = null;
+            hintTile = null;
+        }
+    }
+
+    /**
+     * Shows a suggested tile on a free spot, which replaces the previously suggested tile.
+     * @param tile is the suggested tile, rotated as suggested.
+     * @param x is the x-coordinate of the spot.
+     * @param y is the y-coordinate of the spot.
+     * @param description describes the suggestion, it is shown as tool tip.
+     */
+    public void showHint(Tile tile, int x, int y, String description) {
+        resetHint();
+        hintLabel = tileLabelGrid[x][y];
+        hintTile = tile;
+        hintLabel.showHint(tile, description);
+        changedLabels.add(hintLabel);
+    }
+
+    /**
+     * Resets a specific tile label to the default tile.
+     * @param x is the x-coordinate of that tile.
+     * @param y is the y-coordinate of that tile.
+     */
+    public void resetTile(int x, int y) {
+        tileLabelGrid[x][y].reset();
+    }
+
+    /**
+     * Resets every tile label in this layer. Only the labels that were changed since the last reset are reset.
      */
     public void resetLayer() {
-        tileLabels.parallelStream().forEach(it -> it.reset());
+        changedLabels.forEach(TileDepiction::reset);
+        changedLabels.clear();
     }
 }
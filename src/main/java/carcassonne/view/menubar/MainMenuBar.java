@@ -33,7 +33,14 @@ public class MainMenuBar extends JMenuBar implements NotifiableUI {
     private static final String CLASSIC = " (Classic)";
     private static final String TILES_PER_PLAYER = " Tiles";
     private static final String HAND_SETTINGS = "Hand of Tiles";
+    private static final String THINKING_TIME = "Computer Thinking Time";
+    private static final String SECONDS = " Seconds";
+    private static final int[] THINKING_SECONDS = { 1, 2, 5, 10 };
     private static final String GRID_SIZE = "Change Grid Size";
+    private static final String SEED = "Game Seed...";
+    private static final String SEED_MESSAGE = "The seed of the current game is %d.%nEnter a seed to play all following games with it, "
+            + "or leave it empty to play with random seeds.";
+    private static final String INVALID_SEED = "Invalid seed, a seed needs to be a whole number: ";
     private static final String ABORT = "Abort Current Game";
     private static final String AMOUNT = "Amount of Players";
     private static final String GAME = "Game";
@@ -42,6 +49,8 @@ public class MainMenuBar extends JMenuBar implements NotifiableUI {
     private static final String OPTIONS = "Options";
     private static final String PLAYERS = " Players";
     private static final String PLAYER_SETTINGS = "Player Settings";
+    private static final String REPLAY = "Replay Game Record...";
+    private static final String SUGGEST_MOVE = "Suggest Move";
     private static final String SETTINGS_OF = "Settings of ";
     private static final String VIEW = "View";
     private static final String ABOUT = "About";
@@ -116,17 +125,40 @@ public class MainMenuBar extends JMenuBar implements NotifiableUI {
         }
     }
 
+    private void changeSeed() {
+        String input = GameMessage.getUserInput(String.format(SEED_MESSAGE, settings.getSeed()));
+        if (input == null) {
+            return; // dialog was cancelled
+        }
+        if (input.isBlank()) {
+            settings.releaseSeed();
+        } else {
+            try {
+                settings.setSeed(Long.parseLong(input.strip()));
+            } catch (NumberFormatException exception) {
+                GameMessage.showError(INVALID_SEED + input);
+            }
+        }
+    }
+
     private void buildGameMenu() {
         itemNewRound = new JMenuItem(NEW_ROUND);
         itemAbortRound = new JMenuItem(ABORT);
+        JMenuItem itemReplay = new JMenuItem(REPLAY);
+        JMenuItem itemSuggestMove = new JMenuItem(SUGGEST_MOVE);
         JMenuItem itemAbout = new JMenuItem(ABOUT);
         itemAbortRound.setEnabled(false);
         itemAbout.addActionListener(event -> GameMessage.showGameInfo());
         itemNewRound.addActionListener(new NewRoundListener(controller, itemNewRound, itemAbortRound));
         itemAbortRound.addActionListener(new AbortRoundListener(controller, itemNewRound, itemAbortRound));
+        itemReplay.addActionListener(new ReplayListener(controller, mainUI));
+        itemSuggestMove.addActionListener(event -> controller.requestMoveSuggestion());
         JMenu menuGame = new JMenu(GAME);
         menuGame.add(itemNewRound);
         menuGame.add(itemAbortRound);
+        menuGame.add(itemReplay);
+        menuGame.addSeparator();
+        menuGame.add(itemSuggestMove);
         menuGame.addSeparator();
         menuGame.add(itemAbout);
         add(menuGame);
@@ -137,6 +169,7 @@ public class MainMenuBar extends JMenuBar implements NotifiableUI {
         menuOptions.add(buildPlayerMenu());
         menuOptions.add(buildHandMenu());
         menuOptions.add(buildMeepleRuleMenu());
+        menuOptions.add(buildThinkingTimeMenu());
         menuOptions.add(buildColorMenu());
         notifyChange(); // set colors
         menuOptions.addSeparator();
@@ -147,6 +180,9 @@ public class MainMenuBar extends JMenuBar implements NotifiableUI {
         JMenuItem itemDistribution = new JMenuItem(DISTRIBUTION);
         itemDistribution.addActionListener(event -> tileDistributionUI.setVisible(true));
         menuOptions.add(itemDistribution);
+        JMenuItem itemSeed = new JMenuItem(SEED);
+        itemSeed.addActionListener(event -> changeSeed());
+        menuOptions.add(itemSeed);
         add(menuOptions);
     }
 
@@ -195,6 +231,20 @@ public class MainMenuBar extends JMenuBar implements NotifiableUI {
         return menu;
     }
 
+    private JMenu buildThinkingTimeMenu() {
+        JMenu menu = new JMenu(THINKING_TIME);
+        ButtonGroup group = new ButtonGroup();
+        for (int seconds : THINKING_SECONDS) {
+            int milliseconds = seconds * 1000;
+            JRadioButtonMenuItem item = new JRadioButtonMenuItem(seconds + SECONDS);
+            item.addActionListener(event -> settings.setComputerThinkingTime(milliseconds));
+            item.setSelected(settings.getComputerThinkingTime() == milliseconds);
+            group.add(item);
+            menu.add(item);
+        }
+        return menu;
+    }
+
     private JMenu buildMeepleRuleMenu() {
         JMenu menu = new JMenu(MEEPLE_RULES);
         for (TerrainType type : TerrainType.basicTerrain()) {
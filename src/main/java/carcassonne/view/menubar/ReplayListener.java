@@ -0,0 +1,58 @@
+package carcassonne.view.menubar;
+
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.swing.JFileChooser;
+
+import carcassonne.control.MainController;
+import carcassonne.model.record.GameRecordReader;
+import carcassonne.model.record.GameReplay;
+import carcassonne.view.util.GameMessage;
+
+/**
+ * A simple listener for the replay button, which lets the user choose a game record file. If the file contains
+ * multiple records, the first one is replayed.
+ * @author Timur Saglam
+ */
+public class ReplayListener implements ActionListener {
+    private final MainController controller;
+    private final Component parent;
+
+    /**
+     * Creates the listener.
+     * @param controller is the main controller to request actions.
+     * @param parent is the parent component of the file chooser.
+     */
+    public ReplayListener(MainController controller, Component parent) {
+        this.controller = controller;
+        this.parent = parent;
+    }
+
+    /**
+     * Loads the chosen game record and requests the replay.
+     */
+    @Override
+    public void actionPerformed(ActionEvent event) {
+        JFileChooser fileChooser = new JFileChooser();
+        if (fileChooser.showOpenDialog(parent) == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
+                GameRecordReader reader = GameRecordReader.open(input);
+                if (reader == null) {
+                    GameMessage.showError(file.getName() + " does not contain a game record.");
+                } else {
+                    controller.requestReplay(new GameReplay(reader));
+                }
+            } catch (IOException exception) {
+                GameMessage.showError("Could not replay " + file.getName() + ": " + exception.getMessage());
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ import carcassonne.view.main.MainGUI;
 public class Scoreboard implements NotifiableUI {
     private static final String FONT_TYPE = "Helvetica";
     private static final String TOOL_TIP = "Settings for player ";
+    private static final String SEED_TOOL_TIP = "Seed of this game: ";
     private final JLabel[] scoreLabels;
     private final JLabel stackSizeLabel;
     private final List<JLabel> allLabels;
@@ -87,10 +88,12 @@ public class Scoreboard implements NotifiableUI {
     /**
      * Updates a specific player label of the scoreboard.
      * @param player is the player whose scoreboard should be updated.
+     * @param projectedScore is the score the player would have if the game ended now.
      */
-    public void update(Player player) {
+    public void update(Player player, int projectedScore) {
         String playerName = player.getName();
-        String text = "[" + playerName + ": " + player.getScore() + " points, " + player.getFreeMeeples() + " meeples]    ";
+        String text = "[" + playerName + ": " + player.getScore() + " points (" + projectedScore + " projected), " + player.getFreeMeeples()
+                + " meeples]    ";
         scoreLabels[player.getNumber()].setText(text);
         scoreLabels[player.getNumber()].setToolTipText(TOOL_TIP + player.getName());
     }
@@ -103,6 +106,14 @@ public class Scoreboard implements NotifiableUI {
         stackSizeLabel.setText("   [Stack Size: " + stackSize + "]");
     }
 
+    /**
+     * Shows the seed of the current game as tool tip of the stack size label.
+     * @param seed is the seed, which reproduces the tile stack.
+     */
+    public void updateSeed(long seed) {
+        stackSizeLabel.setToolTipText(SEED_TOOL_TIP + seed);
+    }
+
     /**
      * Grants access to a specific mouse listener of one players settings.
      * @param playerNumber specifies the player.
@@ -9,6 +9,7 @@ import java.util.Map;
 import javax.swing.BorderFactory;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JColorChooser;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
@@ -24,7 +25,8 @@ import carcassonne.view.main.MainGUI;
 import carcassonne.view.util.GameMessage;
 
 /**
- * Custom UI for the play settings. Allows changing the name and the color of a player.
+ * Custom UI for the play settings. Allows changing the name and the color of a player, and whether the player is
+ * controlled by the computer.
  * @author Timur Saglam
  */
 public class PlayerSettingsGUI extends JDialog implements ChangeListener, ActionListener {
@@ -34,11 +36,13 @@ public class PlayerSettingsGUI extends JDialog implements ChangeListener, Action
     private static final String EMPTY_NAME = "The player name cannot be empty!";
     private static final String ACCEPT_CHANGES = "Accept Changes";
     private static final String CHANGE_NAME = "Choose Player Name:";
+    private static final String COMPUTER_PLAYER = "Controlled by the computer";
     private JColorChooser colorChooser;
     private Map<TerrainType, JLabel> labelMap;
     private final GameSettings settings;
     private final int playerNumber;
     private JTextField nameTextField;
+    private JCheckBox computerCheckBox;
 
     /**
      * Creates a new player settings UI for a specific player.
@@ -66,6 +70,7 @@ public class PlayerSettingsGUI extends JDialog implements ChangeListener, Action
         }
         colorChooser.setColor(settings.getPlayerColor(playerNumber));
         nameTextField.setText(settings.getPlayerName(playerNumber));
+        computerCheckBox.setSelected(settings.isComputerPlayer(playerNumber));
         setVisible(true);
     }
 
@@ -84,15 +89,18 @@ public class PlayerSettingsGUI extends JDialog implements ChangeListener, Action
         } else {
             settings.setPlayerName(nameTextField.getText(), playerNumber);
             settings.setPlayerColor(colorChooser.getColor(), playerNumber);
+            settings.setComputerPlayer(computerCheckBox.isSelected(), playerNumber);
             setVisible(false);
         }
     }
 
     private void createNamePanel() {
         nameTextField = new JTextField();
+        computerCheckBox = new JCheckBox(COMPUTER_PLAYER);
         JPanel namePanel = new JPanel();
         namePanel.setLayout(new BorderLayout());
         namePanel.add(nameTextField);
+        namePanel.add(computerCheckBox, BorderLayout.SOUTH);
         namePanel.setBorder(BorderFactory.createTitledBorder(CHANGE_NAME));
         add(namePanel, BorderLayout.NORTH);
     }
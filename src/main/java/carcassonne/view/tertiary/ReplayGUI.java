@@ -0,0 +1,129 @@
+package carcassonne.view.tertiary;
+
+import java.awt.BorderLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JSlider;
+import javax.swing.SwingConstants;
+
+import carcassonne.model.GameEngine;
+import carcassonne.model.Meeple;
+import carcassonne.model.Round;
+import carcassonne.model.grid.GridSpot;
+import carcassonne.model.record.GameReplay;
+import carcassonne.model.tile.Tile;
+import carcassonne.view.main.MainGUI;
+import carcassonne.view.menubar.Scoreboard;
+
+/**
+ * A small window to scrub through a recorded game, which shows the turns of the game on the main GUI. Only the spots that
+ * change between two turns are redrawn.
+ * @author Timur Saglam
+ */
+public class ReplayGUI extends JDialog {
+    private static final long serialVersionUID = -3271183519650735226L; // generated UID
+    private static final String TITLE = "Replay";
+    private static final String PREVIOUS = "<";
+    private static final String NEXT = ">";
+    private final MainGUI mainUI;
+    private final Scoreboard scoreboard;
+    private final GameReplay replay;
+    private JSlider slider;
+    private JLabel turnLabel;
+
+    /**
+     * Creates the GUI and shows the last turn of the replay.
+     * @param mainUI is the main user interface, which shows the grid.
+     * @param replay is the replay of the recorded game.
+     */
+    public ReplayGUI(MainGUI mainUI, GameReplay replay) {
+        super(mainUI, TITLE);
+        this.mainUI = mainUI;
+        this.replay = replay;
+        scoreboard = mainUI.getScoreboard();
+        buildFrame();
+        showGrid();
+    }
+
+    /**
+     * Hides and disposes the GUI and clears the grid of the main GUI.
+     */
+    public void closeGUI() {
+        setVisible(false);
+        dispose();
+        mainUI.resetGrid();
+        scoreboard.disable();
+    }
+
+    private void buildFrame() {
+        slider = new JSlider(0, replay.getTurnCount(), replay.getTurn());
+        slider.addChangeListener(event -> showTurn(slider.getValue()));
+        JButton buttonPrevious = new JButton(PREVIOUS);
+        buttonPrevious.addActionListener(event -> slider.setValue(slider.getValue() - 1));
+        JButton buttonNext = new JButton(NEXT);
+        buttonNext.addActionListener(event -> slider.setValue(slider.getValue() + 1));
+        turnLabel = new JLabel("", SwingConstants.CENTER);
+        setLayout(new BorderLayout());
+        add(turnLabel, BorderLayout.NORTH);
+        add(buttonPrevious, BorderLayout.WEST);
+        add(slider, BorderLayout.CENTER);
+        add(buttonNext, BorderLayout.EAST);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent windowEvent) {
+                closeGUI();
+            }
+        });
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+        pack();
+        setResizable(false);
+        setLocationRelativeTo(null);
+        setVisible(true);
+    }
+
+    /**
+     * Draws the placed tiles of the current turn on an empty grid.
+     */
+    private void showGrid() {
+        mainUI.resetGrid();
+        replay.getEngine().getGrid().getPlacedSpots().forEach(this::showSpot);
+        updateLabels();
+    }
+
+    private void showSpot(GridSpot spot) {
+        mainUI.resetTile(spot.getX(), spot.getY());
+        if (spot.isOccupied()) {
+            Tile tile = spot.getTile();
+            mainUI.setTile(tile, spot.getX(), spot.getY());
+            Meeple meeple = tile.getMeeple();
+            if (tile.hasMeeple() && meeple.isPlaced()) { // returned meeples stay on their tiles
+                mainUI.setMeeple(tile, meeple.getPosition(), meeple.getOwner());
+            }
+        }
+    }
+
+    private void showTurn(int turn) {
+        if (turn != replay.getTurn()) {
+            List<GridSpot> changedSpots = replay.seek(turn);
+            changedSpots.forEach(this::showSpot);
+            updateLabels();
+        }
+    }
+
+    private void updateLabels() {
+        GameEngine engine = replay.getEngine();
+        Round round = engine.getRound();
+        scoreboard.disable();
+        scoreboard.rebuild(round.getPlayerCount());
+        for (int number = 0; number < round.getPlayerCount(); number++) {
+            scoreboard.update(round.getPlayer(number), round.getProjectedScore(number));
+        }
+        scoreboard.updateStackSize(engine.getTileStack().getSize());
+        turnLabel.setText("Turn " + replay.getTurn() + " of " + replay.getTurnCount());
+    }
+}
@@ -7,6 +7,7 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
@@ -19,6 +20,7 @@ import javax.swing.border.LineBorder;
 import carcassonne.model.tile.TileDistribution;
 import carcassonne.model.tile.TileType;
 import carcassonne.settings.GameSettings;
+import carcassonne.util.RandomStreams;
 import carcassonne.view.util.MouseClickListener;
 
 /**
@@ -42,6 +44,7 @@ public class TileDistributionGUI extends JDialog {
     private final List<TileQuantityPanel> quantityPanels;
     private final GameSettings settings;
     private int stackSizeMultiplier;
+    private int shuffles;
     private JLabel sizeLabel;
 
     /**
@@ -151,7 +154,8 @@ public class TileDistributionGUI extends JDialog {
         JButton shuffleButton = new JButton(SHUFFLE);
         shuffleButton.addMouseListener((MouseClickListener) event -> {
             applyChangesToDistribution();
-            distribution.shuffle();
+            Random random = RandomStreams.stream(settings.getSeed(), shuffles++); // reproducible with the seed
+            distribution.shuffle(random);
             updateFromDistribution();
         });
         JButton resetButton = new JButton(RESET);